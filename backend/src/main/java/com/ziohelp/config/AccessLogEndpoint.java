@@ -0,0 +1,50 @@
+package com.ziohelp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route latency percentiles at /actuator/accesslog, slowest p99 first.
+ */
+@Component
+@Endpoint(id = "accesslog")
+public class AccessLogEndpoint {
+
+    @Autowired
+    private AccessLogRingBuffer accessLogRingBuffer;
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        accessLogRingBuffer.histograms().forEach((route, histogram) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("route", route);
+            entry.put("count", histogram.count());
+            entry.put("p50Ms", histogram.percentileMicros(50) / 1000.0);
+            entry.put("p95Ms", histogram.percentileMicros(95) / 1000.0);
+            entry.put("p99Ms", histogram.percentileMicros(99) / 1000.0);
+            entry.put("maxMs", histogram.maxMicros() / 1000.0);
+            routes.add(entry);
+        });
+        routes.sort(Comparator.comparingDouble((Map<String, Object> e) -> (Double) e.get("p99Ms")).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dropped", accessLogRingBuffer.droppedCount());
+        result.put("routes", routes);
+        return result;
+    }
+
+    @WriteOperation
+    public void reset() {
+        accessLogRingBuffer.histograms().clear();
+    }
+}
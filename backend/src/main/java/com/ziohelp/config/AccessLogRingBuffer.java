@@ -0,0 +1,239 @@
+package com.ziohelp.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated ring buffer of access records drained by a single background writer.
+ *
+ * Request threads claim a sequence with a CAS, fill its slot in place and publish it; they
+ * never block or do I/O. When the writer falls behind by a full buffer, new records are
+ * dropped and counted rather than slowing requests down. The writer emits one structured
+ * line per request to the "access" logger and feeds per-route histograms.
+ *
+ * Each slot carries a state word (sequence and phase) that hands it between one producer
+ * and the writer: a producer may only write a slot it moved from FREE to BUSY for its own
+ * sequence, and the writer only reads slots that are DONE for the sequence it expects. A
+ * slot still BUSY after {@code STALLED_SLOT_NANOS} is marked ABANDONED and skipped, so one
+ * stuck request thread cannot stop the writer; when that thread finishes, its publish fails
+ * and it frees the slot for the next lap instead, so a late producer never writes into a
+ * slot another record is using. An idle writer parks until a producer publishes.
+ */
+@Component
+public class AccessLogRingBuffer {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogRingBuffer.class);
+
+    private static final long STALLED_SLOT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Slot phases, in the low two bits of the state word; the sequence is in the rest
+    private static final int FREE = 0;
+    private static final int BUSY = 1;
+    private static final int DONE = 2;
+    private static final int ABANDONED = 3;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean running = true;
+    // Set while the writer is parked, so producers only unpark it when it waits
+    private volatile boolean writerParked;
+    Thread writer;
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public AccessLogRingBuffer(@Value("${accesslog.buffer-size:8192}") int bufferSize) {
+        int size = 64;
+        while (size < bufferSize) size <<= 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(state(i, FREE));
+        }
+        this.mask = size - 1;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::drainLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    /**
+     * Publish one request record. Never blocks; drops the record if the buffer is full.
+     */
+    public void publish(String method, String route, String uri, int status, long durationNanos) {
+        long seq = claim();
+        if (seq < 0 || !begin(seq)) return;
+        Slot slot = slots[(int) (seq & mask)];
+        try {
+            slot.method = method;
+            slot.route = route;
+            slot.uri = uri;
+            slot.status = status;
+            slot.durationNanos = durationNanos;
+        } finally {
+            complete(seq);
+        }
+    }
+
+    // Next sequence, or -1 (counted as dropped) when the writer is a full buffer behind
+    long claim() {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= slots.length) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+        return seq;
+    }
+
+    // Take the slot for writing; false (counted as dropped) if the writer has already given up on it
+    boolean begin(long seq) {
+        if (slots[(int) (seq & mask)].state.compareAndSet(state(seq, FREE), state(seq, BUSY))) return true;
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    // Hand the filled slot to the writer, or to the next lap if the writer skipped it meanwhile
+    void complete(long seq) {
+        Slot slot = slots[(int) (seq & mask)];
+        if (!slot.state.compareAndSet(state(seq, BUSY), state(seq, DONE))) {
+            slot.state.compareAndSet(state(seq, ABANDONED), state(seq + slots.length, FREE));
+            return;
+        }
+        if (writerParked) LockSupport.unpark(writer);
+    }
+
+    public Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        long next = 0;
+        long waitingSince = 0;
+        while (running || next < claimed.get()) {
+            Slot slot = slots[(int) (next & mask)];
+            long state = slot.state.get();
+            if (state == state(next, DONE)) {
+                try {
+                    write(slot);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write access record", e);
+                }
+                slot.uri = null;
+                slot.state.set(state(next + slots.length, FREE));
+            } else if (next >= claimed.get()) {
+                // Empty
+                waitingSince = 0;
+                if (running) parkUntilDone(slot, next, 0);
+                continue;
+            } else {
+                // Claimed, but the claiming thread has not published the slot yet
+                long now = System.nanoTime();
+                if (waitingSince == 0) waitingSince = now;
+                long left = STALLED_SLOT_NANOS - (now - waitingSince);
+                if (left > 0 && running) {
+                    parkUntilDone(slot, next, left);
+                    continue;
+                }
+                if (!skip(slot, next, state)) continue;
+            }
+            waitingSince = 0;
+            next++;
+            consumed = next;
+        }
+    }
+
+    // Park until a producer publishes (or the timeout ends); re-checked after announcing, so no publish is missed
+    private void parkUntilDone(Slot slot, long seq, long nanos) {
+        writerParked = true;
+        try {
+            if (slot.state.get() == state(seq, DONE) || !running) return;
+            if (nanos > 0) {
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+        } finally {
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Give up on sequence {@code seq}. Returns false if the slot changed meanwhile and must be
+     * looked at again.
+     */
+    private boolean skip(Slot slot, long seq, long state) {
+        long slotSeq = state >>> 2;
+        int phase = (int) (state & 3);
+        if (slotSeq == seq && phase == BUSY) {
+            // The producer's publish will fail and free the slot for the next lap
+            if (!slot.state.compareAndSet(state, state(seq, ABANDONED))) return false;
+            dropped.incrementAndGet();
+            return true;
+        }
+        if (phase == FREE || phase == DONE) {
+            // Not taken yet (its producer's begin fails and counts it), or a record from an earlier lap
+            // published after that lap was skipped
+            if (!slot.state.compareAndSet(state, state(seq + slots.length, FREE))) return false;
+            if (phase == DONE) dropped.incrementAndGet();
+            return true;
+        }
+        // Still held by a producer of an earlier lap, which frees it when it finishes
+        return true;
+    }
+
+    private static long state(long seq, int phase) {
+        return (seq << 2) | phase;
+    }
+
+    private void write(Slot slot) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(slot.durationNanos);
+        histograms.computeIfAbsent(slot.method + " " + slot.route, k -> new LatencyHistogram()).record(micros);
+        if (accessLog.isInfoEnabled()) {
+            accessLog.info("method={} route={} uri={} status={} durationMs={}",
+                    slot.method, slot.route, slot.uri, slot.status, micros / 1000.0);
+        }
+    }
+
+    private static final class Slot {
+        String method;
+        String route;
+        String uri;
+        int status;
+        long durationNanos;
+        // Sequence and phase; moving it to DONE publishes the fields written before
+        final AtomicLong state;
+
+        Slot(long initial) {
+            this.state = new AtomicLong(initial);
+        }
+    }
+}
@@ -1,28 +1,47 @@
 package com.ziohelp.config;
 
-import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
 import java.io.IOException;
 
+/**
+ * Times every API request and hands the record to {@link AccessLogRingBuffer};
+ * formatting and output happen on the writer thread.
+ */
 @Component
-public class ApiRequestLoggingFilter implements Filter {
+public class ApiRequestLoggingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AccessLogRingBuffer accessLogRingBuffer;
+
+    @Value("${accesslog.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-        HttpServletRequest req = (HttpServletRequest) request;
-        HttpServletResponse res = (HttpServletResponse) response;
-        long start = System.currentTimeMillis();
-        chain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
-        String method = req.getMethod();
-        String uri = req.getRequestURI();
-        int status = res.getStatus();
-        System.out.printf("API %s %s - %d [%dms]\n", method, uri, status, duration);
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            // Route template (e.g. /api/tickets/{id}) so histograms group by controller method, not by id
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : "UNMAPPED";
+            accessLogRingBuffer.publish(request.getMethod(), route, request.getRequestURI(), response.getStatus(), duration);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.ziohelp.config;
 
+import com.ziohelp.controller.TicketController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -17,6 +18,7 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:5173") // Set to your exact frontend origin
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders(TicketController.TICKET_VERSION_HEADER, TicketController.PREVIOUS_STATUS_HEADER)
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,95 @@
+package com.ziohelp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.ziohelp.service.ProductDomainCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the unauthenticated product-help and guest ticket endpoints per client IP
+ * (and, for existing products, per product domain) before the request reaches security or
+ * the database. Guest ticket submission and guest status lookups are limited separately.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PUBLIC_HELP_PREFIX = "/api/product-help/public/";
+    private static final String GUEST_TICKET_PATH = "/api/tickets/guest";
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ProductDomainCache productDomainCache;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For
+    @Value("${ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "OPTIONS".equalsIgnoreCase(request.getMethod())) return true;
+        String uri = request.getRequestURI();
+        return !uri.startsWith(PUBLIC_HELP_PREFIX) && !isGuestTicketPath(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        boolean post = "POST".equalsIgnoreCase(request.getMethod());
+        String group;
+        String knownDomain = null;
+        if (uri.startsWith(PUBLIC_HELP_PREFIX)) {
+            String rest = uri.substring(PUBLIC_HELP_PREFIX.length());
+            int slash = rest.indexOf('/');
+            String domain = slash >= 0 ? rest.substring(0, slash) : rest;
+            if (productDomainCache.isKnown(domain)) knownDomain = domain;
+            // Public ticket submission shares the stricter guest ticket limits
+            group = post && rest.endsWith("/ticket") ? RateLimiter.GROUP_GUEST_TICKET : RateLimiter.GROUP_PUBLIC_HELP;
+        } else {
+            // POST /api/tickets/guest submits; GET /api/tickets/guest/{id}/{email} looks one up
+            group = post ? RateLimiter.GROUP_GUEST_TICKET : RateLimiter.GROUP_GUEST_LOOKUP;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(group, clientIp(request), knownDomain);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"code\":429,\"message\":\"Too many requests\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isGuestTicketPath(String uri) {
+        return uri.equals(GUEST_TICKET_PATH) || uri.startsWith(GUEST_TICKET_PATH + "/");
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma >= 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
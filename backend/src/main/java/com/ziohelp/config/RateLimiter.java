@@ -0,0 +1,173 @@
+package com.ziohelp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for the unauthenticated endpoints.
+ *
+ * Every request is charged to its client IP's bucket in the route group. A request for a known
+ * product domain is additionally charged to that domain's bucket, shared by all clients, so one
+ * product cannot be flooded from many addresses. Domains never add per-client buckets: the path
+ * segment is chosen by the client and would otherwise hand out a fresh bucket per request.
+ *
+ * Each bucket is a single AtomicLong holding the theoretical arrival time of the next
+ * request (GCRA), which behaves like a token bucket of {@code capacity} tokens refilled at
+ * {@code perMinute} tokens per minute but is updated with one CAS and no locks. Buckets are
+ * spread over independent stripes and dropped once idle for {@code idle-evict-seconds}.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    public static final String GROUP_PUBLIC_HELP = "public-help";
+    public static final String GROUP_GUEST_TICKET = "guest-ticket";
+    public static final String GROUP_GUEST_LOOKUP = "guest-lookup";
+
+    private final Map<String, RouteGroup> groups = new LinkedHashMap<>();
+    private final Map<String, RouteGroup> domainGroups = new LinkedHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes = new ConcurrentHashMap[STRIPES];
+    private final long idleNanos;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${ratelimit.public-help.capacity:60}") int publicHelpCapacity,
+                       @Value("${ratelimit.public-help.per-minute:120}") int publicHelpPerMinute,
+                       @Value("${ratelimit.guest-ticket.capacity:5}") int guestTicketCapacity,
+                       @Value("${ratelimit.guest-ticket.per-minute:10}") int guestTicketPerMinute,
+                       @Value("${ratelimit.guest-lookup.capacity:20}") int guestLookupCapacity,
+                       @Value("${ratelimit.guest-lookup.per-minute:60}") int guestLookupPerMinute,
+                       @Value("${ratelimit.public-help.domain-capacity:600}") int publicHelpDomainCapacity,
+                       @Value("${ratelimit.public-help.domain-per-minute:1200}") int publicHelpDomainPerMinute,
+                       @Value("${ratelimit.guest-ticket.domain-capacity:50}") int guestTicketDomainCapacity,
+                       @Value("${ratelimit.guest-ticket.domain-per-minute:100}") int guestTicketDomainPerMinute,
+                       @Value("${ratelimit.idle-evict-seconds:300}") long idleEvictSeconds) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleEvictSeconds);
+        register(meterRegistry, GROUP_PUBLIC_HELP, publicHelpCapacity, publicHelpPerMinute);
+        register(meterRegistry, GROUP_GUEST_TICKET, guestTicketCapacity, guestTicketPerMinute);
+        register(meterRegistry, GROUP_GUEST_LOOKUP, guestLookupCapacity, guestLookupPerMinute);
+        domainGroups.put(GROUP_PUBLIC_HELP, new RouteGroup(GROUP_PUBLIC_HELP + "-domain",
+                publicHelpDomainCapacity, publicHelpDomainPerMinute, meterRegistry));
+        domainGroups.put(GROUP_GUEST_TICKET, new RouteGroup(GROUP_GUEST_TICKET + "-domain",
+                guestTicketDomainCapacity, guestTicketDomainPerMinute, meterRegistry));
+        Gauge.builder("ziohelp.ratelimit.buckets", this, RateLimiter::bucketCount)
+                .description("Live rate-limit buckets")
+                .register(meterRegistry);
+    }
+
+    private void register(MeterRegistry registry, String name, int capacity, int perMinute) {
+        groups.put(name, new RouteGroup(name, capacity, perMinute, registry));
+    }
+
+    /**
+     * Take one token for the client in the given route group, and one from the domain's bucket
+     * if the client's was available.
+     *
+     * @param knownDomain product domain of the request if it exists, else null; never an
+     *                    unchecked value from the request
+     * @return 0 if admitted, otherwise the number of nanoseconds until a token is available
+     */
+    public long tryAcquire(String group, String clientIp, String knownDomain) {
+        RouteGroup routeGroup = groups.get(group);
+        if (routeGroup == null) return 0;
+
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        long wait = acquire(routeGroup, group + '|' + clientIp, now);
+        RouteGroup domainGroup = domainGroups.get(group);
+        if (wait == 0 && knownDomain != null && domainGroup != null) {
+            wait = acquire(domainGroup, group + "|domain|" + knownDomain.toLowerCase(), now);
+        }
+        return wait;
+    }
+
+    private long acquire(RouteGroup routeGroup, String key, long now) {
+        TokenBucket bucket = stripeFor(key).computeIfAbsent(key, k -> new TokenBucket(now));
+        long wait = bucket.tryAcquire(now, routeGroup.emissionNanos, routeGroup.burstNanos);
+        if (wait == 0) {
+            routeGroup.admitted.increment();
+        } else {
+            routeGroup.rejected.increment();
+        }
+        return wait;
+    }
+
+    public int bucketCount() {
+        int count = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private ConcurrentHashMap<String, TokenBucket> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    // Piggybacks eviction on request threads; only the thread that wins the CAS sweeps
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last < idleNanos / 4 || !lastSweep.compareAndSet(last, now)) return;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            stripe.values().removeIf(bucket -> now - bucket.lastSeen > idleNanos);
+        }
+    }
+
+    private static final class RouteGroup {
+        final long emissionNanos;
+        final long burstNanos;
+        final Counter admitted;
+        final Counter rejected;
+
+        RouteGroup(String name, int capacity, int perMinute, MeterRegistry registry) {
+            this.emissionNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = emissionNanos * Math.max(1, capacity);
+            this.admitted = Counter.builder("ziohelp.ratelimit.requests")
+                    .tag("group", name).tag("outcome", "admitted")
+                    .register(registry);
+            this.rejected = Counter.builder("ziohelp.ratelimit.requests")
+                    .tag("group", name).tag("outcome", "rejected")
+                    .register(registry);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final AtomicLong theoreticalArrival;
+        volatile long lastSeen;
+
+        TokenBucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+
+        long tryAcquire(long now, long emissionNanos, long burstNanos) {
+            lastSeen = now;
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = (tat - now > 0 ? tat : now) + emissionNanos;
+                if (next - now > burstNanos) {
+                    return next - now - burstNanos;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ziohelp.config;
+
+import com.ziohelp.service.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operations for the in-memory search indexes at /actuator/searchindex.
+ *
+ * GET /actuator/searchindex               stats for every index
+ * GET /actuator/searchindex/{name}        consistency check against the database
+ * POST /actuator/searchindex/{name}       {"action": "rebuild"} or {"action": "repair"}
+ */
+@Component
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    @Autowired
+    private List<SearchIndex> indexes;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (SearchIndex index : indexes) {
+            result.put(index.name(), index.stats());
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> check(@Selector String name) {
+        SearchIndex index = find(name);
+        return index != null ? index.checkConsistency(false) : null;
+    }
+
+    @WriteOperation
+    public Map<String, Object> run(@Selector String name, @Nullable String action) {
+        SearchIndex index = find(name);
+        if (index == null) return null;
+        if ("repair".equalsIgnoreCase(action)) {
+            return index.checkConsistency(true);
+        }
+        index.rebuild();
+        return index.stats();
+    }
+
+    private SearchIndex find(String name) {
+        for (SearchIndex index : indexes) {
+            if (index.name().equalsIgnoreCase(name)) return index;
+        }
+        return null;
+    }
+}
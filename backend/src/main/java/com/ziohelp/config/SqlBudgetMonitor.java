@@ -0,0 +1,129 @@
+package com.ziohelp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks each request's JDBC statements against its route budget, flags repeated
+ * statement shapes as likely N+1 loops, logs violations, and keeps per-route totals
+ * for /actuator/sqlstats.
+ */
+@Component
+public class SqlBudgetMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetMonitor.class);
+
+    private final int defaultBudget;
+    private final int nPlusOneThreshold;
+    private final Map<String, Integer> routeBudgets;
+    private final ConcurrentHashMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    public SqlBudgetMonitor(@Value("${sql.budget.default:25}") int defaultBudget,
+                            @Value("${sql.budget.routes:}") String routeBudgets,
+                            @Value("${sql.nplusone.threshold:5}") int nPlusOneThreshold) {
+        this.defaultBudget = defaultBudget;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.routeBudgets = parseBudgets(routeBudgets);
+    }
+
+    /**
+     * Parses "GET /api/v1/dashboard/ticket-trends=10, GET /api/tickets=5" into route budgets.
+     */
+    static Map<String, Integer> parseBudgets(String spec) {
+        Map<String, Integer> budgets = new HashMap<>();
+        if (spec == null || spec.isBlank()) return budgets;
+        for (String entry : spec.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) continue;
+            try {
+                budgets.put(entry.substring(0, eq).trim(), Integer.parseInt(entry.substring(eq + 1).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid SQL budget entry '{}'", entry.trim());
+            }
+        }
+        return budgets;
+    }
+
+    public int budgetFor(String route) {
+        return routeBudgets.getOrDefault(route, defaultBudget);
+    }
+
+    public int nPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    /**
+     * @param route "METHOD /route/{template}"
+     */
+    public void record(String route, SqlStatementRecorder.Scope scope) {
+        int statements = scope.statementCount();
+        RouteStats stats = routes.computeIfAbsent(route, k -> new RouteStats());
+        stats.requests.increment();
+        stats.statements.add(statements);
+        stats.nanos.add(scope.totalNanos());
+        stats.maxStatements.accumulateAndGet(statements, Math::max);
+        if (statements == 0) return;
+
+        int budget = budgetFor(route);
+        List<Map.Entry<String, Integer>> repeated = scope.repeatedShapes(nPlusOneThreshold);
+        boolean overBudget = statements > budget;
+        if (overBudget) stats.overBudget.increment();
+        if (!repeated.isEmpty()) {
+            stats.nPlusOne.increment();
+            stats.lastRepeatedShape = repeated.get(0).getValue() + "x " + repeated.get(0).getKey();
+        }
+        if (overBudget || !repeated.isEmpty()) {
+            logger.warn("{} issued {} SQL statements (budget {}) in {} ms{}", route, statements, budget,
+                    String.format("%.1f", scope.totalNanos() / 1_000_000.0),
+                    repeated.isEmpty() ? "" : "; repeated shapes (possible N+1): " + describe(repeated));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} issued {} SQL statements in {} ms", route, statements,
+                    String.format("%.1f", scope.totalNanos() / 1_000_000.0));
+        }
+    }
+
+    public Map<String, RouteStats> routes() {
+        return routes;
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private static String describe(List<Map.Entry<String, Integer>> repeated) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < repeated.size() && i < 3; i++) {
+            if (i > 0) out.append(" | ");
+            out.append(repeated.get(i).getValue()).append("x ").append(repeated.get(i).getKey());
+        }
+        return out.toString();
+    }
+
+    /** Running totals for one route. */
+    public static final class RouteStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maxStatements = new AtomicLong();
+        final LongAdder overBudget = new LongAdder();
+        final LongAdder nPlusOne = new LongAdder();
+        volatile String lastRepeatedShape;
+
+        public long requests() { return requests.sum(); }
+        public long statements() { return statements.sum(); }
+        public long totalNanos() { return nanos.sum(); }
+        public long maxStatements() { return maxStatements.get(); }
+        public long overBudget() { return overBudget.sum(); }
+        public long nPlusOne() { return nPlusOne.sum(); }
+        public String lastRepeatedShape() { return lastRepeatedShape; }
+    }
+}
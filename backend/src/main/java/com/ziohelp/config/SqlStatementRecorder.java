@@ -0,0 +1,110 @@
+package com.ziohelp.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-bound record of the JDBC statements executed while a {@link Scope} is open.
+ *
+ * {@link StatementCountingDataSource} reports every execution here; SqlBudgetFilter opens
+ * a scope per HTTP request, and tests can open their own around a controller call.
+ * Scopes nest: a statement is counted in every scope open on the thread.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Deque<Scope>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatementRecorder() {
+    }
+
+    /** Start counting statements on the current thread; close the scope to stop. */
+    public static Scope begin() {
+        Scope scope = new Scope();
+        ACTIVE.get().push(scope);
+        return scope;
+    }
+
+    static boolean isRecording() {
+        return !ACTIVE.get().isEmpty();
+    }
+
+    static void record(String sql, long nanos) {
+        Deque<Scope> scopes = ACTIVE.get();
+        if (scopes.isEmpty()) return;
+        String shape = shapeOf(sql);
+        for (Scope scope : scopes) {
+            scope.add(shape, nanos);
+        }
+    }
+
+    /**
+     * Statement text with literals replaced by '?' and IN lists collapsed, so the same query
+     * issued for different ids has one shape.
+     */
+    static String shapeOf(String sql) {
+        if (sql == null) return "<unknown>";
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    /** Statements counted between {@link #begin()} and {@link #close()}. Confined to one thread. */
+    public static final class Scope implements AutoCloseable {
+        private int statements;
+        private long totalNanos;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private boolean closed;
+
+        private void add(String shape, long nanos) {
+            statements++;
+            totalNanos += nanos;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+
+        public int statementCount() {
+            return statements;
+        }
+
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        /** Execution count per statement shape. */
+        public Map<String, Integer> shapes() {
+            return shapes;
+        }
+
+        /** Shapes executed at least {@code threshold} times, most repeated first: likely N+1 loops. */
+        public List<Map.Entry<String, Integer>> repeatedShapes(int threshold) {
+            List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+                if (entry.getValue() >= threshold) repeated.add(entry);
+            }
+            repeated.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            Deque<Scope> scopes = ACTIVE.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) ACTIVE.remove();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ziohelp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route JDBC statement counts at /actuator/sqlstats, worst max statements first.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    @Autowired
+    private SqlBudgetMonitor sqlBudgetMonitor;
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        sqlBudgetMonitor.routes().forEach((route, stats) -> {
+            long requests = Math.max(1, stats.requests());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("route", route);
+            entry.put("requests", stats.requests());
+            entry.put("budget", sqlBudgetMonitor.budgetFor(route));
+            entry.put("avgStatements", (double) stats.statements() / requests);
+            entry.put("maxStatements", stats.maxStatements());
+            entry.put("avgSqlMs", stats.totalNanos() / 1_000_000.0 / requests);
+            entry.put("overBudget", stats.overBudget());
+            entry.put("nPlusOneSuspected", stats.nPlusOne());
+            entry.put("lastRepeatedShape", stats.lastRepeatedShape());
+            routes.add(entry);
+        });
+        routes.sort(Comparator.comparingLong((Map<String, Object> e) -> (Long) e.get("maxStatements")).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("nPlusOneThreshold", sqlBudgetMonitor.nPlusOneThreshold());
+        result.put("routes", routes);
+        return result;
+    }
+
+    @WriteOperation
+    public void reset() {
+        sqlBudgetMonitor.reset();
+    }
+}
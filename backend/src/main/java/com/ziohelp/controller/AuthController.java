@@ -10,6 +10,7 @@ import com.ziohelp.entity.User;
 import com.ziohelp.repository.RoleRepository;
 import com.ziohelp.repository.UserRepository;
 import com.ziohelp.security.JwtTokenProvider;
+import com.ziohelp.security.LoginAttemptTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -74,6 +75,9 @@ public class AuthController {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -108,6 +112,7 @@ public class AuthController {
 
             // Find user by email or username
             String loginIdentifier = request.getLoginIdentifier();
+
             User user = null;
 
             // First try email
@@ -120,7 +125,14 @@ public class AuthController {
                 user = userRepository.findByUsernameIgnoreCase(request.getUsername().trim()).orElse(null);
             }
 
+            // Failures are counted per account, whether it was named by email or by username
+            long lockedForMillis = loginAttemptTracker.lockedForMillis(loginIdentifier, user != null ? user.getId() : null);
+            if (lockedForMillis > 0) {
+                return lockedResponse(lockedForMillis);
+            }
+
             if (user == null) {
+                loginAttemptTracker.recordFailure(loginIdentifier, null);
                 String identifier = request.getEmail() != null ? "email" : "username";
                 auditLogService.logActivity("LOGIN_FAIL", "Invalid " + identifier, loginIdentifier);
                 // Return 400 for non-existent user
@@ -128,6 +140,12 @@ public class AuthController {
                     .body(new ApiError(1001, "Invalid " + identifier + ". Please check and try again."));
             }
 
+            // Lock persisted by an earlier flush (e.g. before a restart)
+            if (user.isAccountLocked() && user.getLockedUntil() != null
+                    && user.getLockedUntil().isAfter(java.time.LocalDateTime.now())) {
+                return lockedResponse(java.time.Duration.between(java.time.LocalDateTime.now(), user.getLockedUntil()).toMillis());
+            }
+
             // Check account status
             if (!user.isActive()) {
                 auditLogService.logActivity("LOGIN_FAIL", "Account inactive", user.getEmail());
@@ -150,6 +168,9 @@ public class AuthController {
             // Validate password
             if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
                 auditLogService.logActivity("LOGIN_FAIL", "Invalid password", user.getEmail());
+                if (loginAttemptTracker.recordFailure(loginIdentifier, user.getId())) {
+                    auditLogService.logActivity("ACCOUNT_LOCKED", "Too many failed login attempts", user.getEmail());
+                }
                 return ResponseEntity.status(400)
                     .body(new ApiError(1002, "Invalid password. Please try again."));
             }
@@ -163,13 +184,16 @@ public class AuthController {
                 System.err.println("Authentication failed for: " + request.getEmail() + ": " + authEx.getMessage());
                 authEx.printStackTrace();
                 auditLogService.logActivity("LOGIN_FAIL", "Authentication failed", request.getEmail());
+                loginAttemptTracker.recordFailure(loginIdentifier, user.getId());
                 // Return 400 for authentication failure (invalid credentials)
                 return ResponseEntity.status(400).body(new ApiError(1002, "Invalid credentials: " + authEx.getMessage()));
             }
             System.out.println("Authentication successful for: " + request.getEmail());
             auditLogService.logActivity("LOGIN_SUCCESS", "User logged in", request.getEmail());
+            loginAttemptTracker.recordSuccess(loginIdentifier, user.getId(),
+                    user.isAccountLocked() || (user.getLoginAttempts() != null && user.getLoginAttempts() > 0));
             // Generate token
-            String token = jwtTokenProvider.generateToken(authentication);
+            String token = jwtTokenProvider.generateToken(authentication, user);
             System.out.println("Token generated successfully");
             // Create response
             LoginResponse response = new LoginResponse();
@@ -232,6 +256,13 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<?> lockedResponse(long lockedForMillis) {
+        long minutes = Math.max(1, (lockedForMillis + 59_999) / 60_000);
+        return ResponseEntity.status(429)
+            .header("Retry-After", String.valueOf(Math.max(1, lockedForMillis / 1000)))
+            .body(new ApiError(1008, "Too many failed login attempts. Please try again in " + minutes + " minute(s)."));
+    }
+
     @PostMapping("/login-debug")
     public ResponseEntity<?> loginDebug(@org.springframework.web.bind.annotation.RequestBody String rawBody) {
         System.out.println("Raw request body: " + rawBody);
@@ -276,7 +307,7 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         try {
-            if (userRepository.existsByEmail(request.getEmail())) {
+            if (userRepository.existsByEmailNormalized(User.normalizeIdentifier(request.getEmail()))) {
                 auditLogService.logActivity("REGISTER_FAIL", "Email already in use", request.getEmail());
                 return ResponseEntity.badRequest().body(new ApiError(1006, "Email already in use"));
             }
@@ -1,5 +1,7 @@
 package com.ziohelp.controller;
 
+import com.ziohelp.entity.User;
+import com.ziohelp.service.AuthService;
 import com.ziohelp.service.DashboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +22,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private AuthService authService;
+
     @GetMapping("/stats")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
     @Operation(summary = "Get dashboard statistics", description = "Get comprehensive dashboard statistics for the current user's organization")
@@ -29,14 +34,36 @@ public class DashboardController {
         return ResponseEntity.ok(dashboardService.getDashboardStats(startDate, endDate));
     }
 
+    @GetMapping("/ticket-counts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER')")
+    @Operation(summary = "Get ticket counts", description = "Current ticket totals by status and priority, optionally for one organization and/or product; non-admins only see their own organization")
+    public ResponseEntity<Map<String, Object>> getTicketCounts(
+            @RequestParam(required = false) Long organizationId,
+            @RequestParam(required = false) Long productId) {
+        // Only ADMIN may count across organizations; everyone else sees their own
+        User currentUser = authService.getAuthenticatedUser();
+        boolean admin = currentUser.getRoles() != null
+                && currentUser.getRoles().stream().anyMatch(role -> "ADMIN".equals(role.getName()));
+        if (!admin) {
+            organizationId = currentUser.getOrganizationId();
+        }
+        return ResponseEntity.ok(dashboardService.getTicketCounts(organizationId, productId));
+    }
+
     @GetMapping("/ticket-trends")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER')")
-    @Operation(summary = "Get ticket trends", description = "Get ticket creation and resolution trends over time")
-    public ResponseEntity<Map<String, Object>> getTicketTrends(
+    @Operation(summary = "Get ticket trends", description = "Get ticket creation and resolution trends per day, week or month in a time zone")
+    public ResponseEntity<?> getTicketTrends(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "30") int days) {
-        return ResponseEntity.ok(dashboardService.getTicketTrends(startDate, endDate, days));
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String timezone) {
+        try {
+            return ResponseEntity.ok(dashboardService.getTicketTrends(startDate, endDate, days, granularity, timezone));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/user-activity")
@@ -8,6 +8,8 @@ import java.util.stream.Collectors;
 import com.ziohelp.entity.Faq;
 import com.ziohelp.entity.Organization;
 import com.ziohelp.repository.FaqRepository;
+import com.ziohelp.service.DictionaryCache;
+import com.ziohelp.service.FaqSearchIndex;
 import com.ziohelp.service.OrganizationService;
 import com.ziohelp.dto.PageResponse;
 import org.springframework.data.domain.Page;
@@ -38,6 +40,10 @@ public class FaqController {
     // private AccessControlService accessControlService;
     @Autowired
     private AuthService authService;
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+    @Autowired
+    private DictionaryCache dictionaryCache;
 
     @GetMapping
     @Operation(summary = "Get paginated, searchable, and sortable list of FAQs")
@@ -97,12 +103,18 @@ public class FaqController {
         Organization org = organizationService.getOrganizationById(orgId);
         if (org == null) return ResponseEntity.badRequest().build();
         faq.setOrganization(org);
-        return ResponseEntity.ok(faqRepository.save(faq));
+        Faq saved = faqRepository.save(faq);
+        faqSearchIndex.index(saved);
+        dictionaryCache.onFaqWritten(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @PostMapping
     public ResponseEntity<Faq> createFaq(@RequestBody Faq faq) {
-        return ResponseEntity.ok(faqRepository.save(faq));
+        Faq saved = faqRepository.save(faq);
+        faqSearchIndex.index(saved);
+        dictionaryCache.onFaqWritten(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/{id}")
@@ -120,6 +132,7 @@ public class FaqController {
         existing.setQuestion(faq.getQuestion());
         existing.setAnswer(faq.getAnswer());
         faqRepository.save(existing);
+        faqSearchIndex.index(existing);
         return ResponseEntity.ok(existing);
     }
 
@@ -127,6 +140,7 @@ public class FaqController {
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<?> deleteFaq(@PathVariable Long id) {
         faqRepository.deleteById(id);
+        faqSearchIndex.remove(id);
         return ResponseEntity.ok().build();
     }
 
@@ -139,7 +153,7 @@ public class FaqController {
     @GetMapping("/categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'USER', 'DEVELOPER')")
     public ResponseEntity<List<String>> getCategories() {
-        return ResponseEntity.ok(faqRepository.findDistinctCategories());
+        return ResponseEntity.ok(dictionaryCache.allFaqCategories());
     }
     
     // ==== PRODUCT-BASED FAQ OPERATIONS ====
@@ -181,7 +195,7 @@ public class FaqController {
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'USER', 'DEVELOPER')")
     @Operation(summary = "Get all categories for a specific product")
     public ResponseEntity<List<String>> getCategoriesByProduct(@PathVariable Long productId) {
-        return ResponseEntity.ok(faqRepository.findDistinctCategoriesByProduct_Id(productId));
+        return ResponseEntity.ok(dictionaryCache.faqCategories(productId));
     }
     
     @PostMapping("/product/{productId}")
@@ -190,7 +204,10 @@ public class FaqController {
     public ResponseEntity<Faq> createFaqForProduct(@PathVariable Long productId, @RequestBody Faq faq) {
         // Set the product - this assumes Product entity exists
         faq.setProduct(com.ziohelp.entity.Product.builder().id(productId).build());
-        return ResponseEntity.ok(faqRepository.save(faq));
+        Faq saved = faqRepository.save(faq);
+        faqSearchIndex.index(saved);
+        dictionaryCache.onFaqWritten(saved);
+        return ResponseEntity.ok(saved);
     }
     
     @GetMapping("/public/product/{domain}")
@@ -2,6 +2,7 @@ package com.ziohelp.controller;
 
 import com.ziohelp.entity.FileInfo;
 import com.ziohelp.service.FileService;
+import com.ziohelp.service.TicketEventLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -20,6 +21,9 @@ public class FileController {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private TicketEventLog ticketEventLog;
+
     private final String uploadDir = "uploads/";
 
     @PostMapping("/upload")
@@ -42,7 +46,11 @@ public class FileController {
                 .kbArticleId(kbArticleId)
                 .faqId(faqId)
                 .build();
-        return ResponseEntity.ok(fileService.save(info));
+        FileInfo saved = fileService.save(info);
+        if (ticketId != null) {
+            ticketEventLog.append(ticketId, TicketEventLog.ATTACHMENT_ADDED, uploadedBy, null, String.valueOf(saved.getId()), saved.getFilename());
+        }
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/list")
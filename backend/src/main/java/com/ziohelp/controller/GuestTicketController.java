@@ -1,6 +1,7 @@
 package com.ziohelp.controller;
 
 import com.ziohelp.entity.Ticket;
+import com.ziohelp.service.TicketIdempotencyStore;
 import com.ziohelp.service.TicketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +15,20 @@ public class GuestTicketController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private TicketIdempotencyStore ticketIdempotencyStore;
+
     @PostMapping
-    public ResponseEntity<Ticket> submitTicketAsGuest(@RequestBody Ticket ticket) {
-        return ResponseEntity.ok(ticketService.createTicket(ticket));
+    public ResponseEntity<?> submitTicketAsGuest(@RequestBody Ticket ticket,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            // Keys are per submitter, so a guest reusing another guest's key cannot get their ticket back
+            String scope = "guest:" + TicketIdempotencyStore.submitter(ticket.getCreatedBy());
+            return ResponseEntity.ok(ticketIdempotencyStore.createOnce(scope, idempotencyKey,
+                    TicketIdempotencyStore.requestHash(ticket), () -> ticketService.createTicket(ticket)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}/{email}")
@@ -2,6 +2,7 @@ package com.ziohelp.controller;
 
 import com.ziohelp.entity.KnowledgeBaseArticle;
 import com.ziohelp.service.KnowledgeBaseService;
+import com.ziohelp.dto.ArticleSearchResult;
 import com.ziohelp.dto.KnowledgeBaseArticleRequest;
 import com.ziohelp.dto.KnowledgeBaseArticleResponse;
 import jakarta.validation.Valid;
@@ -141,15 +142,13 @@ public class KnowledgeBaseController {
     }
 
     @GetMapping("/articles/product/{productId}/search")
-    @Operation(summary = "Search articles by keyword for a specific product")
-    public ResponseEntity<Page<KnowledgeBaseArticleResponse>> searchArticlesByProduct(
+    @Operation(summary = "Search published articles for a specific product, ranked with highlighted snippets")
+    public ResponseEntity<Page<ArticleSearchResult>> searchArticlesByProduct(
             @PathVariable Long productId,
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        Page<KnowledgeBaseArticle> articles = service.searchArticlesByProduct(productId, keyword, page, size);
-        Page<KnowledgeBaseArticleResponse> response = articles.map(this::toResponseDto);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(service.searchArticlesWithSnippets(productId, keyword, page, size));
     }
 
     @GetMapping("/articles/product/{productId}/category/{category}")
@@ -2,6 +2,7 @@ package com.ziohelp.controller;
 
 import com.ziohelp.entity.Permission;
 import com.ziohelp.repository.PermissionRepository;
+import com.ziohelp.security.AuthorizationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,9 @@ public class PermissionController {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     @Operation(summary = "Get all permissions")
@@ -49,6 +53,7 @@ public class PermissionController {
         }
         
         Permission saved = permissionRepository.save(permission);
+        authorizationService.rebuild();
         return ResponseEntity.ok(saved);
     }
 
@@ -77,6 +82,7 @@ public class PermissionController {
         toUpdate.setIsActive(permission.getIsActive());
         
         Permission saved = permissionRepository.save(toUpdate);
+        authorizationService.rebuild();
         return ResponseEntity.ok(saved);
     }
 
@@ -95,6 +101,7 @@ public class PermissionController {
         }
         
         permissionRepository.deleteById(id);
+        authorizationService.rebuild();
         return ResponseEntity.ok().body("Permission deleted successfully");
     }
 
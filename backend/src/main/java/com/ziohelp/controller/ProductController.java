@@ -1,10 +1,15 @@
 package com.ziohelp.controller;
 
+import com.ziohelp.dto.TicketSummary;
 import com.ziohelp.entity.Product;
 import com.ziohelp.entity.Faq;
 import com.ziohelp.entity.KnowledgeBaseArticle;
 import com.ziohelp.entity.Ticket;
+import com.ziohelp.service.DictionaryCache;
+import com.ziohelp.service.FaqSearchIndex;
+import com.ziohelp.service.KnowledgeBaseSearchIndex;
 import com.ziohelp.service.ProductService;
+import com.ziohelp.service.TicketService;
 import com.ziohelp.repository.FaqRepository;
 import com.ziohelp.repository.KnowledgeBaseArticleRepository;
 import com.ziohelp.repository.TicketRepository;
@@ -34,6 +39,18 @@ public class ProductController {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private KnowledgeBaseSearchIndex articleSearchIndex;
+
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Autowired
+    private TicketService ticketService;
+
     @GetMapping("/list")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<Page<Product>> listProducts(
@@ -106,8 +123,8 @@ public class ProductController {
     @GetMapping("/{id}/tickets")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER')")
     @Operation(summary = "Get tickets for a specific product")
-    public ResponseEntity<List<Ticket>> getProductTickets(@PathVariable Long id) {
-        return ResponseEntity.ok(ticketRepository.findByProduct_Id(id));
+    public ResponseEntity<List<TicketSummary>> getProductTickets(@PathVariable Long id) {
+        return ResponseEntity.ok(ticketRepository.findSummariesByProductId(id));
     }
     
     @PostMapping("/{id}/faqs")
@@ -115,7 +132,10 @@ public class ProductController {
     @Operation(summary = "Create FAQ for a specific product")
     public ResponseEntity<Faq> createProductFaq(@PathVariable Long id, @RequestBody Faq faq) {
         faq.setProduct(Product.builder().id(id).build());
-        return ResponseEntity.ok(faqRepository.save(faq));
+        Faq saved = faqRepository.save(faq);
+        faqSearchIndex.index(saved);
+        dictionaryCache.onFaqWritten(saved);
+        return ResponseEntity.ok(saved);
     }
     
     @PostMapping("/{id}/articles")
@@ -123,7 +143,10 @@ public class ProductController {
     @Operation(summary = "Create knowledge base article for a specific product")
     public ResponseEntity<KnowledgeBaseArticle> createProductArticle(@PathVariable Long id, @RequestBody KnowledgeBaseArticle article) {
         article.setProduct(Product.builder().id(id).build());
-        return ResponseEntity.ok(articleRepository.save(article));
+        KnowledgeBaseArticle saved = articleRepository.save(article);
+        articleSearchIndex.index(saved);
+        dictionaryCache.onArticleWritten(saved);
+        return ResponseEntity.ok(saved);
     }
     
     @PostMapping("/{id}/tickets")
@@ -133,20 +156,20 @@ public class ProductController {
         ticket.setProduct(Product.builder().id(id).build());
         ticket.setStatus("OPEN");
         ticket.setCreatedAt(java.time.LocalDateTime.now());
-        return ResponseEntity.ok(ticketRepository.save(ticket));
+        return ResponseEntity.ok(ticketService.saveNewTicket(ticket, ticket.getCreatedBy()));
     }
     
     @GetMapping("/{id}/faq-categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
     @Operation(summary = "Get FAQ categories for a specific product")
     public ResponseEntity<List<String>> getProductFaqCategories(@PathVariable Long id) {
-        return ResponseEntity.ok(faqRepository.findDistinctCategoriesByProduct_Id(id));
+        return ResponseEntity.ok(dictionaryCache.faqCategories(id));
     }
     
     @GetMapping("/{id}/article-categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
     @Operation(summary = "Get article categories for a specific product")
     public ResponseEntity<List<String>> getProductArticleCategories(@PathVariable Long id) {
-        return ResponseEntity.ok(articleRepository.findDistinctCategoriesByProduct_Id(id));
+        return ResponseEntity.ok(dictionaryCache.articleCategories(id));
     }
 } 
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.ziohelp.controller;
 
+import com.ziohelp.dto.ArticleSearchResult;
+import com.ziohelp.dto.TicketSummary;
 import com.ziohelp.entity.Product;
 import com.ziohelp.entity.Faq;
 import com.ziohelp.entity.KnowledgeBaseArticle;
 import com.ziohelp.entity.Ticket;
+import com.ziohelp.exception.IdempotencyKeyMismatchException;
+import com.ziohelp.exception.TicketConflictException;
 import com.ziohelp.service.ProductService;
 import com.ziohelp.service.FaqService;
+import com.ziohelp.service.HelpSearchService;
 import com.ziohelp.service.KnowledgeBaseService;
+import com.ziohelp.service.TicketIdempotencyStore;
 import com.ziohelp.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -39,6 +45,12 @@ public class ProductHelpController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private TicketIdempotencyStore ticketIdempotencyStore;
+
+    @Autowired
+    private HelpSearchService helpSearchService;
+
     // ==== PUBLIC ENDPOINTS (No Authentication Required) ====
 
     /**
@@ -73,11 +85,16 @@ public class ProductHelpController {
     @Operation(summary = "Create a support ticket for a product (public)")
     public ResponseEntity<Ticket> createPublicTicket(
             @PathVariable String domain,
-            @RequestBody Ticket ticket) {
+            @RequestBody Ticket ticket,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             ticket.setGuest(true); // Mark as guest ticket
-            Ticket createdTicket = ticketService.createTicketForProductDomain(domain, ticket);
+            String scope = "public:" + domain + ":" + TicketIdempotencyStore.submitter(ticket.getCreatedBy());
+            Ticket createdTicket = ticketIdempotencyStore.createOnce(scope, idempotencyKey,
+                    TicketIdempotencyStore.requestHash(ticket), () -> ticketService.createTicketForProductDomain(domain, ticket));
             return ResponseEntity.ok(createdTicket);
+        } catch (TicketConflictException | IdempotencyKeyMismatchException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -87,23 +104,17 @@ public class ProductHelpController {
      * Search help content for a product (public endpoint)
      */
     @GetMapping("/public/{domain}/search")
-    @Operation(summary = "Search FAQs and articles for a product (public)")
-    public ResponseEntity<Map<String, Object>> searchPublicProductHelp(
+    @Operation(summary = "Search FAQs and articles for a product as one ranked list (public)")
+    public ResponseEntity<?> searchPublicProductHelp(
             @PathVariable String domain,
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        
-        Map<String, Object> searchResults = new HashMap<>();
-        
-        // Search FAQs and Articles - would need to implement domain-based search
-        // For now, returning empty results
-        searchResults.put("faqs", Page.empty());
-        searchResults.put("articles", Page.empty());
-        searchResults.put("keyword", keyword);
-        searchResults.put("domain", domain);
-        
-        return ResponseEntity.ok(searchResults);
+        try {
+            return ResponseEntity.ok(helpSearchService.search(domain, keyword, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // ==== AUTHENTICATED ENDPOINTS ====
@@ -188,7 +199,7 @@ public class ProductHelpController {
         Page<KnowledgeBaseArticle> articles = knowledgeBaseService.listPublishedArticles(productId, page, size);
         
         // Get Tickets (for admins only)
-        Page<Ticket> tickets = ticketService.getTicketsByProduct(productId, page, size);
+        Page<TicketSummary> tickets = ticketService.getTicketsByProduct(productId, page, size);
         
         allContent.put("faqs", faqs);
         allContent.put("articles", articles);
@@ -198,6 +209,24 @@ public class ProductHelpController {
         return ResponseEntity.ok(allContent);
     }
 
+    /**
+     * Get tickets for a product, newest first, with cursor pagination (authenticated)
+     */
+    @GetMapping("/product/{productId}/tickets")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER')")
+    @Operation(summary = "Get tickets for a product using cursor pagination")
+    public ResponseEntity<?> getProductTickets(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        try {
+            return ResponseEntity.ok(ticketService.getTicketsByProduct(productId, cursor, size, includeCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Search all help content for a product (authenticated)
      */
@@ -217,10 +246,10 @@ public class ProductHelpController {
             Page<Faq> faqs = faqService.searchFaqsByProduct(productId, keyword, page, size);
             
             // Search Articles
-            Page<KnowledgeBaseArticle> articles = knowledgeBaseService.searchArticlesByProduct(productId, keyword, page, size);
+            Page<ArticleSearchResult> articles = knowledgeBaseService.searchArticlesWithSnippets(productId, keyword, page, size);
             
             // Search Tickets
-            Page<Ticket> tickets = ticketService.searchTicketsByProduct(productId, keyword, page, size);
+            Page<TicketSummary> tickets = ticketService.searchTicketsByProduct(productId, keyword, page, size);
             
             searchResults.put("faqs", faqs);
             searchResults.put("articles", articles);
@@ -6,6 +6,7 @@ import com.ziohelp.entity.RolePermission;
 import com.ziohelp.repository.RoleRepository;
 import com.ziohelp.repository.PermissionRepository;
 import com.ziohelp.repository.RolePermissionRepository;
+import com.ziohelp.security.AuthorizationService;
 import com.ziohelp.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +30,9 @@ public class RoleController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public List<Role> getAllRoles() {
@@ -46,7 +50,7 @@ public class RoleController {
     @GetMapping("/name/{name}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<?> getRoleByName(@PathVariable String name) {
-        Optional<Role> role = roleRepository.findAll().stream().filter(r -> r.getName().equalsIgnoreCase(name)).findFirst();
+        Optional<Role> role = roleRepository.findByNameIgnoreCase(name);
         return role.<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(404).body((Object)"Role not found"));
     }
@@ -57,11 +61,12 @@ public class RoleController {
         if (role.getName() == null || role.getName().trim().isEmpty()) {
             return ResponseEntity.badRequest().body("Role name is required");
         }
-        boolean exists = roleRepository.findAll().stream().anyMatch(r -> r.getName().equalsIgnoreCase(role.getName()));
+        boolean exists = roleRepository.existsByNameIgnoreCase(role.getName());
         if (exists) {
             return ResponseEntity.badRequest().body("Role name already exists");
         }
         Role saved = roleRepository.save(role);
+        authorizationService.rebuild();
         return ResponseEntity.ok(saved);
     }
 
@@ -75,13 +80,14 @@ public class RoleController {
         if (role.getName() == null || role.getName().trim().isEmpty()) {
             return ResponseEntity.badRequest().body("Role name is required");
         }
-        boolean exists = roleRepository.findAll().stream().anyMatch(r -> r.getName().equalsIgnoreCase(role.getName()) && !r.getId().equals(id));
+        boolean exists = roleRepository.existsByNameIgnoreCaseAndIdNot(role.getName(), id);
         if (exists) {
             return ResponseEntity.badRequest().body("Role name already exists");
         }
         Role toUpdate = existing.get();
         toUpdate.setName(role.getName());
         Role saved = roleRepository.save(toUpdate);
+        authorizationService.rebuild();
         return ResponseEntity.ok(saved);
     }
 
@@ -93,13 +99,14 @@ public class RoleController {
             return ResponseEntity.status(404).body("Role not found");
         }
         roleRepository.deleteById(id);
+        authorizationService.rebuild();
         return ResponseEntity.ok().body("Role deleted");
     }
 
     @GetMapping("/check-name/{name}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<?> checkRoleName(@PathVariable String name) {
-        boolean exists = roleRepository.findAll().stream().anyMatch(r -> r.getName().equalsIgnoreCase(name));
+        boolean exists = roleRepository.existsByNameIgnoreCase(name);
         return ResponseEntity.ok(exists);
     }
     
@@ -147,6 +154,7 @@ public class RoleController {
                 rolePermissionRepository.save(rolePermission);
             }
         }
+        authorizationService.rebuild();
         
         return ResponseEntity.ok().body("Permissions updated successfully");
     }
@@ -174,6 +182,7 @@ public class RoleController {
             .build();
             
         rolePermissionRepository.save(rolePermission);
+        authorizationService.rebuild();
         return ResponseEntity.ok().body("Permission assigned successfully");
     }
     
@@ -186,6 +195,7 @@ public class RoleController {
         }
         
         rolePermissionRepository.delete(rolePermission);
+        authorizationService.rebuild();
         return ResponseEntity.ok().body("Permission removed successfully");
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.ziohelp.repository.TicketRepository;
 import com.ziohelp.service.AuthService;
 import com.ziohelp.service.OrganizationService;
 import com.ziohelp.entity.Organization;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -15,12 +16,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import com.ziohelp.entity.Attachment;
 import com.ziohelp.entity.TicketHistory;
-import com.ziohelp.repository.AttachmentRepository;
-import com.ziohelp.repository.TicketHistoryRepository;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.Optional;
-import com.ziohelp.service.NotificationService;
+import com.ziohelp.dto.BulkTicketUpdateRequest;
 import com.ziohelp.dto.PageResponse;
+import com.ziohelp.dto.TicketCursor;
+import com.ziohelp.dto.TicketStateChange;
+import com.ziohelp.dto.TicketSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,9 +35,15 @@ import com.ziohelp.repository.UserRepository;
 import com.ziohelp.entity.User;
 // import com.ziohelp.service.AccessControlService;
 import com.ziohelp.entity.Comment;
+import com.ziohelp.entity.TicketArchive;
+import com.ziohelp.entity.TicketEvent;
+import com.ziohelp.exception.ResourceNotFoundException;
 import com.ziohelp.repository.CommentRepository;
-import com.ziohelp.service.AuditLogService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.ziohelp.service.BulkTicketService;
+import com.ziohelp.service.TicketArchiveService;
+import com.ziohelp.service.TicketEventLog;
+import com.ziohelp.service.TicketIdempotencyStore;
+import com.ziohelp.service.TicketService;
 
 @RestController
 @RequestMapping("/api/tickets")
@@ -43,25 +51,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 @Tag(name = "Tickets", description = "Operations related to support tickets")
 public class TicketController {
 
+    public static final String TICKET_VERSION_HEADER = "X-Ticket-Version";
+    public static final String PREVIOUS_STATUS_HEADER = "X-Previous-Status";
+
+    // Largest page the ticket list returns in either paging mode
+    private static final int MAX_PAGE_SIZE = TicketCursor.MAX_PAGE_SIZE;
+
     private final TicketRepository ticketRepository;
     private final AuthService authService;
     private final OrganizationService organizationService;
-    private final AttachmentRepository attachmentRepository;
-    private final TicketHistoryRepository ticketHistoryRepository;
-    private final NotificationService notificationService;
     private final UserRepository userRepository;
     // private final AccessControlService accessControlService;
     private final CommentRepository commentRepository;
-    @Autowired
-    private AuditLogService auditLogService;
-
-    // For demo: store last assigned developer per org in memory
-    private static final java.util.Map<Long, Integer> lastAssignedDevIndex = new java.util.HashMap<>();
+    private final TicketService ticketService;
+    private final BulkTicketService bulkTicketService;
+    private final TicketArchiveService ticketArchiveService;
+    private final TicketEventLog ticketEventLog;
+    private final TicketIdempotencyStore ticketIdempotencyStore;
 
     @GetMapping
     @Operation(summary = "Get paginated, searchable, and sortable list of tickets")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')") // Only admins and tenant admins can view all tickets
-    public ResponseEntity<PageResponse<Ticket>> getAllTickets(
+    public ResponseEntity<?> getAllTickets(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
@@ -69,14 +80,49 @@ public class TicketController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "offset (default) or cursor; cursor mode always orders by createdAt desc")
+            @RequestParam(defaultValue = "offset") String paging,
+            @Parameter(description = "nextCursor from the previous page (cursor mode)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also count matching tickets (cursor mode)")
+            @RequestParam(defaultValue = "false") boolean includeCount
     ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            return ResponseEntity.badRequest().body("page must not be negative");
+        }
         LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
         LocalDateTime to = toDate != null ? toDate.atTime(java.time.LocalTime.MAX) : null;
+        String searchTerm = search.isEmpty() ? null : search;
+        if ("cursor".equalsIgnoreCase(paging) || cursor != null) {
+            TicketCursor after = null;
+            if (cursor != null && !cursor.isEmpty()) {
+                try {
+                    after = TicketCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body("Invalid cursor");
+                }
+            }
+            // Includes archived tickets once the page or date range reaches them
+            List<TicketSummary> rows = ticketArchiveService.findFilteredKeysetPage(status, from, to, searchTerm, after, size + 1);
+            Long total = includeCount ? ticketArchiveService.countFiltered(status, from, to, searchTerm) : null;
+            return ResponseEntity.ok(TicketCursor.toPage(rows, size, total));
+        }
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Ticket> ticketPage = ticketRepository.findAllFilteredPaged(status, from, to, search.isEmpty() ? null : search, pageable);
-        PageResponse<Ticket> response = new PageResponse<>(
+        Page<TicketSummary> ticketPage;
+        try {
+            // Searches are ranked by relevance through the ticket search index; both include archived tickets
+            ticketPage = searchTerm != null
+                    ? ticketService.searchTickets(status, from, to, searchTerm, page, size)
+                    : ticketArchiveService.findFilteredPage(status, from, to, null, pageable);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        PageResponse<TicketSummary> response = new PageResponse<>(
             ticketPage.getContent(),
             ticketPage.getNumber(),
             ticketPage.getSize(),
@@ -89,26 +135,26 @@ public class TicketController {
 
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('USER', 'DEVELOPER')") // Users and developers can view their own/assigned tickets
-    public ResponseEntity<List<Ticket>> getMyTickets() {
+    public ResponseEntity<List<TicketSummary>> getMyTickets() {
         User currentUser = authService.getAuthenticatedUser();
         boolean isDeveloper = currentUser.getRoles().stream()
             .anyMatch(role -> "DEVELOPER".equals(role.getName()));
         
         if (isDeveloper) {
             // For developers, return tickets assigned to them
-            return ResponseEntity.ok(ticketRepository.findByAssignedTo(currentUser));
+            return ResponseEntity.ok(ticketRepository.findSummariesByAssignedToId(currentUser.getId()));
         } else {
             // For regular users, return tickets they created
-            return ResponseEntity.ok(ticketRepository.findByCreatedByOrderByCreatedAtDesc(currentUser.getEmail()));
+            return ResponseEntity.ok(ticketRepository.findSummariesByCreatedBy(currentUser.getEmail()));
         }
     }
 
     @GetMapping("/by-org/{orgId}")
     @PreAuthorize("hasRole('TENANT_ADMIN')") // Tenant admin can view tickets for their org
-    public ResponseEntity<List<Ticket>> getTicketsByOrganization(@PathVariable Long orgId) {
+    public ResponseEntity<List<TicketSummary>> getTicketsByOrganization(@PathVariable Long orgId) {
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateOrganizationAccess(currentUser, orgId);
-        return ResponseEntity.ok(ticketRepository.findByOrganizationId(orgId));
+        return ResponseEntity.ok(ticketRepository.findSummariesByOrganizationId(orgId));
     }
 
     @PostMapping("/by-org/{orgId}")
@@ -120,43 +166,56 @@ public class TicketController {
         if (org == null) return ResponseEntity.badRequest().build();
         ticket.setOrganization(org);
         ticket.setCreatedAt(java.time.LocalDateTime.now());
-        return ResponseEntity.ok(ticketRepository.save(ticket));
+        return ResponseEntity.ok(ticketService.saveNewTicket(ticket, currentUser.getEmail()));
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'TENANT_ADMIN')") // Users, admins, tenant admins can raise tickets
-    public ResponseEntity<Ticket> raiseTicket(@RequestBody Ticket ticket) {
-        ticket.setStatus("OPEN");
-        ticket.setCreatedBy(authService.getAuthenticatedUser().getEmail());
-        ticket.setCreatedAt(LocalDateTime.now());
-        Ticket saved = ticketRepository.save(ticket);
-        notificationService.sendNotification("New ticket created: " + saved.getTitle());
-        notificationService.sendTicketEvent("NEW", saved);
-        auditLogService.logActivity("TICKET_CREATE", "Created ticket: " + saved.getId(), saved.getCreatedBy());
-        return ResponseEntity.ok(saved);
+    @Operation(summary = "Raise a ticket; retries with the same Idempotency-Key header return the ticket created first")
+    public ResponseEntity<?> raiseTicket(@RequestBody Ticket ticket,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String email = authService.getAuthenticatedUser().getEmail();
+        try {
+            return ResponseEntity.ok(ticketIdempotencyStore.createOnce("user:" + email, idempotencyKey,
+                    TicketIdempotencyStore.requestHash(ticket), () -> ticketService.raiseTicket(ticket, email)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/{id}/resolve")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TENANT_ADMIN')") // Only admins, developers, tenant admins can resolve
-    public ResponseEntity<Ticket> resolveTicket(@PathVariable Long id) {
-        Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
+    @PreAuthorize("@authz.hasPermission(authentication, 'TICKET_RESOLVE')") // Roles granted TICKET_RESOLVE (admins, developers, tenant admins by default)
+    @Operation(summary = "Resolve a ticket; pass the version last read to fail with 409 if it changed since. The new version is in X-Ticket-Version")
+    public ResponseEntity<Ticket> resolveTicket(@PathVariable Long id, @RequestParam(required = false) Long version) {
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateTicketModification(currentUser, ticket);
-        ticket.setStatus("RESOLVED");
-        Ticket saved = ticketRepository.save(ticket);
-        notificationService.sendNotification("Ticket resolved: " + saved.getTitle());
-        notificationService.sendTicketEvent("RESOLVED", saved);
-        auditLogService.logActivity("TICKET_RESOLVE", "Resolved ticket: " + saved.getId(), currentUser.getEmail());
-        return ResponseEntity.ok(saved);
+        return changed(ticketService.resolveTicket(id, currentUser.getEmail(), version));
+    }
+
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER')")
+    @Operation(summary = "Move a ticket to another status allowed from its current one; 409 on a disallowed transition or version mismatch")
+    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestParam String status,
+                                          @RequestParam(required = false) Long version) {
+        try {
+            return ResponseEntity.ok(ticketService.updateTicketStatus(id, status, version, authService.getAuthenticatedUser().getEmail()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')") // All roles except guest can view ticket by id
-    public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
-        Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
+    @Operation(summary = "Get a ticket with its full graph (list endpoints return TicketSummary rows)")
+    public ResponseEntity<?> getTicketById(@PathVariable Long id) {
+        Optional<Ticket> ticket = ticketRepository.findById(id);
+        if (ticket.isEmpty()) {
+            // Old resolved/closed tickets are served from the archive (relations as ids, children as JSON)
+            return ResponseEntity.ok(ticketArchiveService.findArchived(id).orElseThrow(() -> new RuntimeException("Ticket not found")));
+        }
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateTicketAccess(currentUser, ticket);
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok(ticket.get());
     }
 
     @PostMapping("/{id}/attachments")
@@ -170,10 +229,8 @@ public class TicketController {
             .filename(file.getOriginalFilename())
             .contentType(file.getContentType())
             .url("/files/" + file.getOriginalFilename())
-            .ticket(ticket)
             .build();
-        attachmentRepository.save(att);
-        return ResponseEntity.ok(att);
+        return ResponseEntity.ok(ticketService.addAttachment(ticket, att, currentUser.getEmail()));
     }
 
     @GetMapping("/{id}/attachments")
@@ -191,10 +248,7 @@ public class TicketController {
         Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateTicketAccess(currentUser, ticket);
-        history.setTicket(ticket);
-        history.setTimestamp(LocalDateTime.now());
-        ticketHistoryRepository.save(history);
-        return ResponseEntity.ok(history);
+        return ResponseEntity.ok(ticketService.addHistory(ticket, history, currentUser.getEmail()));
     }
 
     @PutMapping("/{id}/category")
@@ -203,61 +257,56 @@ public class TicketController {
         Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateTicketAccess(currentUser, ticket);
-        ticket.setCategory(category);
-        return ResponseEntity.ok(ticketRepository.save(ticket));
+        return ResponseEntity.ok(ticketService.updateCategory(ticket, category, currentUser.getEmail()));
     }
 
     @PutMapping("/{id}/auto-assign")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<Ticket> autoAssign(@PathVariable Long id) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
-        Long orgId = ticket.getOrganization() != null ? ticket.getOrganization().getId() : null;
-        if (orgId == null) return ResponseEntity.badRequest().build();
-        List<User> devs = userRepository.findDevelopersByOrganizationId(orgId);
-        if (devs.isEmpty()) return ResponseEntity.badRequest().body(ticket);
-        int idx = lastAssignedDevIndex.getOrDefault(orgId, -1);
-        idx = (idx + 1) % devs.size();
-        lastAssignedDevIndex.put(orgId, idx);
-        User assignedDev = devs.get(idx);
-        ticket.setAssignedTo(assignedDev);
-        TicketHistory history = TicketHistory.builder()
-            .action("ASSIGNMENT")
-            .detail("Auto-assigned to developer: " + assignedDev.getFullName() + " (" + assignedDev.getEmail() + ")")
-            .changedBy("system")
-            .timestamp(LocalDateTime.now())
-            .ticket(ticket)
-            .build();
-        ticketHistoryRepository.save(history);
-        notificationService.sendNotification("Ticket auto-assigned: " + ticket.getTitle());
-        notificationService.sendTicketEvent("ASSIGNED", ticket);
-        return ResponseEntity.ok(ticketRepository.save(ticket));
+        if (ticket.getOrganization() == null) return ResponseEntity.badRequest().build();
+        return ticketService.autoAssignTicket(ticket)
+                .map(this::changed)
+                .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 
     @PutMapping("/{id}/assign/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<Ticket> assignTicket(@PathVariable Long id, @PathVariable Long userId) {
-        Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
+    public ResponseEntity<Ticket> assignTicket(@PathVariable Long id, @PathVariable Long userId,
+                                               @RequestParam(required = false) Long version) {
         User assignedUser = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
         User currentUser = authService.getAuthenticatedUser();
         // accessControlService.validateTicketAssignment(currentUser, assignedUser);
-        ticket.setAssignedTo(assignedUser);
-        TicketHistory history = TicketHistory.builder()
-            .action("ASSIGNMENT")
-            .detail("Manually assigned to: " + assignedUser.getFullName() + " (" + assignedUser.getEmail() + ")")
-            .changedBy(currentUser.getEmail())
-            .timestamp(LocalDateTime.now())
-            .ticket(ticket)
-            .build();
-        ticketHistoryRepository.save(history);
-        notificationService.sendNotification("Ticket assigned: " + ticket.getTitle());
-        notificationService.sendTicketEvent("ASSIGNED", ticket);
-        return ResponseEntity.ok(ticketRepository.save(ticket));
+        return changed(ticketService.assignTicket(id, assignedUser, currentUser.getEmail(), version));
+    }
+
+    // The updated ticket as the body, as before; the new version (to send back as version=) and the previous status as headers
+    private ResponseEntity<Ticket> changed(TicketStateChange change) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TICKET_VERSION_HEADER, String.valueOf(change.getVersion()));
+        if (change.getPreviousStatus() != null) {
+            response.header(PREVIOUS_STATUS_HEADER, change.getPreviousStatus());
+        }
+        return response.body(ticketService.getCurrentTicket(change.getTicketId()));
+    }
+
+    @PutMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
+    @Operation(summary = "Apply one change set (status, priority, category, assignee) to many tickets in one transaction")
+    public ResponseEntity<?> bulkUpdate(@Valid @RequestBody BulkTicketUpdateRequest request) {
+        User currentUser = authService.getAuthenticatedUser();
+        try {
+            // The BULK_UPDATED broadcast is recorded in the outbox with the change
+            return ResponseEntity.ok(bulkTicketService.apply(request, currentUser));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<?> deleteTicket(@PathVariable Long id) {
-        ticketRepository.deleteById(id);
+        ticketService.deleteTicket(id);
         return ResponseEntity.ok().build();
     }
 
@@ -265,9 +314,41 @@ public class TicketController {
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
     public ResponseEntity<Comment> addComment(@PathVariable Long id, @RequestBody Comment comment) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow(() -> new RuntimeException("Ticket not found"));
-        comment.setTicket(ticket);
-        comment.setCreatedAt(java.time.LocalDateTime.now());
-        return ResponseEntity.ok(commentRepository.save(comment));
+        return ResponseEntity.ok(ticketService.addComment(ticket, comment));
+    }
+
+    @GetMapping("/{id}/events")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
+    @Operation(summary = "Event log of a ticket, oldest first; pass the last seen sequence as after= to read on")
+    public ResponseEntity<List<TicketEvent>> listEvents(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        Ticket ticket = ticketRepository.findById(id)
+                .or(() -> ticketArchiveService.findArchived(id).map(TicketArchive::toTicket))
+                .filter(t -> canReadEvents(authService.getAuthenticatedUser(), t))
+                // Same answer for tickets the caller may not see, so ids cannot be probed
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+        return ResponseEntity.ok(ticketEventLog.ticketEvents(ticket.getId(), after, limit));
+    }
+
+    // ADMIN: any ticket; USER: tickets they created; TENANT_ADMIN and DEVELOPER: their organization's
+    private static boolean canReadEvents(User user, Ticket ticket) {
+        if (hasRole(user, "ADMIN")) return true;
+        if (user.getEmail() != null && user.getEmail().equals(ticket.getCreatedBy())) return true;
+        if (!hasRole(user, "TENANT_ADMIN") && !hasRole(user, "DEVELOPER")) return false;
+        return user.getOrganizationId() != null && user.getOrganizationId().equals(ticket.getOrganizationId());
+    }
+
+    private static boolean hasRole(User user, String name) {
+        return user.getRoles() != null && user.getRoles().stream().anyMatch(role -> name.equals(role.getName()));
+    }
+
+    @GetMapping("/events")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Event log of all tickets after a log position; pass the last seen position as after= to read on")
+    public ResponseEntity<List<TicketEvent>> listAllEvents(@RequestParam(defaultValue = "0") long after,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ticketEventLog.eventsAfter(after, limit));
     }
 
     @GetMapping("/{id}/comments")
@@ -285,16 +366,22 @@ public class TicketController {
 
     @GetMapping("/list")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN', 'DEVELOPER', 'USER')")
-    public ResponseEntity<Page<Ticket>> listTickets(@RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<?> listTickets(@RequestParam(defaultValue = "0") int page,
                                                    @RequestParam(defaultValue = "10") int size,
                                                    @RequestParam(required = false) String status,
                                                    @RequestParam(required = false) String priority,
                                                    @RequestParam(required = false) String assignee,
                                                    @RequestParam(required = false) String product,
                                                    @RequestParam(required = false) String search) {
-        Pageable pageable = PageRequest.of(page, size);
-        // Implement filtering logic as needed
-        Page<Ticket> tickets = ticketRepository.findAll(pageable); // Replace with actual filtering
-        return ResponseEntity.ok(tickets);
+        if (size < 1 || size > MAX_PAGE_SIZE || page < 0) {
+            return ResponseEntity.badRequest().body("page must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        // Implement filtering logic as needed; unbounded ranges include archived tickets
+        try {
+            return ResponseEntity.ok(ticketArchiveService.findFilteredPage(null, null, null, null, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 } 
\ No newline at end of file
@@ -5,8 +5,10 @@ import com.ziohelp.entity.User;
 import com.ziohelp.entity.Role;
 import com.ziohelp.repository.UserRepository;
 import com.ziohelp.repository.RoleRepository;
+import com.ziohelp.security.TokenVersionCache;
 import com.ziohelp.service.AuthService;
 import com.ziohelp.service.OrganizationService;
+import com.ziohelp.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -40,6 +42,8 @@ public class UserController {
     private final OrganizationService organizationService;
     private final RoleRepository roleRepository;
     private final AuditLogService auditLogService;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserService userService;
 
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'TENANT_ADMIN', 'DEVELOPER')") // All authenticated users except guest
@@ -53,8 +57,10 @@ public class UserController {
     public ResponseEntity<UserDto> updateProfile(@RequestBody UserDto dto) {
         User user = authService.getAuthenticatedUser();
         user.setFullName(dto.getName());
+        String previousEmail = user.getEmail();
         user.setEmail(dto.getEmail());
         userRepository.save(user);
+        tokenVersionCache.evict(previousEmail);
         return ResponseEntity.ok(safeMapUserToDto(user));
     }
 
@@ -132,7 +138,7 @@ public class UserController {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return ResponseEntity.notFound().build();
         boolean removed = user.getRoles().removeIf(role -> role.getName().equalsIgnoreCase(roleName));
-        userRepository.save(user);
+        if (removed) userService.saveRevokingTokens(user);
         // Audit log
         auditLogService.logActivity("ROLE_UPDATE", "Role removed: " + roleName, user.getEmail());
         return ResponseEntity.ok(Collections.singletonMap("message", removed ? "Role removed" : "Role not found for user"));
@@ -178,7 +184,7 @@ public class UserController {
             .filter(r -> roles.contains(r.getName()))
             .collect(Collectors.toList());
         user.setRoles(new java.util.HashSet<>(roleEntities));
-        userRepository.save(user);
+        userService.saveRevokingTokens(user);
         // Audit log
         auditLogService.logActivity("ROLE_UPDATE", "Roles updated: " + roles, user.getEmail());
         return ResponseEntity.ok(Collections.singletonMap("message", "Roles updated"));
@@ -212,7 +218,9 @@ public class UserController {
     @DeleteMapping("/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TENANT_ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long userId) {
+        String email = userRepository.findById(userId).map(User::getEmail).orElse(null);
         userRepository.deleteById(userId);
+        tokenVersionCache.evict(email);
         return ResponseEntity.ok().build();
     }
 
@@ -222,7 +230,7 @@ public class UserController {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return ResponseEntity.status(404).body("User not found");
         user.setActive(!user.isActive());
-        userRepository.save(user);
+        userService.saveRevokingTokens(user);
         return ResponseEntity.ok(safeMapUserToDto(user));
     }
 
@@ -242,7 +250,7 @@ public class UserController {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return ResponseEntity.status(404).body("User not found");
         user.setApproved(false);
-        userRepository.save(user);
+        userService.saveRevokingTokens(user);
         return ResponseEntity.ok(safeMapUserToDto(user));
     }
     // --- Utility: Map User to UserDto (null-safe, all expected fields) ---
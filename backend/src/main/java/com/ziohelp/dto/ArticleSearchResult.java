@@ -0,0 +1,26 @@
+package com.ziohelp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A ranked knowledge base article; highlightedTitle and snippet are HTML-escaped with matches in {@code <mark>}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArticleSearchResult {
+    private Long id;
+    private Long productId;
+    private String title;
+    private String highlightedTitle;
+    private String category;
+    private String author;
+    private String snippet;
+    private double score;
+    private LocalDateTime updatedAt;
+}
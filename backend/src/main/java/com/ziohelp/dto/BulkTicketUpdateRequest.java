@@ -0,0 +1,27 @@
+package com.ziohelp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One change set applied to every listed ticket. Null fields are left as they are;
+ * at least one of status, priority, category or assigneeId must be set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTicketUpdateRequest {
+    @NotEmpty(message = "Ticket IDs are required")
+    private List<Long> ticketIds;
+
+    private String status;
+    private String priority;
+    private String category;
+    private Long assigneeId;
+}
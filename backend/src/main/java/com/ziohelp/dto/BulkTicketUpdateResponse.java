@@ -0,0 +1,32 @@
+package com.ziohelp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ticket update, with one result per requested id in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTicketUpdateResponse {
+    private int requested;
+    private int updated;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long ticketId;
+        /** UPDATED, UNCHANGED, NOT_FOUND, FORBIDDEN or CONFLICT. */
+        private String outcome;
+        /** Human-readable list of applied changes, e.g. "status: OPEN -> RESOLVED". */
+        private String detail;
+    }
+}
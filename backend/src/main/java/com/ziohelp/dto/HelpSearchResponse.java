@@ -0,0 +1,29 @@
+package com.ziohelp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A merged, paged page of federated help search results, with the outcome of each source
+ * ("ok", "timeout", "rejected", "unavailable" or "error") so clients can tell when results are partial.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HelpSearchResponse {
+    private String domain;
+    private Long productId;
+    private String keyword;
+    private List<HelpSearchResult> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+    private Map<String, String> sources;
+}
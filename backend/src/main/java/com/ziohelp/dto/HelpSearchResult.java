@@ -0,0 +1,24 @@
+package com.ziohelp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One FAQ or article in a federated help search; title and snippet are HTML-escaped with matches in {@code <mark>}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HelpSearchResult {
+    /** "faq" or "article". */
+    private String type;
+    private Long id;
+    private String title;
+    private String snippet;
+    private String category;
+    /** Relevance normalized to 0..1 within its source, so FAQs and articles rank on one scale. */
+    private double score;
+}
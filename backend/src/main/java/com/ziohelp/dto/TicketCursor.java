@@ -0,0 +1,72 @@
+package com.ziohelp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset cursor over tickets ordered by (createdAt, id) descending.
+ */
+public class TicketCursor {
+    /** Largest page a ticket listing returns, cursor or offset. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public TicketCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static TicketCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new TicketCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Validate a requested page size before {@code size + 1} rows are fetched.
+     *
+     * @throws IllegalArgumentException unless 1 <= size <= {@link #MAX_PAGE_SIZE}
+     */
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Build a page from a result fetched with {@code size + 1} rows: the extra row only
+     * signals that another page exists.
+     */
+    public static CursorPageResponse<TicketSummary> toPage(List<TicketSummary> rows, int size, Long totalElements) {
+        checkSize(size);
+        boolean hasNext = rows.size() > size;
+        List<TicketSummary> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TicketSummary last = page.get(page.size() - 1);
+            nextCursor = new TicketCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(List.copyOf(page), size, nextCursor, hasNext, totalElements);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ziohelp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a status transition or assignment: the values before and after, and the ticket's
+ * new version to send back with the next change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketStateChange {
+    private Long ticketId;
+    private String previousStatus;
+    private String status;
+    private Long previousAssigneeId;
+    private Long assigneeId;
+    private Long version;
+    private LocalDateTime updatedAt;
+}
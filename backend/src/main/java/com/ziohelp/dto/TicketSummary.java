@@ -0,0 +1,57 @@
+package com.ziohelp.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Flat ticket row for list endpoints. Loaded with a single joined JPQL constructor query
+ * (see TicketRepository), so listing never touches the entity graph or its lazy
+ * collections; the full ticket is served by GET /api/tickets/{id}.
+ */
+@Data
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "title", "status", "priority", "category", "createdBy", "guest", "createdAt", "updatedAt",
+        "organizationId", "organizationName", "productId", "productName", "assignedToId", "assignedToName", "assignedToEmail"})
+public class TicketSummary {
+    private Long id;
+    private String title;
+    private String status;
+    private String priority;
+    private String category;
+    private String createdBy;
+    private boolean guest;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long organizationId;
+    private String organizationName;
+    private Long productId;
+    private String productName;
+    private Long assignedToId;
+    private String assignedToName;
+    private String assignedToEmail;
+
+    // Argument order must match the SELECT new ... TicketSummary(...) queries in TicketRepository
+    public TicketSummary(Long id, String title, String status, String priority, String category, String createdBy,
+                         boolean guest, LocalDateTime createdAt, LocalDateTime updatedAt,
+                         Long organizationId, String organizationName, Long productId, String productName,
+                         Long assignedToId, String assignedToName, String assignedToEmail) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.category = category;
+        this.createdBy = createdBy;
+        this.guest = guest;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.organizationId = organizationId;
+        this.organizationName = organizationName;
+        this.productId = productId;
+        this.productName = productName;
+        this.assignedToId = assignedToId;
+        this.assignedToName = assignedToName;
+        this.assignedToEmail = assignedToEmail;
+    }
+}
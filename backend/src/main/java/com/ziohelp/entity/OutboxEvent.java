@@ -0,0 +1,42 @@
+package com.ziohelp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * The side effects of one ticket change (notification, ticket event, audit entry), saved in the
+ * same transaction as the change and delivered later by OutboxDispatcher.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Ticket id; events of one aggregate are delivered in id order
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 30)
+    private String effect; // TICKET_CHANGE
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON: effect name (NOTIFICATION, TICKET_EVENT, AUDIT) -> arguments, not yet delivered
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING, DONE, FAILED
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+}
@@ -1,5 +1,6 @@
 package com.ziohelp.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -26,6 +27,15 @@ public class Ticket {
     private LocalDateTime updatedAt;
     private String category;
 
+    // Bumped by every update, including the conditional status/assignment updates in TicketService
+    @Version
+    private Long version;
+
+    // Near-duplicates found by TicketSimilarityIndex when the ticket was submitted; not stored
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<Long> possibleDuplicateIds;
+
     @ManyToOne
     @JoinColumn(name = "organization_id")
     private Organization organization;
@@ -47,6 +57,13 @@ public class Ticket {
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
     private Set<TicketHistory> history;
 
+    // createdAt is part of the keyset pagination order, so it is never left null
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (updatedAt == null) updatedAt = createdAt;
+    }
+
     public void setStatus(String status) { this.status = status; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public Long getId() { return id; }
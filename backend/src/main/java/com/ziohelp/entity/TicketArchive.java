@@ -0,0 +1,74 @@
+package com.ziohelp.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A RESOLVED or CLOSED ticket moved out of the ticket table by TicketArchiveService once it is
+ * older than the retention age. Relations are kept as plain ids; comments, attachments and
+ * history are stored with the ticket as JSON arrays.
+ */
+@Entity
+@Table(name = "ticket_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketArchive {
+    @Id
+    private Long id; // the original ticket id
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    private String status;
+    private String priority;
+    private String createdBy;
+
+    @Column(name = "is_guest")
+    private boolean guest;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String category;
+    private Long organizationId;
+    private Long productId;
+    private Long assignedToId;
+    private Long version;
+    private LocalDateTime archivedAt;
+
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String comments;
+
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String attachments;
+
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String history;
+
+    /** Detached Ticket carrying the scalar fields, for code that aggregates over tickets. */
+    public Ticket toTicket() {
+        return Ticket.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .status(status)
+                .priority(priority)
+                .createdBy(createdBy)
+                .isGuest(guest)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .category(category)
+                .version(version)
+                .organization(organizationId != null ? Organization.builder().id(organizationId).build() : null)
+                .product(productId != null ? Product.builder().id(productId).build() : null)
+                .build();
+    }
+}
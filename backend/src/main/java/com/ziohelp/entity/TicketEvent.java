@@ -0,0 +1,45 @@
+package com.ziohelp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only ticket event log written by TicketEventLog. {@code sequence}
+ * is taken at insert; {@code position} is set once after commit, in commit-safe order, and
+ * is what consumers following the whole log page by. Rows are not changed otherwise.
+ */
+@Entity
+@Table(name = "ticket_event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long sequence;
+
+    // Null until TicketEventLog.sequenceCommitted numbers the committed event
+    @Column(name = "log_position", unique = true)
+    private Long position;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Column(nullable = false, length = 30)
+    private String type; // CREATED, STATUS_CHANGED, ASSIGNED, UPDATED, COMMENTED, ATTACHMENT_ADDED, NOTE
+
+    private String actor;
+
+    // Previous and new value for changes (status, assignee id, ...); new value only for additions
+    private String fromValue;
+    private String toValue;
+
+    @Column(length = 500)
+    private String detail;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
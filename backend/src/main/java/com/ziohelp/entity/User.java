@@ -60,6 +60,31 @@ public class User {
     private String verificationToken;
     private String resetToken;
 
+    // Bumped to revoke previously issued JWTs (role change, deactivation)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
+    // Open tickets this developer is expected to carry; weights auto-assignment (null = assignment.default-capacity)
+    private Integer assignmentCapacity;
+
+    // Lower-cased copies of email/username used for indexed case-insensitive lookups
+    @Column(name = "email_normalized", unique = true)
+    private String emailNormalized;
+
+    @Column(name = "username_normalized", unique = true)
+    private String usernameNormalized;
+
+    @PrePersist
+    @PreUpdate
+    protected void syncNormalizedIdentifiers() {
+        emailNormalized = normalizeIdentifier(email);
+        usernameNormalized = normalizeIdentifier(username);
+    }
+
+    public static String normalizeIdentifier(String identifier) {
+        return identifier != null ? identifier.trim().toLowerCase(java.util.Locale.ROOT) : null;
+    }
+
     // Getters and setters for all fields (Lombok @Data covers this)
 
     // Compatibility methods for legacy code
@@ -89,6 +114,9 @@ public class User {
     public String getResetToken() { return resetToken; }
     public void setResetToken(String resetToken) { this.resetToken = resetToken; }
 
+    public int getTokenVersion() { return tokenVersion != null ? tokenVersion : 0; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+
     // For DTO compatibility
     public Boolean getEmailVerified() { return emailVerified; }
     public Boolean getIsActive() { return active; }
@@ -0,0 +1,8 @@
+package com.ziohelp.exception;
+
+/** An Idempotency-Key was reused with a different request body (HTTP 422). */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
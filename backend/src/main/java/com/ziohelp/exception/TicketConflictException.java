@@ -0,0 +1,8 @@
+package com.ziohelp.exception;
+
+/** A ticket change lost a race or is not allowed from the ticket's current status (HTTP 409). */
+public class TicketConflictException extends RuntimeException {
+    public TicketConflictException(String message) {
+        super(message);
+    }
+}
@@ -52,4 +52,9 @@ public interface FaqRepository extends JpaRepository<Faq, Long> {
     
     @Query("SELECT DISTINCT f.category FROM Faq f WHERE f.product.id = :productId")
     List<String> findDistinctCategoriesByProduct_Id(@Param("productId") Long productId);
-} 
\ No newline at end of file
+
+    // (id, productId, question, answer) of published FAQs in id order, for the FAQ search index
+    @Query("SELECT f.id, p.id, f.question, f.answer FROM Faq f LEFT JOIN f.product p " +
+           "WHERE f.isPublished = true AND f.id > :afterId ORDER BY f.id")
+    List<Object[]> findPublishedSearchRowsAfter(@Param("afterId") Long afterId, Pageable limit);
+} 
@@ -48,4 +48,9 @@ public interface KnowledgeBaseArticleRepository extends JpaRepository<KnowledgeB
         @Param("productId") Long productId, 
         @Param("category") String category, 
         @Param("isPublished") Boolean isPublished);
-} 
\ No newline at end of file
+
+    // (id, productId, title, category, content) of published articles in id order, for the article search index
+    @Query("SELECT a.id, p.id, a.title, a.category, a.content FROM KnowledgeBaseArticle a LEFT JOIN a.product p " +
+           "WHERE a.isPublished = true AND a.id > :afterId ORDER BY a.id")
+    List<Object[]> findPublishedSearchRowsAfter(@Param("afterId") Long afterId, Pageable limit);
+} 
@@ -0,0 +1,30 @@
+package com.ziohelp.repository;
+
+import com.ziohelp.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable limit);
+
+    // (aggregateId, lowest pending id) for aggregates whose oldest event is waiting on a retry backoff
+    @Query("SELECT e.aggregateId, MIN(e.id) FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.nextAttemptAt > :now " +
+            "AND e.aggregateId IS NOT NULL GROUP BY e.aggregateId")
+    List<Object[]> findBackedOffAggregates(@Param("now") LocalDateTime now);
+
+    long countByStatus(String status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,6 +2,7 @@ package com.ziohelp.repository;
 
 import com.ziohelp.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +13,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByName(String name);
     boolean existsByDomain(String domain);
     Optional<Product> findByDomain(String domain);
+
+    @Query("SELECT p.domain FROM Product p WHERE p.domain IS NOT NULL")
+    List<String> findAllDomains();
     List<Product> findByIsActiveTrue();
     List<Product> findByCategory(String category);
     List<Product> findByStatus(String status);
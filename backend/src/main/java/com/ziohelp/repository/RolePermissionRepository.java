@@ -37,4 +37,16 @@ public interface RolePermissionRepository extends JpaRepository<RolePermission,
     void deleteByRoleIdAndPermissionIdIn(@Param("roleId") Long roleId, @Param("permissionIds") List<Long> permissionIds);
     
     boolean existsByRoleIdAndPermissionId(Long roleId, Long permissionId);
+
+    // (roleId, permissionId) pairs for building the authorization snapshot
+    @Query("SELECT rp.role.id, rp.permission.id FROM RolePermission rp")
+    List<Object[]> findAllRoleIdPermissionIdPairs();
+
+    // Digest of the active roles, active permissions and grants; changes whenever the snapshot would
+    @Query(value = "SELECT md5("
+            + "(SELECT COALESCE(string_agg(id || ':' || name, ',' ORDER BY id), '') FROM roles WHERE is_active) || '|' || "
+            + "(SELECT COALESCE(string_agg(id || ':' || name, ',' ORDER BY id), '') FROM permissions WHERE is_active) || '|' || "
+            + "(SELECT COALESCE(string_agg(role_id || ':' || permission_id, ',' ORDER BY role_id, permission_id), '') FROM role_permissions))",
+            nativeQuery = true)
+    String findAuthorizationVersion();
 }
@@ -38,4 +38,10 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     boolean existsByName(String name);
     
     boolean existsByNameAndIdNot(String name, Long id);
+
+    Optional<Role> findByNameIgnoreCase(String name);
+
+    boolean existsByNameIgnoreCase(String name);
+
+    boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
 } 
\ No newline at end of file
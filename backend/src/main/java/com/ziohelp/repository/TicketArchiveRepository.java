@@ -0,0 +1,60 @@
+package com.ziohelp.repository;
+
+import com.ziohelp.dto.TicketSummary;
+import com.ziohelp.entity.TicketArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Archived tickets. Mirrors the date-range queries of TicketRepository so TicketArchiveService
+ * can add the archive's share when a requested range reaches into it.
+ */
+public interface TicketArchiveRepository extends JpaRepository<TicketArchive, Long> {
+
+    String SUMMARY_SELECT = "SELECT new com.ziohelp.dto.TicketSummary(t.id, t.title, t.status, t.priority, t.category, t.createdBy, " +
+            "t.guest, t.createdAt, t.updatedAt, o.id, o.name, p.id, p.name, a.id, a.fullName, a.email) " +
+            "FROM TicketArchive t LEFT JOIN Organization o ON o.id = t.organizationId " +
+            "LEFT JOIN Product p ON p.id = t.productId LEFT JOIN User a ON a.id = t.assignedToId ";
+
+    @Query("SELECT MAX(t.createdAt) FROM TicketArchive t")
+    LocalDateTime findNewestCreatedAt();
+
+    @Query("SELECT MAX(t.updatedAt) FROM TicketArchive t")
+    LocalDateTime findNewestUpdatedAt();
+
+    // ==== KEYSET (CURSOR) PAGINATION, same order and filters as TicketRepository ====
+
+    @Query(SUMMARY_SELECT + TicketRepository.FILTER_WHERE + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findAllFilteredFirstKeysetPage(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search, Pageable limit);
+
+    @Query(SUMMARY_SELECT + TicketRepository.FILTER_WHERE +
+            "AND (t.createdAt < :cursorCreatedAt OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findAllFilteredKeysetPageAfter(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search,
+                                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId, Pageable limit);
+
+    @Query("SELECT COUNT(t) FROM TicketArchive t " + TicketRepository.FILTER_WHERE)
+    long countAllFiltered(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search);
+
+    // ==== DASHBOARD RANGES ====
+
+    long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    long countByStatusAndCreatedAtBetween(String status, LocalDateTime start, LocalDateTime end);
+    long countByStatusAndUpdatedAtBetween(String status, LocalDateTime start, LocalDateTime end);
+    long countByOrganizationIdAndStatusAndCreatedAtBetween(Long organizationId, String status, LocalDateTime start, LocalDateTime end);
+    List<TicketArchive> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    List<TicketArchive> findByStatusInAndCreatedAtBetween(Collection<String> statuses, LocalDateTime start, LocalDateTime end);
+
+    // ==== COUNTER SUPPORT ====
+
+    // (organizationId, productId, status, priority, count), added to the live counts by TicketCounterStore
+    @Query("SELECT t.organizationId, t.productId, t.status, t.priority, COUNT(t) FROM TicketArchive t " +
+            "GROUP BY t.organizationId, t.productId, t.status, t.priority")
+    List<Object[]> countGroupedByOrganizationProductStatusPriority();
+}
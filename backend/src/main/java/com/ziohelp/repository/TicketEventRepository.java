@@ -0,0 +1,20 @@
+package com.ziohelp.repository;
+
+import com.ziohelp.entity.TicketEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TicketEventRepository extends JpaRepository<TicketEvent, Long> {
+
+    // Timeline of one ticket from a sequence on; served by idx_ticket_event_ticket_seq
+    @Query("SELECT e FROM TicketEvent e WHERE e.ticketId = :ticketId AND e.sequence > :afterSequence ORDER BY e.sequence")
+    List<TicketEvent> findByTicketAfter(@Param("ticketId") Long ticketId, @Param("afterSequence") long afterSequence, Pageable limit);
+
+    // All tickets from a log position on, for consumers that follow the log; served by idx_ticket_event_position
+    @Query("SELECT e FROM TicketEvent e WHERE e.position > :afterPosition ORDER BY e.position")
+    List<TicketEvent> findAfterPosition(@Param("afterPosition") long afterPosition, Pageable limit);
+}
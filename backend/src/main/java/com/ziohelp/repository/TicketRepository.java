@@ -1,5 +1,6 @@
 package com.ziohelp.repository;
 
+import com.ziohelp.dto.TicketSummary;
 import com.ziohelp.entity.Ticket;
 import com.ziohelp.entity.User;
 import org.springframework.data.domain.Page;
@@ -9,9 +10,20 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
+
+    // Flat list rows: one joined query, no entity graph (see TicketSummary)
+    String SUMMARY_SELECT = "SELECT new com.ziohelp.dto.TicketSummary(t.id, t.title, t.status, t.priority, t.category, t.createdBy, " +
+            "t.isGuest, t.createdAt, t.updatedAt, o.id, o.name, p.id, p.name, a.id, a.fullName, a.email) " +
+            "FROM Ticket t LEFT JOIN t.organization o LEFT JOIN t.product p LEFT JOIN t.assignedTo a ";
+    String FILTER_WHERE = "WHERE (:status IS NULL OR t.status = :status) AND " +
+            "(:fromDate IS NULL OR t.createdAt >= :fromDate) AND " +
+            "(:toDate IS NULL OR t.createdAt <= :toDate) AND " +
+            "(:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%'))) ";
+
     long countByCreatedAtAfter(LocalDateTime since);
     long countByStatusAndCreatedAtAfter(String status, LocalDateTime since);
     long countByStatus(String status);
@@ -35,6 +47,104 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
             "(:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))" )
     Page<Ticket> findAllFilteredPaged(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search, Pageable pageable);
 
+    // ==== KEYSET (CURSOR) PAGINATION ====
+    // Ordered by (createdAt, id) descending; pass PageRequest.of(0, size + 1) to detect a next page without a count
+
+    @Query(SUMMARY_SELECT + FILTER_WHERE + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findAllFilteredFirstKeysetPage(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search, Pageable limit);
+
+    @Query(SUMMARY_SELECT + FILTER_WHERE +
+            "AND (t.createdAt < :cursorCreatedAt OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findAllFilteredKeysetPageAfter(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search,
+                                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId, Pageable limit);
+
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE " +
+            "(:status IS NULL OR t.status = :status) AND " +
+            "(:fromDate IS NULL OR t.createdAt >= :fromDate) AND " +
+            "(:toDate IS NULL OR t.createdAt <= :toDate) AND " +
+            "(:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+    long countAllFiltered(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :productId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findByProduct_IdFirstKeysetPage(@Param("productId") Long productId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :productId AND " +
+            "(t.createdAt < :cursorCreatedAt OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findByProduct_IdKeysetPageAfter(@Param("productId") Long productId, @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                        @Param("cursorId") Long cursorId, Pageable limit);
+
+    // ==== LIST SUMMARIES ====
+
+    @Query(value = SUMMARY_SELECT + FILTER_WHERE,
+           countQuery = "SELECT COUNT(t) FROM Ticket t " + FILTER_WHERE)
+    Page<TicketSummary> findAllFilteredSummaries(@Param("status") String status, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("search") String search, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TicketSummary> findSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findSummariesByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :productId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findSummariesByProductId(@Param("productId") Long productId);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :assignedToId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findSummariesByAssignedToId(@Param("assignedToId") Long assignedToId);
+
+    @Query(SUMMARY_SELECT + "WHERE t.createdBy = :createdBy ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketSummary> findSummariesByCreatedBy(@Param("createdBy") String createdBy);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.id = :productId AND " +
+                   "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.product.id = :productId AND " +
+                   "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<TicketSummary> searchSummariesByProduct_IdAndKeyword(@Param("productId") Long productId, @Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.id = :productId",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.product.id = :productId")
+    Page<TicketSummary> findSummariesByProduct_Id(@Param("productId") Long productId, Pageable pageable);
+
+    long countByProduct_Id(Long productId);
+
+    // ==== SEARCH INDEX SUPPORT ====
+
+    // (id, productId, title, description) in id order, for building and checking the ticket search index
+    @Query("SELECT t.id, p.id, t.title, t.description FROM Ticket t LEFT JOIN t.product p WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids AND " +
+            "(:status IS NULL OR t.status = :status) AND " +
+            "(:fromDate IS NULL OR t.createdAt >= :fromDate) AND " +
+            "(:toDate IS NULL OR t.createdAt <= :toDate)")
+    List<Long> findIdsMatchingFilters(@Param("ids") List<Long> ids, @Param("status") String status,
+                                      @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+
+    // ==== BULK UPDATE SUPPORT ====
+
+    // (id, status, priority, category, assignedToId, organizationId, productId, version) for the tickets a bulk change set targets
+    @Query("SELECT t.id, t.status, t.priority, t.category, a.id, o.id, p.id, t.version FROM Ticket t " +
+            "LEFT JOIN t.assignedTo a LEFT JOIN t.organization o LEFT JOIN t.product p WHERE t.id IN :ids")
+    List<Object[]> findBulkUpdateRowsByIdIn(@Param("ids") List<Long> ids);
+
+    // ==== COUNTER SUPPORT ====
+
+    // (organizationId, productId, status, priority, count) for TicketCounterStore
+    @Query("SELECT o.id, p.id, t.status, t.priority, COUNT(t) FROM Ticket t " +
+            "LEFT JOIN t.organization o LEFT JOIN t.product p GROUP BY o.id, p.id, t.status, t.priority")
+    List<Object[]> countGroupedByOrganizationProductStatusPriority();
+
+    // ==== ASSIGNMENT SUPPORT ====
+
+    // (assigneeId, open ticket count) for TicketAssignmentEngine
+    @Query("SELECT a.id, COUNT(t) FROM Ticket t JOIN t.assignedTo a WHERE t.status NOT IN :closedStatuses GROUP BY a.id")
+    List<Object[]> countOpenByAssignee(@Param("closedStatuses") Collection<String> closedStatuses);
+
+    @Query("SELECT a.id, COUNT(t) FROM Ticket t JOIN t.assignedTo a " +
+            "WHERE a.organization.id = :orgId AND t.status NOT IN :closedStatuses GROUP BY a.id")
+    List<Object[]> countOpenByAssigneeInOrganization(@Param("orgId") Long orgId, @Param("closedStatuses") Collection<String> closedStatuses);
+
     List<Ticket> findByAssignedTo(User assignedTo);
     List<Ticket> findByAssignedToId(Long assignedToId);
     
@@ -12,9 +12,10 @@ import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.emailNormalized = LOWER(TRIM(:email))")
     Optional<User> findByEmail(@Param("email") String email);
     boolean existsByEmail(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
     long countByCreatedAtAfter(LocalDateTime since);
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     
@@ -37,6 +38,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = 'DEVELOPER' AND u.organization.id = :orgId")
     List<User> findDevelopersByOrganizationId(@Param("orgId") Long orgId);
+
+    // (userId, organizationId, assignmentCapacity) of active developers, for TicketAssignmentEngine
+    @Query("SELECT u.id, u.organization.id, u.assignmentCapacity FROM User u JOIN u.roles r " +
+            "WHERE r.name = 'DEVELOPER' AND u.organization IS NOT NULL AND (u.active IS NULL OR u.active = true)")
+    List<Object[]> findDeveloperAssignmentRows();
+
+    @Query("SELECT u.id, u.organization.id, u.assignmentCapacity FROM User u JOIN u.roles r " +
+            "WHERE r.name = 'DEVELOPER' AND u.organization.id = :orgId AND (u.active IS NULL OR u.active = true)")
+    List<Object[]> findDeveloperAssignmentRowsByOrganizationId(@Param("orgId") Long orgId);
     
     // Role-based queries
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name IN :roleNames")
@@ -45,15 +55,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Active user queries
     long countByActiveTrue();
     long countByActiveTrueAndCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE LOWER(u.email) = LOWER(:email)")
+    // Case-insensitive lookups go through the indexed normalized columns (see User.normalizeIdentifier)
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.emailNormalized = LOWER(TRIM(:email))")
     Optional<User> findByEmailIgnoreCase(@Param("email") String email);
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE LOWER(u.username) = LOWER(:username)")
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.usernameNormalized = LOWER(TRIM(:username))")
     Optional<User> findByUsernameIgnoreCase(@Param("username") String username);
     
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.resetToken = :resetToken")
     Optional<User> findByResetToken(@Param("resetToken") String resetToken);
     
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.emailNormalized = LOWER(TRIM(:email))")
+    Optional<Integer> findTokenVersionByEmail(@Param("email") String email);
+
     @Query(value = "SELECT ur.role_id FROM user_roles ur WHERE ur.user_id = :userId", nativeQuery = true)
     List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
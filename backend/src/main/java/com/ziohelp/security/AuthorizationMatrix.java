@@ -0,0 +1,85 @@
+package com.ziohelp.security;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable role -> permission snapshot.
+ *
+ * Role and permission names are mapped to dense integer ids and every role holds a
+ * BitSet of its granted permissions, so a check is two hash lookups and a bit test.
+ * Instances are never mutated after construction; AuthorizationService swaps whole
+ * snapshots when roles or permissions change.
+ */
+public final class AuthorizationMatrix {
+
+    static final AuthorizationMatrix EMPTY = new AuthorizationMatrix(
+            Collections.emptyMap(), Collections.emptyMap(), new BitSet[0]);
+
+    private final Map<String, Integer> roleIndex;
+    private final Map<String, Integer> permissionIndex;
+    private final BitSet[] grants;
+
+    private AuthorizationMatrix(Map<String, Integer> roleIndex, Map<String, Integer> permissionIndex, BitSet[] grants) {
+        this.roleIndex = roleIndex;
+        this.permissionIndex = permissionIndex;
+        this.grants = grants;
+    }
+
+    /**
+     * @param roles       (roleId, roleName) of active roles
+     * @param permissions (permissionId, permissionName) of active permissions
+     * @param links       (roleId, permissionId) grants
+     */
+    public static AuthorizationMatrix build(Map<Long, String> roles, Map<Long, String> permissions, List<Object[]> links) {
+        Map<String, Integer> roleIndex = new HashMap<>();
+        Map<Long, Integer> roleDense = new HashMap<>();
+        for (Map.Entry<Long, String> role : roles.entrySet()) {
+            int dense = roleIndex.size();
+            roleIndex.put(normalize(role.getValue()), dense);
+            roleDense.put(role.getKey(), dense);
+        }
+
+        Map<String, Integer> permissionIndex = new HashMap<>();
+        Map<Long, Integer> permissionDense = new HashMap<>();
+        for (Map.Entry<Long, String> permission : permissions.entrySet()) {
+            int dense = permissionIndex.size();
+            permissionIndex.put(normalize(permission.getValue()), dense);
+            permissionDense.put(permission.getKey(), dense);
+        }
+
+        BitSet[] grants = new BitSet[roleIndex.size()];
+        for (int i = 0; i < grants.length; i++) {
+            grants[i] = new BitSet(permissionIndex.size());
+        }
+        for (Object[] link : links) {
+            Integer role = roleDense.get(((Number) link[0]).longValue());
+            Integer permission = permissionDense.get(((Number) link[1]).longValue());
+            if (role != null && permission != null) {
+                grants[role].set(permission);
+            }
+        }
+
+        return new AuthorizationMatrix(
+                Collections.unmodifiableMap(roleIndex), Collections.unmodifiableMap(permissionIndex), grants);
+    }
+
+    public boolean roleHasPermission(String roleName, String permissionName) {
+        Integer permission = permissionIndex.get(normalize(permissionName));
+        if (permission == null) return false;
+        Integer role = roleIndex.get(normalize(roleName));
+        return role != null && grants[role].get(permission);
+    }
+
+    public int roleCount() { return roleIndex.size(); }
+    public int permissionCount() { return permissionIndex.size(); }
+
+    static String normalize(String name) {
+        if (name == null) return "";
+        String trimmed = name.trim().toUpperCase();
+        return trimmed.startsWith("ROLE_") ? trimmed.substring(5) : trimmed;
+    }
+}
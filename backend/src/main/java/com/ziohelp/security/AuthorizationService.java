@@ -0,0 +1,116 @@
+package com.ziohelp.security;
+
+import com.ziohelp.entity.Permission;
+import com.ziohelp.entity.Role;
+import com.ziohelp.entity.User;
+import com.ziohelp.repository.PermissionRepository;
+import com.ziohelp.repository.RolePermissionRepository;
+import com.ziohelp.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Permission checks against a precompiled {@link AuthorizationMatrix}.
+ *
+ * Usable from method security, e.g.
+ * {@code @PreAuthorize("@authz.hasPermission(authentication, 'TICKET_RESOLVE')")}.
+ * The snapshot is built once the seed data is in place and rebuilt after every
+ * write through RoleController or PermissionController. Other nodes pick such a write
+ * up within authz.matrix.refresh-ms: each poll reads a digest of the three tables and
+ * rebuilds only when it differs from the one the current snapshot was built from.
+ */
+@Component("authz")
+public class AuthorizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationService.class);
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RolePermissionRepository rolePermissionRepository;
+
+    private final AtomicReference<AuthorizationMatrix> matrix = new AtomicReference<>(AuthorizationMatrix.EMPTY);
+
+    // Digest the current snapshot was built from; null until the first build
+    private volatile String version;
+
+    // Runs after ApplicationRunners, so DataInitializationService has seeded permissions
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild if roles, permissions or grants changed since the last build, on any node.
+     */
+    @Scheduled(initialDelayString = "${authz.matrix.refresh-ms:30000}",
+            fixedDelayString = "${authz.matrix.refresh-ms:30000}")
+    public synchronized void refresh() {
+        if (!rolePermissionRepository.findAuthorizationVersion().equals(version)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reload roles, permissions and grants and atomically swap in the new snapshot.
+     */
+    public synchronized void rebuild() {
+        // Read first: a write landing during the build changes the digest again and is picked up next poll
+        String current = rolePermissionRepository.findAuthorizationVersion();
+        Map<Long, String> roles = new HashMap<>();
+        for (Role role : roleRepository.findByIsActiveTrueOrderByName()) {
+            roles.put(role.getId(), role.getName());
+        }
+        Map<Long, String> permissions = new HashMap<>();
+        for (Permission permission : permissionRepository.findByIsActiveTrue()) {
+            permissions.put(permission.getId(), permission.getName());
+        }
+        AuthorizationMatrix snapshot = AuthorizationMatrix.build(
+                roles, permissions, rolePermissionRepository.findAllRoleIdPermissionIdPairs());
+        matrix.set(snapshot);
+        version = current;
+        logger.debug("Authorization matrix rebuilt: {} roles, {} permissions",
+                snapshot.roleCount(), snapshot.permissionCount());
+    }
+
+    public boolean hasPermission(Authentication authentication, String permission) {
+        if (authentication == null || !authentication.isAuthenticated()) return false;
+        AuthorizationMatrix current = matrix.get();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (current.roleHasPermission(authority.getAuthority(), permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasPermission(User user, String permission) {
+        if (user == null) return false;
+        AuthorizationMatrix current = matrix.get();
+        for (GrantedAuthority authority : CustomUserDetailsService.resolveAuthorities(user)) {
+            if (current.roleHasPermission(authority.getAuthority(), permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean roleHasPermission(String role, String permission) {
+        return matrix.get().roleHasPermission(role, permission);
+    }
+}
@@ -2,6 +2,8 @@ package com.ziohelp.security;
 
 import com.ziohelp.entity.User;
 import com.ziohelp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +18,8 @@ import java.util.List;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -23,36 +27,18 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        
+
         // Check if user is approved and active
         if (!user.isApproved()) {
             throw new UsernameNotFoundException("User account is not approved: " + email);
         }
-        
+
         if (!user.isActive()) {
             throw new UsernameNotFoundException("User account is not active: " + email);
         }
-        
-        // PRIORITY FIX: Use the role string field instead of the problematic roles collection
-        // This matches the fix we made in AuthController
-        List<SimpleGrantedAuthority> authorities;
-        
-        if (user.getRole() != null && !user.getRole().trim().isEmpty()) {
-            // Use the role string field which is populated correctly
-            authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().trim().toUpperCase())
-            );
-            System.out.println("Using role from string field for security context: " + user.getRole());
-        } else {
-            // Fallback to roles collection if string field is empty
-            authorities = user.getRoles() != null ? 
-                user.getRoles().stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
-                    .collect(Collectors.toList()) :
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-            System.out.println("Using roles collection fallback for security context");
-        }
-        
+
+        List<SimpleGrantedAuthority> authorities = resolveAuthorities(user);
+
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
                 .password(user.getPassword())
@@ -63,4 +49,27 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .disabled(!user.isActive())
                 .build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Authorities for the security context. Shared with token generation so that
+     * tokens carrying embedded authorities match what a DB lookup would produce.
+     */
+    public static List<SimpleGrantedAuthority> resolveAuthorities(User user) {
+        // PRIORITY FIX: Use the role string field instead of the problematic roles collection
+        // This matches the fix we made in AuthController
+        if (user.getRole() != null && !user.getRole().trim().isEmpty()) {
+            // Use the role string field which is populated correctly
+            logger.debug("Using role from string field for security context: {}", user.getRole());
+            return Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + user.getRole().trim().toUpperCase())
+            );
+        }
+        // Fallback to roles collection if string field is empty
+        logger.debug("Using roles collection fallback for security context");
+        return user.getRoles() != null ?
+            user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
+                .collect(Collectors.toList()) :
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+    }
+}
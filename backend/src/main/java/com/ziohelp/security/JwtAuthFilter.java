@@ -1,10 +1,12 @@
 package com.ziohelp.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,26 +25,46 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    // When enabled, tokens with embedded authorities are trusted without loading the user row
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String token = getJwtFromRequest(request);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsernameFromToken(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+        Claims claims = token != null ? jwtTokenProvider.verifyToken(token) : null;
+
+        if (claims != null) {
+            UserDetails userDetails = resolvePrincipal(claims);
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal && JwtTokenProvider.hasEmbeddedPrincipal(claims)) {
+            JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+            // Revoked (role change, deactivated) tokens are left unauthenticated
+            return tokenVersionCache.isCurrent(principal.getUsername(), principal.getTokenVersion()) ? principal : null;
+        }
+        // Legacy tokens without embedded claims still go through the DB lookup
+        return customUserDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -50,4 +72,4 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         return null;
     }
-} 
\ No newline at end of file
+}
@@ -1,21 +1,35 @@
 package com.ziohelp.security;
 
+import com.ziohelp.entity.User;
 import io.jsonwebtoken.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
+    // Claim names used for stateless principal resolution
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ORG_ID = "org";
+    public static final String CLAIM_AUTHORITIES = "auth";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date now = new Date();
@@ -29,6 +43,29 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Generate a token that also carries the authorities, organization and token version
+     * of the user, so the auth filter can build the principal without loading the user.
+     */
+    public String generateToken(Authentication authentication, User user) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
+        return Jwts.builder()
+                .setSubject(authentication.getName())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ORG_ID, user.getOrganizationId())
+                .claim(CLAIM_AUTHORITIES, authorities)
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .compact();
+    }
+
     public String getUsernameFromToken(String token) {
         return Jwts.parser()
                 .setSigningKey(jwtSecret)
@@ -37,6 +74,31 @@ public class JwtTokenProvider {
                 .getSubject();
     }
 
+    public Claims getClaimsFromToken(String token) {
+        return Jwts.parser()
+                .setSigningKey(jwtSecret)
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /**
+     * Verify the token and return its claims in a single parse, or null if the token is invalid.
+     * Verified claims are cached until the token expires.
+     */
+    public Claims verifyToken(String token) {
+        Claims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = getClaimsFromToken(token);
+            verifiedTokenCache.put(token, claims);
+            return claims;
+        } catch (SignatureException | MalformedJwtException | ExpiredJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public boolean validateToken(String token) {
         try {
             Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
@@ -45,4 +107,11 @@ public class JwtTokenProvider {
             return false;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * True when the token was issued with embedded authorities (see {@link #generateToken(Authentication, User)}).
+     */
+    public static boolean hasEmbeddedPrincipal(Claims claims) {
+        return claims.get(CLAIM_AUTHORITIES) != null && claims.get(CLAIM_TOKEN_VERSION) != null;
+    }
+}
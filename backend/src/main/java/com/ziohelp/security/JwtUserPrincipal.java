@@ -0,0 +1,55 @@
+package com.ziohelp.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Principal built straight from verified JWT claims. The username is the user's email,
+ * same as the principal produced by CustomUserDetailsService, so
+ * AuthService.getAuthenticatedUser() keeps working unchanged.
+ */
+public class JwtUserPrincipal extends User {
+
+    private final Long userId;
+    private final Long organizationId;
+    private final int tokenVersion;
+
+    public JwtUserPrincipal(String email, Long userId, Long organizationId, int tokenVersion,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+        this.organizationId = organizationId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        Object rawAuthorities = claims.get(JwtTokenProvider.CLAIM_AUTHORITIES);
+        List<SimpleGrantedAuthority> authorities = rawAuthorities instanceof List
+                ? ((List<?>) rawAuthorities).stream()
+                    .map(a -> new SimpleGrantedAuthority(String.valueOf(a)))
+                    .collect(Collectors.toList())
+                : Collections.emptyList();
+
+        return new JwtUserPrincipal(
+                claims.getSubject(),
+                toLong(claims.get(JwtTokenProvider.CLAIM_USER_ID)),
+                toLong(claims.get(JwtTokenProvider.CLAIM_ORG_ID)),
+                toLong(claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION)).intValue(),
+                authorities);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    public Long getUserId() { return userId; }
+    public Long getOrganizationId() { return organizationId; }
+    public int getTokenVersion() { return tokenVersion; }
+}
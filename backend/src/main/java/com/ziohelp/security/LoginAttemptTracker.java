@@ -0,0 +1,196 @@
+package com.ziohelp.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory failed-login tracking with sliding-window lockout.
+ *
+ * Attempts are keyed by user id when the identifier matched a user, so failures through the
+ * email and the username of one account count together, and otherwise by the normalized
+ * identifier. Keys are spread over independent stripes; each key keeps the timestamps of its last {@code max-attempts} failures, and
+ * that many failures inside {@code window-seconds} lock the key for
+ * {@code lockout-seconds}. Changes for known users are written back to
+ * login_attempts/account_locked/locked_until by a periodic flush in one JDBC batch,
+ * so a burst of bad passwords never touches the user table on the request path.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    private static final int STRIPES = 16;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final long lockoutMillis;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, Attempts>[] stripes = new ConcurrentHashMap[STRIPES];
+
+    // Latest state per user id waiting to be flushed
+    private final ConcurrentHashMap<Long, PendingState> dirty = new ConcurrentHashMap<>();
+
+    public LoginAttemptTracker(@Value("${security.login.max-attempts:5}") int maxAttempts,
+                               @Value("${security.login.window-seconds:900}") long windowSeconds,
+                               @Value("${security.login.lockout-seconds:900}") long lockoutSeconds) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.lockoutMillis = TimeUnit.SECONDS.toMillis(lockoutSeconds);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Milliseconds until the user (or, for no user, the identifier) is unlocked, or 0 if it is not locked.
+     */
+    public long lockedForMillis(String identifier, Long userId) {
+        String key = keyOf(identifier, userId);
+        Attempts attempts = stripeFor(key).get(key);
+        if (attempts == null) return 0;
+        synchronized (attempts) {
+            return Math.max(0, attempts.lockedUntil - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Record a failed login. {@code userId} is null when the identifier matched no user;
+     * such keys are still throttled but never persisted.
+     *
+     * @return true if this failure locked the identifier
+     */
+    public boolean recordFailure(String identifier, Long userId) {
+        String key = keyOf(identifier, userId);
+        long now = System.currentTimeMillis();
+        Attempts attempts = stripeFor(key).computeIfAbsent(key, k -> new Attempts(maxAttempts));
+        boolean locked;
+        int count;
+        long lockedUntil;
+        synchronized (attempts) {
+            attempts.failures[attempts.next] = now;
+            attempts.next = (attempts.next + 1) % maxAttempts;
+            count = attempts.countSince(now - windowMillis);
+            locked = count >= maxAttempts && attempts.lockedUntil <= now;
+            if (locked) {
+                attempts.lockedUntil = now + lockoutMillis;
+            }
+            lockedUntil = attempts.lockedUntil;
+        }
+        if (userId != null) {
+            dirty.put(userId, new PendingState(count, lockedUntil > now, lockedUntil > now ? lockedUntil : 0));
+        }
+        return locked;
+    }
+
+    /**
+     * Clear failures after a successful login; only queues a write if there was state to clear,
+     * in memory or (per {@code persistedFailures}) on the user row.
+     */
+    public void recordSuccess(String identifier, Long userId, boolean persistedFailures) {
+        String key = keyOf(identifier, userId);
+        Attempts removed = stripeFor(key).remove(key);
+        if ((removed != null || persistedFailures) && userId != null) {
+            dirty.put(userId, new PendingState(0, false, 0));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.flush-interval-ms:5000}")
+    public void flush() {
+        if (!dirty.isEmpty()) {
+            List<Object[]> batch = new ArrayList<>();
+            for (Map.Entry<Long, PendingState> entry : dirty.entrySet()) {
+                // Only remove the exact state we are writing; a newer one stays for the next flush
+                if (dirty.remove(entry.getKey(), entry.getValue())) {
+                    PendingState state = entry.getValue();
+                    batch.add(new Object[] {
+                            state.attempts,
+                            state.locked,
+                            state.lockedUntil > 0 ? new Timestamp(state.lockedUntil) : null,
+                            entry.getKey()
+                    });
+                }
+            }
+            try {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE \"user\" SET login_attempts = ?, account_locked = ?, locked_until = ? WHERE id = ?", batch);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to flush {} login attempt states", batch.size(), e);
+            }
+        }
+        evictIdle(System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void evictIdle(long now) {
+        long cutoff = now - windowMillis;
+        for (ConcurrentHashMap<String, Attempts> stripe : stripes) {
+            stripe.values().removeIf(attempts -> {
+                synchronized (attempts) {
+                    return attempts.lockedUntil <= now && attempts.countSince(cutoff) == 0;
+                }
+            });
+        }
+    }
+
+    private ConcurrentHashMap<String, Attempts> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String keyOf(String identifier, Long userId) {
+        if (userId != null) return "user:" + userId;
+        return "login:" + (identifier == null ? "" : identifier.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static final class Attempts {
+        final long[] failures;
+        int next;
+        long lockedUntil;
+
+        Attempts(int size) {
+            this.failures = new long[size];
+        }
+
+        int countSince(long since) {
+            int count = 0;
+            for (long failure : failures) {
+                if (failure > since) count++;
+            }
+            return count;
+        }
+    }
+
+    private static final class PendingState {
+        final int attempts;
+        final boolean locked;
+        final long lockedUntil;
+
+        PendingState(int attempts, boolean locked, long lockedUntil) {
+            this.attempts = attempts;
+            this.locked = locked;
+            this.lockedUntil = lockedUntil;
+        }
+    }
+}
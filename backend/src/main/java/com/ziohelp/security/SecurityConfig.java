@@ -44,6 +44,10 @@ public class SecurityConfig {
                     "/swagger-resources/**",
                     "/webjars/**"
                 ).permitAll()
+                // Operational endpoints (sqlstats, accesslog, searchindex) read internals and reset or
+                // rebuild state, so only health is open to every authenticated user
+                .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .httpBasic(AbstractHttpConfigurer::disable);
@@ -0,0 +1,99 @@
+package com.ziohelp.security;
+
+import com.ziohelp.entity.User;
+import com.ziohelp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU cache of the current token version per user email.
+ *
+ * Tokens carry the version they were issued with; bumping the version (role change,
+ * deactivation, rejection) makes every older token for that user fail the check in
+ * JwtAuthFilter. A miss costs one scalar query, after which the user is served from memory
+ * for jwt.token-version-cache.ttl-ms. The node that revokes drops its entry once the new
+ * version is committed; other nodes see it when their entry expires, so a revoked token
+ * keeps working elsewhere for at most the TTL.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final Map<String, Entry> versions;
+    private final long ttlNanos;
+
+    private record Entry(int version, long loadedAtNanos) {
+    }
+
+    @Autowired
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${jwt.token-version-cache.max-size:10000}") int maxSize,
+                             @Value("${jwt.token-version-cache.ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.versions = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Returns true when the given version is the user's current one. Unknown users are rejected.
+     */
+    public boolean isCurrent(String email, int tokenVersion) {
+        Integer current = currentVersion(email);
+        return current != null && current == tokenVersion;
+    }
+
+    public Integer currentVersion(String email) {
+        if (email == null) return null;
+        String key = email.toLowerCase();
+        Entry cached = versions.get(key);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < ttlNanos) return cached.version();
+        Integer loaded = userRepository.findTokenVersionByEmail(key).orElse(null);
+        if (loaded != null) {
+            versions.put(key, new Entry(loaded, System.nanoTime()));
+        } else {
+            versions.remove(key);
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidate all tokens issued to this user. Call before saving the user, in the saving
+     * transaction: the cached version is dropped after commit, so a rollback leaves it intact.
+     */
+    public void revoke(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        evictAfterCommit(user.getEmail());
+    }
+
+    /** Drop the cached version; inside a transaction this happens after commit. */
+    public void evictAfterCommit(String email) {
+        if (email == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        } else {
+            evict(email);
+        }
+    }
+
+    public void evict(String email) {
+        if (email != null) versions.remove(email.toLowerCase());
+    }
+}
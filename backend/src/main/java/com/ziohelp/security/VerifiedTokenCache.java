@@ -0,0 +1,70 @@
+package com.ziohelp.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of already verified JWT claims, keyed by a SHA-256 digest of the raw token.
+ *
+ * Clients polling the same endpoints send the same token thousands of times; after the first
+ * signature check the claims are served from here until the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<String, Claims> entries;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-token-cache.max-size:5000}") int maxSize) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Claims>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Returns cached claims for the token, or null if absent or expired.
+     */
+    public Claims get(String token) {
+        String key = digest(token);
+        Claims claims = entries.get(key);
+        if (claims == null) return null;
+        if (claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return claims;
+    }
+
+    public void put(String token, Claims claims) {
+        entries.put(digest(token), claims);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
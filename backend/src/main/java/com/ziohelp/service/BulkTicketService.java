@@ -0,0 +1,277 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.BulkTicketUpdateRequest;
+import com.ziohelp.dto.BulkTicketUpdateResponse;
+import com.ziohelp.entity.User;
+import com.ziohelp.exception.ResourceNotFoundException;
+import com.ziohelp.repository.TicketRepository;
+import com.ziohelp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies one change set (status, priority, category, assignee) to many tickets in a single
+ * transaction: one read of the current values, then one JDBC batch each for the ticket
+ * updates, the history rows, the audit rows and the event log entries, instead of a
+ * load/save/log round trip per ticket. The BULK_UPDATED broadcast goes through the outbox
+ * with the change.
+ * Each ticket update is conditional on the version read, and status changes must be allowed by
+ * {@link TicketStatusMachine}; tickets failing either come back CONFLICT.
+ */
+@Service
+public class BulkTicketService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String HISTORY_SQL =
+            "INSERT INTO ticket_history (action, detail, changed_by, timestamp, ticket_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String AUDIT_SQL =
+            "INSERT INTO audit_log (user_email, action, details, timestamp, organization_id) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TicketEventLog ticketEventLog;
+
+    @Autowired
+    private TicketOutbox ticketOutbox;
+
+    // Upper bound on ticket ids accepted per bulk request
+    @Value("${tickets.bulk.max-ids:500}")
+    private int maxIds;
+
+    /**
+     * Tenant admins can only change tickets of their own organization; others come back FORBIDDEN.
+     *
+     * @throws IllegalArgumentException if no ids or no changes are given, or too many ids
+     * @throws ResourceNotFoundException if the assignee does not exist
+     */
+    @Transactional
+    public BulkTicketUpdateResponse apply(BulkTicketUpdateRequest request, User actor) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(
+                request.getTicketIds() == null ? List.of() : request.getTicketIds()));
+        ids.removeIf(Objects::isNull);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Ticket IDs are required");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " tickets can be updated at once");
+        }
+        String status = upper(request.getStatus());
+        if (status != null && !TicketStatusMachine.isKnown(status)) {
+            throw new IllegalArgumentException("Unknown ticket status: " + request.getStatus());
+        }
+        String priority = upper(request.getPriority());
+        String category = trimToNull(request.getCategory());
+        User assignee = null;
+        if (request.getAssigneeId() != null) {
+            assignee = userRepository.findById(request.getAssigneeId())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getAssigneeId()));
+        }
+        if (status == null && priority == null && category == null && assignee == null) {
+            throw new IllegalArgumentException("No changes requested");
+        }
+        Long scopeOrgId = isAdmin(actor) ? null : actor.getOrganizationId();
+
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : ticketRepository.findBulkUpdateRowsByIdIn(ids)) {
+            current.put((Long) row[0], row);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, BulkTicketUpdateResponse.Result> results = new HashMap<>();
+        List<Long> changedIds = new ArrayList<>();
+        List<Object[]> updateArgs = new ArrayList<>();
+        Map<Long, List<Object[]>> historyArgs = new HashMap<>();
+        Map<Long, Object[]> auditArgs = new HashMap<>();
+        for (Long id : ids) {
+            Object[] row = current.get(id);
+            if (row == null) {
+                results.put(id, new BulkTicketUpdateResponse.Result(id, "NOT_FOUND", null));
+                continue;
+            }
+            Long orgId = (Long) row[5];
+            if (scopeOrgId != null && !scopeOrgId.equals(orgId)) {
+                results.put(id, new BulkTicketUpdateResponse.Result(id, "FORBIDDEN", null));
+                continue;
+            }
+            String fromStatus = (String) row[1];
+            if (status != null && !status.equals(fromStatus) && !TicketStatusMachine.canTransition(fromStatus, status)) {
+                results.put(id, new BulkTicketUpdateResponse.Result(id, "CONFLICT",
+                        "status: " + fromStatus + " -> " + status + " is not allowed"));
+                continue;
+            }
+            if (assignee != null && !assignee.getId().equals(row[4])
+                    && !TicketStatusMachine.ASSIGNABLE.contains(status != null ? status : fromStatus)) {
+                results.put(id, new BulkTicketUpdateResponse.Result(id, "CONFLICT", "cannot assign a " + fromStatus + " ticket"));
+                continue;
+            }
+            List<String[]> changes = new ArrayList<>();
+            diff(changes, "STATUS_CHANGE", "status", (String) row[1], status);
+            diff(changes, "PRIORITY_CHANGE", "priority", (String) row[2], priority);
+            diff(changes, "CATEGORY_CHANGE", "category", (String) row[3], category);
+            if (assignee != null && !assignee.getId().equals(row[4])) {
+                changes.add(new String[]{"ASSIGNMENT", "assignee: " + (row[4] == null ? "unassigned" : "user " + row[4])
+                        + " -> " + assignee.getFullName() + " (" + assignee.getEmail() + ")"});
+            }
+            if (changes.isEmpty()) {
+                results.put(id, new BulkTicketUpdateResponse.Result(id, "UNCHANGED", null));
+                continue;
+            }
+            String detail = String.join("; ", changes.stream().map(c -> c[1]).toList());
+            List<Object[]> history = new ArrayList<>(changes.size());
+            for (String[] change : changes) {
+                history.add(new Object[]{change[0], truncate("Bulk update: " + change[1]), actor.getEmail(), now, id});
+            }
+            changedIds.add(id);
+            updateArgs.add(updateArgs(id, (Long) row[7], now, status, priority, category, assignee));
+            historyArgs.put(id, history);
+            auditArgs.put(id, new Object[]{actor.getEmail(), "TICKET_BULK_UPDATE", truncate("Ticket " + id + ": " + detail), now, orgId});
+            results.put(id, new BulkTicketUpdateResponse.Result(id, "UPDATED", detail));
+        }
+
+        if (!changedIds.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(updateSql(status, priority, category, assignee), updateArgs);
+            List<Object[]> historyBatch = new ArrayList<>();
+            List<Object[]> auditBatch = new ArrayList<>();
+            List<TicketEventLog.Event> events = new ArrayList<>();
+            for (int i = 0; i < changedIds.size(); i++) {
+                Long id = changedIds.get(i);
+                // Changed or deleted since the read; drivers may report SUCCESS_NO_INFO (-2) instead of 1
+                if (i < counts.length && counts[i] == 0) {
+                    results.put(id, new BulkTicketUpdateResponse.Result(id, "CONFLICT", "modified or deleted concurrently"));
+                    continue;
+                }
+                historyBatch.addAll(historyArgs.get(id));
+                auditBatch.add(auditArgs.get(id));
+                Object[] row = current.get(id);
+                eventPublisher.publishEvent(TicketChangedEvent.transitioned(id,
+                        new TicketChangedEvent.State((Long) row[5], (Long) row[6], (String) row[1], (String) row[2],
+                                (String) row[3], (Long) row[4]),
+                        new TicketChangedEvent.State((Long) row[5], (Long) row[6],
+                                status != null ? status : (String) row[1], priority != null ? priority : (String) row[2],
+                                category != null ? category : (String) row[3], assignee != null ? assignee.getId() : (Long) row[4])));
+                addEvents(events, id, row, status, priority, category, assignee, actor.getEmail());
+            }
+            if (!historyBatch.isEmpty()) {
+                jdbcTemplate.batchUpdate(HISTORY_SQL, historyBatch);
+                jdbcTemplate.batchUpdate(AUDIT_SQL, auditBatch);
+                ticketEventLog.appendAll(events);
+            }
+        }
+
+        List<BulkTicketUpdateResponse.Result> ordered = new ArrayList<>(ids.size());
+        List<Long> updatedIds = new ArrayList<>();
+        for (Long id : ids) {
+            BulkTicketUpdateResponse.Result result = results.get(id);
+            if ("UPDATED".equals(result.getOutcome())) updatedIds.add(id);
+            ordered.add(result);
+        }
+        if (!updatedIds.isEmpty()) {
+            ticketOutbox.record(ticketOutbox.effectsOfMany().bulkTicketEvent("BULK_UPDATED", updatedIds, requestedChanges(request)));
+        }
+        return BulkTicketUpdateResponse.builder()
+                .requested(ids.size())
+                .updated(updatedIds.size())
+                .results(ordered)
+                .build();
+    }
+
+    private static Map<String, Object> requestedChanges(BulkTicketUpdateRequest request) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (request.getStatus() != null) changes.put("status", request.getStatus());
+        if (request.getPriority() != null) changes.put("priority", request.getPriority());
+        if (request.getCategory() != null) changes.put("category", request.getCategory());
+        if (request.getAssigneeId() != null) changes.put("assigneeId", request.getAssigneeId());
+        return changes;
+    }
+
+    private static String updateSql(String status, String priority, String category, User assignee) {
+        StringBuilder sql = new StringBuilder("UPDATE ticket SET version = version + 1, updated_at = ?");
+        if (status != null) sql.append(", status = ?");
+        if (priority != null) sql.append(", priority = ?");
+        if (category != null) sql.append(", category = ?");
+        if (assignee != null) sql.append(", assigned_to_id = ?");
+        return sql.append(" WHERE id = ? AND version = ?").toString();
+    }
+
+    // Parameter order must match updateSql
+    private static Object[] updateArgs(Long id, Long version, Timestamp now, String status, String priority, String category, User assignee) {
+        List<Object> args = new ArrayList<>(7);
+        args.add(now);
+        if (status != null) args.add(status);
+        if (priority != null) args.add(priority);
+        if (category != null) args.add(category);
+        if (assignee != null) args.add(assignee.getId());
+        args.add(id);
+        args.add(version);
+        return args.toArray();
+    }
+
+    private static void addEvents(List<TicketEventLog.Event> events, Long id, Object[] row, String status, String priority,
+                                  String category, User assignee, String actor) {
+        if (status != null && !status.equals(row[1])) {
+            events.add(new TicketEventLog.Event(id, TicketEventLog.STATUS_CHANGED, actor, (String) row[1], status, "Bulk update"));
+        }
+        if (priority != null && !priority.equals(row[2])) {
+            events.add(new TicketEventLog.Event(id, TicketEventLog.UPDATED, actor, (String) row[2], priority, "priority"));
+        }
+        if (category != null && !category.equals(row[3])) {
+            events.add(new TicketEventLog.Event(id, TicketEventLog.UPDATED, actor, (String) row[3], category, "category"));
+        }
+        if (assignee != null && !assignee.getId().equals(row[4])) {
+            events.add(new TicketEventLog.Event(id, TicketEventLog.ASSIGNED, actor, row[4] == null ? null : row[4].toString(),
+                    assignee.getId().toString(), assignee.getFullName() + " (" + assignee.getEmail() + ")"));
+        }
+    }
+
+    private static void diff(List<String[]> changes, String action, String field, String from, String to) {
+        if (to != null && !to.equals(from)) {
+            changes.add(new String[]{action, field + ": " + (from == null ? "none" : from) + " -> " + to});
+        }
+    }
+
+    private static boolean isAdmin(User user) {
+        return user.getRoles() != null && user.getRoles().stream().anyMatch(role -> "ADMIN".equals(role.getName()));
+    }
+
+    private static String upper(String value) {
+        String trimmed = trimToNull(value);
+        return trimmed == null ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+}
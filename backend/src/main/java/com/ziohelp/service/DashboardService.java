@@ -11,9 +11,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,6 +30,13 @@ public class DashboardService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TicketCounterStore ticketCounterStore;
+
+    // Date-range reads that may reach archived tickets go through the archive service
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
     public Map<String, Object> getDashboardStats(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> stats = new HashMap<>();
         
@@ -38,13 +49,13 @@ public class DashboardService {
         }
 
         // Ticket statistics
-        long totalTickets = ticketRepository.countByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
-        long openTickets = ticketRepository.countByStatusAndCreatedAtBetween("OPEN", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
-        long resolvedTickets = ticketRepository.countByStatusAndCreatedAtBetween("RESOLVED", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
-        long closedTickets = ticketRepository.countByStatusAndCreatedAtBetween("CLOSED", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        long totalTickets = ticketArchiveService.countCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        long openTickets = ticketArchiveService.countByStatusCreatedBetween("OPEN", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        long resolvedTickets = ticketArchiveService.countByStatusCreatedBetween("RESOLVED", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        long closedTickets = ticketArchiveService.countByStatusCreatedBetween("CLOSED", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
 
         // Priority distribution
-        Map<String, Long> priorityStats = ticketRepository.findByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+        Map<String, Long> priorityStats = ticketArchiveService.findCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
                 .stream()
                 .collect(Collectors.groupingBy(Ticket::getPriority, Collectors.counting()));
 
@@ -69,41 +80,67 @@ public class DashboardService {
         return stats;
     }
 
-    public Map<String, Object> getTicketTrends(LocalDate startDate, LocalDate endDate, int days) {
+    /**
+     * All-time ticket totals by status and priority, served from the in-memory counters.
+     */
+    public Map<String, Object> getTicketCounts(Long organizationId, Long productId) {
+        if (!ticketCounterStore.isReady()) {
+            ticketCounterStore.reconcile();
+        }
+        return ticketCounterStore.breakdown(organizationId, productId);
+    }
+
+    /**
+     * Tickets created and resolved per day, week (ISO, from Monday) or month of the zone, each
+     * series from one grouped query; buckets without tickets are filled with zeros. Daily
+     * trends also carry weeklyTrends rolled up from the same buckets.
+     *
+     * @param timezone zone id for bucketing, server zone if null
+     * @throws IllegalArgumentException for an unknown granularity or time zone
+     */
+    public Map<String, Object> getTicketTrends(LocalDate startDate, LocalDate endDate, int days, String granularity, String timezone) {
         Map<String, Object> trends = new HashMap<>();
-        
+        TrendGranularity unit = TrendGranularity.parse(granularity);
+        ZoneId zone;
+        try {
+            zone = timezone == null || timezone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timezone.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timezone);
+        }
+
         if (startDate == null) {
-            startDate = LocalDate.now().minusDays(days);
+            startDate = LocalDate.now(zone).minusDays(days);
         }
         if (endDate == null) {
-            endDate = LocalDate.now();
+            endDate = LocalDate.now(zone);
         }
 
-        // Daily ticket creation trends
-        List<Map<String, Object>> dailyTrends = new ArrayList<>();
-        LocalDate currentDate = startDate;
-        
-        while (!currentDate.isAfter(endDate)) {
-            LocalDateTime startOfDay = currentDate.atStartOfDay();
-            LocalDateTime endOfDay = currentDate.atTime(23, 59, 59);
-            
-            long created = ticketRepository.countByCreatedAtBetween(startOfDay, endOfDay);
-            long resolved = ticketRepository.countByStatusAndUpdatedAtBetween("RESOLVED", startOfDay, endOfDay);
-            
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("date", currentDate.toString());
-            dayData.put("created", created);
-            dayData.put("resolved", resolved);
-            dailyTrends.add(dayData);
-            
-            currentDate = currentDate.plusDays(1);
+        // Range in the zone, as server-local timestamps the way they are stored; end exclusive
+        LocalDateTime from = startDate.atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        String sqlUnit = unit.name().toLowerCase(Locale.ROOT);
+        Map<LocalDate, Long> created = ticketArchiveService.countCreatedByBucket(sqlUnit, zone, from, to);
+        Map<LocalDate, Long> resolved = ticketArchiveService.countByStatusUpdatedByBucket("RESOLVED", sqlUnit, zone, from, to);
+
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (LocalDate bucket = unit.truncate(startDate); !bucket.isAfter(endDate); bucket = unit.next(bucket)) {
+            LocalDate last = unit.next(bucket).minusDays(1);
+            Map<String, Object> bucketData = new HashMap<>();
+            bucketData.put("date", bucket.toString());
+            bucketData.put("from", (bucket.isBefore(startDate) ? startDate : bucket).toString());
+            bucketData.put("to", (last.isAfter(endDate) ? endDate : last).toString());
+            bucketData.put("created", created.getOrDefault(bucket, 0L));
+            bucketData.put("resolved", resolved.getOrDefault(bucket, 0L));
+            buckets.add(bucketData);
         }
 
-        // Weekly trends
-        List<Map<String, Object>> weeklyTrends = calculateWeeklyTrends(startDate, endDate);
-
-        trends.put("dailyTrends", dailyTrends);
-        trends.put("weeklyTrends", weeklyTrends);
+        trends.put("granularity", sqlUnit);
+        trends.put("timezone", zone.getId());
+        trends.put("trends", buckets);
+        if (unit == TrendGranularity.DAY) {
+            trends.put("dailyTrends", buckets);
+            trends.put("weeklyTrends", rollUpWeeks(buckets));
+        }
         trends.put("totalDays", days);
 
         return trends;
@@ -123,7 +160,7 @@ public class DashboardService {
         long newUsers = userRepository.countByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
         
         // Most active users (by ticket creation)
-        List<Map<String, Object>> topUsers = ticketRepository.findByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+        List<Map<String, Object>> topUsers = ticketArchiveService.findCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
                 .stream()
                 .collect(Collectors.groupingBy(Ticket::getCreatedBy, Collectors.counting()))
                 .entrySet()
@@ -140,7 +177,7 @@ public class DashboardService {
 
         // User engagement metrics
         long totalActiveUsers = userRepository.countByActiveTrue();
-        long usersWithTickets = ticketRepository.findByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+        long usersWithTickets = ticketArchiveService.findCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
                 .stream()
                 .map(Ticket::getCreatedBy)
                 .distinct()
@@ -166,7 +203,7 @@ public class DashboardService {
         }
 
         // Product-wise ticket distribution
-        Map<String, Long> productTicketCounts = ticketRepository.findByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+        Map<String, Long> productTicketCounts = ticketArchiveService.findCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
                 .stream()
                 .collect(Collectors.groupingBy(ticket -> ticket.getOrganizationId().toString(), Collectors.counting()));
 
@@ -178,7 +215,7 @@ public class DashboardService {
             productData.put("totalTickets", entry.getValue());
             
             // Calculate resolution rate for this product
-            long resolvedTickets = ticketRepository.countByOrganizationIdAndStatusAndCreatedAtBetween(
+            long resolvedTickets = ticketArchiveService.countByOrganizationStatusCreatedBetween(
                 Long.parseLong(entry.getKey()), "RESOLVED", startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
             productData.put("resolvedTickets", resolvedTickets);
             productData.put("resolutionRate", entry.getValue() > 0 ? (double) resolvedTickets / entry.getValue() * 100 : 0);
@@ -203,7 +240,7 @@ public class DashboardService {
         }
 
         // SLA compliance calculation
-        List<Ticket> tickets = ticketRepository.findByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        List<Ticket> tickets = ticketArchiveService.findCreatedBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
         
         long totalTickets = tickets.size();
         long slaCompliantTickets = 0;
@@ -272,7 +309,7 @@ public class DashboardService {
 
     // Helper methods
     private double calculateAverageResolutionTime(LocalDate startDate, LocalDate endDate) {
-        List<Ticket> resolvedTickets = ticketRepository.findByStatusInAndCreatedAtBetween(
+        List<Ticket> resolvedTickets = ticketArchiveService.findByStatusInCreatedBetween(
             Arrays.asList("RESOLVED", "CLOSED"), startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
         
         if (resolvedTickets.isEmpty()) {
@@ -286,32 +323,54 @@ public class DashboardService {
         return totalHours / resolvedTickets.size();
     }
 
-    private List<Map<String, Object>> calculateWeeklyTrends(LocalDate startDate, LocalDate endDate) {
+    // ISO weeks (clipped to the range) summed from daily buckets
+    private List<Map<String, Object>> rollUpWeeks(List<Map<String, Object>> dailyTrends) {
         List<Map<String, Object>> weeklyTrends = new ArrayList<>();
-        LocalDate currentWeek = startDate;
-        
-        while (!currentWeek.isAfter(endDate)) {
-            LocalDate weekEnd = currentWeek.plusDays(6);
-            if (weekEnd.isAfter(endDate)) {
-                weekEnd = endDate;
+        Map<String, Object> weekData = null;
+        for (Map<String, Object> day : dailyTrends) {
+            LocalDate date = LocalDate.parse((String) day.get("date"));
+            if (weekData == null || date.getDayOfWeek() == DayOfWeek.MONDAY) {
+                weekData = new HashMap<>();
+                weekData.put("weekStart", date.toString());
+                weekData.put("created", 0L);
+                weekData.put("resolved", 0L);
+                weeklyTrends.add(weekData);
             }
-            
-            long created = ticketRepository.countByCreatedAtBetween(currentWeek.atStartOfDay(), weekEnd.atTime(23, 59, 59));
-            long resolved = ticketRepository.countByStatusAndUpdatedAtBetween("RESOLVED", currentWeek.atStartOfDay(), weekEnd.atTime(23, 59, 59));
-            
-            Map<String, Object> weekData = new HashMap<>();
-            weekData.put("weekStart", currentWeek.toString());
-            weekData.put("weekEnd", weekEnd.toString());
-            weekData.put("created", created);
-            weekData.put("resolved", resolved);
-            weeklyTrends.add(weekData);
-            
-            currentWeek = currentWeek.plusWeeks(1);
+            weekData.put("weekEnd", date.toString());
+            weekData.put("created", (Long) weekData.get("created") + (Long) day.get("created"));
+            weekData.put("resolved", (Long) weekData.get("resolved") + (Long) day.get("resolved"));
         }
-        
         return weeklyTrends;
     }
 
+    private enum TrendGranularity {
+        DAY, WEEK, MONTH;
+
+        static TrendGranularity parse(String value) {
+            try {
+                return value == null ? DAY : valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Granularity must be day, week or month");
+            }
+        }
+
+        LocalDate truncate(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate bucket) {
+            return switch (this) {
+                case DAY -> bucket.plusDays(1);
+                case WEEK -> bucket.plusWeeks(1);
+                case MONTH -> bucket.plusMonths(1);
+            };
+        }
+    }
+
     private long getSLAHours(String priority) {
         switch (priority.toUpperCase()) {
             case "HIGH": return 24;
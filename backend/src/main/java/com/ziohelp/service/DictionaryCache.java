@@ -0,0 +1,187 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Faq;
+import com.ziohelp.entity.KnowledgeBaseArticle;
+import com.ziohelp.repository.FaqRepository;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of the per-product ticket status/category and FAQ/article category
+ * dictionaries behind product dashboards and filter dropdowns, replacing a SELECT DISTINCT
+ * per request.
+ *
+ * A value written through FaqService or KnowledgeBaseService, or carried by a
+ * {@link TicketChangedEvent}, is added to a cached dictionary after commit. Values that
+ * disappear (last ticket moved off a status, category renamed) are only dropped when the
+ * entry expires after dictionary.cache.ttl-seconds and is reloaded. Hits and misses are counted in
+ * ziohelp.dictionary.cache.
+ */
+@Service
+public class DictionaryCache {
+
+    public enum Dictionary {
+        TICKET_STATUS, TICKET_CATEGORY, FAQ_CATEGORY, ARTICLE_CATEGORY
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private FaqRepository faqRepository;
+
+    @Autowired
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dictionary.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Dictionary, Counter> hits = new EnumMap<>(Dictionary.class);
+    private final Map<Dictionary, Counter> misses = new EnumMap<>(Dictionary.class);
+
+    // productId null = across all products (FAQ categories only)
+    private record Key(Dictionary dictionary, Long productId) {
+    }
+
+    private record Entry(List<String> values, long loadedAtNanos) {
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        for (Dictionary dictionary : Dictionary.values()) {
+            String tag = dictionary.name().toLowerCase(Locale.ROOT);
+            hits.put(dictionary, Counter.builder("ziohelp.dictionary.cache")
+                    .tag("dictionary", tag).tag("result", "hit").register(meterRegistry));
+            misses.put(dictionary, Counter.builder("ziohelp.dictionary.cache")
+                    .tag("dictionary", tag).tag("result", "miss").register(meterRegistry));
+        }
+    }
+
+    public List<String> ticketStatuses(Long productId) {
+        return get(Dictionary.TICKET_STATUS, productId);
+    }
+
+    public List<String> ticketCategories(Long productId) {
+        return get(Dictionary.TICKET_CATEGORY, productId);
+    }
+
+    public List<String> faqCategories(Long productId) {
+        return get(Dictionary.FAQ_CATEGORY, productId);
+    }
+
+    public List<String> allFaqCategories() {
+        return get(Dictionary.FAQ_CATEGORY, null);
+    }
+
+    public List<String> articleCategories(Long productId) {
+        return get(Dictionary.ARTICLE_CATEGORY, productId);
+    }
+
+    /**
+     * Record that {@code value} is now in use for the product. Only entries already cached are
+     * touched; inside a transaction the update happens after commit.
+     */
+    public void onValueWritten(Dictionary dictionary, Long productId, String value) {
+        if (value == null) return;
+        Runnable update = () -> {
+            if (productId != null) add(new Key(dictionary, productId), value);
+            if (dictionary == Dictionary.FAQ_CATEGORY) add(new Key(dictionary, null), value);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /** Status and category of a committed ticket write. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketChangedEvent.State after = event.after();
+        if (after == null || after.productId() == null) return;
+        if (after.status() != null) add(new Key(Dictionary.TICKET_STATUS, after.productId()), after.status());
+        if (after.category() != null) add(new Key(Dictionary.TICKET_CATEGORY, after.productId()), after.category());
+    }
+
+    public void onFaqWritten(Faq faq) {
+        onValueWritten(Dictionary.FAQ_CATEGORY, faq.getProduct() != null ? faq.getProduct().getId() : null, faq.getCategory());
+    }
+
+    public void onArticleWritten(KnowledgeBaseArticle article) {
+        onValueWritten(Dictionary.ARTICLE_CATEGORY,
+                article.getProduct() != null ? article.getProduct().getId() : null, article.getCategory());
+    }
+
+    /** Drop every cached dictionary; the next read of each reloads it. */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private List<String> get(Dictionary dictionary, Long productId) {
+        Key key = new Key(dictionary, productId);
+        Entry entry = entries.get(key);
+        if (entry != null && isFresh(entry)) {
+            hits.get(dictionary).increment();
+            return entry.values();
+        }
+        // compute() lets one caller reload an expired entry while the others wait for it
+        Entry loaded = entries.compute(key, (k, current) -> {
+            if (current != null && isFresh(current)) return current;
+            misses.get(dictionary).increment();
+            return new Entry(Collections.unmodifiableList(new ArrayList<>(load(k))), System.nanoTime());
+        });
+        return loaded.values();
+    }
+
+    private void add(Key key, String value) {
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current.values().contains(value)) return current;
+            List<String> values = new ArrayList<>(current.values());
+            values.add(value);
+            return new Entry(Collections.unmodifiableList(values), current.loadedAtNanos());
+        });
+    }
+
+    private boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.loadedAtNanos() < ttlSeconds * 1_000_000_000L;
+    }
+
+    private List<String> load(Key key) {
+        Long productId = key.productId();
+        return switch (key.dictionary()) {
+            case TICKET_STATUS -> ticketRepository.findDistinctStatusesByProduct_Id(productId);
+            case TICKET_CATEGORY -> ticketRepository.findDistinctCategoriesByProduct_Id(productId);
+            case FAQ_CATEGORY -> productId == null
+                    ? faqRepository.findDistinctCategories()
+                    : faqRepository.findDistinctCategoriesByProduct_Id(productId);
+            case ARTICLE_CATEGORY -> articleRepository.findDistinctCategoriesByProduct_Id(productId);
+        };
+    }
+}
@@ -0,0 +1,327 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Faq;
+import com.ziohelp.repository.FaqRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant index over published FAQs, segmented by product.
+ *
+ * Each segment keeps the vocabulary of its FAQs and a character-trigram index over that
+ * vocabulary. A query token is matched against vocabulary words sharing enough trigrams,
+ * then confirmed with a bounded edit distance (1 edit up to 4 characters, 2 up to 8, 3
+ * beyond), so "pasword" and "recieve" still find their FAQs. Documents are scored by how
+ * closely and how many query tokens match, with question words weighted over answer words.
+ * Kept current by FaqService and the controllers that save FAQs directly.
+ */
+@Component
+public class FaqSearchIndex extends RebuildableIndex<FaqSearchIndex.Doc, FaqSearchIndex.Segment> {
+
+    private static final int QUESTION_WEIGHT = 2;
+    private static final int ANSWER_WEIGHT = 1;
+    private static final double PREFIX_SIMILARITY = 0.8;
+    private static final int MAX_CANDIDATE_WORDS = 200;
+    private static final int CHUNK_SIZE = 500;
+
+    record Doc(String question, String answer) {
+    }
+
+    @Autowired
+    private FaqRepository faqRepository;
+
+    public FaqSearchIndex() {
+        super("FAQ search index", CHUNK_SIZE);
+    }
+
+    /** Index a saved FAQ, or drop it if it is not published. */
+    public void index(Faq faq) {
+        if (faq == null || faq.getId() == null) return;
+        if (!Boolean.TRUE.equals(faq.getIsPublished())) {
+            remove(faq.getId());
+            return;
+        }
+        put(faq.getId(), segmentOf(faq.getProduct() != null ? faq.getProduct().getId() : null),
+                new Doc(faq.getQuestion(), faq.getAnswer()));
+    }
+
+    /**
+     * Published FAQs matching at least one query token within the edit-distance bound, best first.
+     *
+     * @param productId restrict to one product, or null to search all products
+     */
+    public List<SearchHit> search(Long productId, String query, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) return new ArrayList<>();
+        List<Map.Entry<Long, Double>> ranked = rank(collect(productId, segment -> segment.search(tokens)), limit);
+        List<SearchHit> hits = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            hits.add(new SearchHit(entry.getKey(), entry.getValue()));
+        }
+        return hits;
+    }
+
+    @Override
+    public String name() {
+        return "faqs";
+    }
+
+    @Override
+    protected void addStats(Collection<Segment> segments, Map<String, Object> stats) {
+        int words = 0;
+        int trigrams = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                words += segment.wordPostings.size();
+                trigrams += segment.trigramWords.size();
+                for (PostingList postings : segment.wordPostings.values()) {
+                    bytes += postings.sizeInBytes();
+                }
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        stats.put("terms", words);
+        stats.put("trigrams", trigrams);
+        stats.put("postingsBytes", bytes);
+    }
+
+    @Override
+    protected List<Object[]> rowsAfter(Long afterId, int limit) {
+        return faqRepository.findPublishedSearchRowsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    protected Doc documentOf(Object[] row) {
+        return new Doc((String) row[2], (String) row[3]);
+    }
+
+    @Override
+    protected int contentHash(Doc doc) {
+        return Objects.hash(doc.question(), doc.answer());
+    }
+
+    @Override
+    protected Segment newSegment() {
+        return new Segment();
+    }
+
+    /** Largest edit distance accepted for a query token of the given length. */
+    static int maxEdits(int length) {
+        if (length <= 4) return 1;
+        if (length <= 8) return 2;
+        return 3;
+    }
+
+    /** Trigrams of the word padded with one boundary marker on each side; a word of n characters has n trigrams. */
+    static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(word.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance between a and b, or {@code max + 1} as soon as it must exceed max.
+     * Only the diagonal band of width 2*max+1 is computed.
+     */
+    static int boundedEditDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        int big = max + 1;
+        for (int j = 0; j <= m; j++) previous[j] = j <= max ? j : big;
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : big;
+            if (from > 1) current[from - 1] = big;
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = Math.min(value, big);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) current[to + 1] = big;
+            if (rowMin > max) return big;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], big);
+    }
+
+    static final class Segment implements IndexSegment<Doc> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // word -> FAQs containing it, weighted by whether it appears in the question
+        final Map<String, PostingList> wordPostings = new HashMap<>();
+        final Map<String, Set<String>> trigramWords = new HashMap<>();
+        final Map<Long, IndexedDoc> docs = new HashMap<>();
+
+        @Override
+        public void put(long id, Doc doc) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String token : SearchTokenizer.tokenize(doc.answer())) {
+                weights.put(token, ANSWER_WEIGHT);
+            }
+            for (String token : SearchTokenizer.tokenize(doc.question())) {
+                weights.put(token, QUESTION_WEIGHT);
+            }
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    String word = entry.getKey();
+                    PostingList postings = wordPostings.get(word);
+                    if (postings == null) {
+                        postings = new PostingList();
+                        wordPostings.put(word, postings);
+                        for (String gram : trigrams(word)) {
+                            trigramWords.computeIfAbsent(gram, k -> new HashSet<>()).add(word);
+                        }
+                    }
+                    postings.add(id, entry.getValue());
+                }
+                docs.put(id, new IndexedDoc(weights.keySet().toArray(new String[0]), Objects.hash(doc.question(), doc.answer())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean hasContent(long id, int hash) {
+            lock.readLock().lock();
+            try {
+                IndexedDoc doc = docs.get(id);
+                return doc != null && doc.contentHash == hash;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<Long, Double> search(List<String> tokens) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = new HashMap<>();
+                Map<Long, Integer> matchedTokens = new HashMap<>();
+                for (String token : tokens) {
+                    // Best similarity per document for this token
+                    Map<Long, Double> tokenScores = new HashMap<>();
+                    for (Map.Entry<String, Double> match : similarWords(token).entrySet()) {
+                        double similarity = match.getValue();
+                        wordPostings.get(match.getKey()).forEach((docId, weight) ->
+                                tokenScores.merge(docId, similarity * weight, Math::max));
+                    }
+                    for (Map.Entry<Long, Double> entry : tokenScores.entrySet()) {
+                        scores.merge(entry.getKey(), entry.getValue(), Double::sum);
+                        matchedTokens.merge(entry.getKey(), 1, Integer::sum);
+                    }
+                }
+                // Favour FAQs that match more of the query
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    double coverage = (double) matchedTokens.get(entry.getKey()) / tokens.size();
+                    entry.setValue(entry.getValue() * coverage);
+                }
+                return scores;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /** Vocabulary words within the edit bound of the token (or extending it), with a 0..1 similarity. */
+        private Map<String, Double> similarWords(String token) {
+            Map<String, Double> similar = new HashMap<>();
+            if (wordPostings.containsKey(token)) similar.put(token, 1.0);
+
+            int maxEdits = maxEdits(token.length());
+            List<String> grams = trigrams(token);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                Set<String> words = trigramWords.get(gram);
+                if (words == null) continue;
+                for (String word : words) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+            // Each edit destroys at most three trigrams, so fewer shared ones cannot be within the bound
+            int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+            List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+                if (entry.getValue() >= minShared) candidates.add(entry);
+            }
+            if (candidates.size() > MAX_CANDIDATE_WORDS) {
+                candidates.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+                candidates = candidates.subList(0, MAX_CANDIDATE_WORDS);
+            }
+            for (Map.Entry<String, Integer> candidate : candidates) {
+                String word = candidate.getKey();
+                if (word.equals(token)) continue;
+                double similarity = 0;
+                if (token.length() >= 3 && word.startsWith(token)) {
+                    similarity = PREFIX_SIMILARITY;
+                }
+                int distance = boundedEditDistance(token, word, maxEdits);
+                if (distance <= maxEdits) {
+                    similarity = Math.max(similarity, 1.0 - (double) distance / (Math.max(token.length(), word.length()) + 1));
+                }
+                if (similarity > 0) similar.put(word, similarity);
+            }
+            return similar;
+        }
+
+        private void removeLocked(long id) {
+            IndexedDoc doc = docs.remove(id);
+            if (doc == null) return;
+            for (String word : doc.words) {
+                PostingList postings = wordPostings.get(word);
+                if (postings != null && postings.remove(id) && postings.docCount() == 0) {
+                    wordPostings.remove(word);
+                    for (String gram : trigrams(word)) {
+                        Set<String> words = trigramWords.get(gram);
+                        if (words != null && words.remove(word) && words.isEmpty()) {
+                            trigramWords.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class IndexedDoc {
+        final String[] words;
+        final int contentHash;
+
+        IndexedDoc(String[] words, int contentHash) {
+            this.words = words;
+            this.contentHash = contentHash;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.ziohelp.entity.Product;
 import com.ziohelp.repository.FaqRepository;
 import com.ziohelp.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +25,15 @@ public class FaqService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Value("${search.faq.max-candidates:500}")
+    private int maxSearchCandidates;
+
     /**
      * Get all FAQs with pagination
      */
@@ -62,8 +72,13 @@ public class FaqService {
      * Search FAQs by keyword for a specific product
      */
     public Page<Faq> searchFaqsByProduct(Long productId, String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return faqRepository.searchByProduct_IdAndKeyword(productId, keyword, true, pageable);
+        if (!faqSearchIndex.isReady()) {
+            Pageable pageable = PageRequest.of(page, size);
+            return faqRepository.searchByProduct_IdAndKeyword(productId, keyword, true, pageable);
+        }
+        List<SearchHit> hits = faqSearchIndex.search(productId, keyword, maxSearchCandidates);
+        return RankedPages.hydrate(RankedPages.ids(hits), page, size, faqRepository::findAllById,
+                Faq::getId, faq -> Boolean.TRUE.equals(faq.getIsPublished()));
     }
 
     /**
@@ -94,7 +109,10 @@ public class FaqService {
             faq.setIsPublished(true);
         }
         
-        return faqRepository.save(faq);
+        Faq saved = faqRepository.save(faq);
+        faqSearchIndex.index(saved);
+        dictionaryCache.onFaqWritten(saved);
+        return saved;
     }
 
     /**
@@ -118,7 +136,10 @@ public class FaqService {
                 }
             }
             
-            return faqRepository.save(faq);
+            Faq saved = faqRepository.save(faq);
+            faqSearchIndex.index(saved);
+            dictionaryCache.onFaqWritten(saved);
+            return saved;
         } else {
             throw new RuntimeException("FAQ not found with ID: " + id);
         }
@@ -130,6 +151,7 @@ public class FaqService {
     public void deleteFaq(Long id) {
         if (faqRepository.existsById(id)) {
             faqRepository.deleteById(id);
+            faqSearchIndex.remove(id);
         } else {
             throw new RuntimeException("FAQ not found with ID: " + id);
         }
@@ -139,7 +161,7 @@ public class FaqService {
      * Get all categories for a specific product
      */
     public List<String> getCategoriesByProduct(Long productId) {
-        return faqRepository.findDistinctCategoriesByProduct_Id(productId);
+        return dictionaryCache.faqCategories(productId);
     }
 
     /**
@@ -151,7 +173,10 @@ public class FaqService {
             Faq faq = existingFaq.get();
             faq.setIsPublished(!faq.getIsPublished());
             faq.setUpdatedAt(LocalDateTime.now());
-            return faqRepository.save(faq);
+            Faq saved = faqRepository.save(faq);
+            faqSearchIndex.index(saved);
+            dictionaryCache.onFaqWritten(saved);
+            return saved;
         } else {
             throw new RuntimeException("FAQ not found with ID: " + id);
         }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.stream.Collectors;
@@ -34,6 +35,9 @@ public class GeminiService {
     @Autowired
     private FaqRepository faqRepository;
 
+    @Autowired
+    private TicketSimilarityIndex ticketSimilarityIndex;
+
     private final Random random = new Random();
 
     public void initializeModel() {
@@ -61,8 +65,14 @@ public class GeminiService {
         analysis.put("category", "Technical Support");
         analysis.put("priority", "MEDIUM");
         analysis.put("estimatedResolutionTime", "2-4 hours");
-        List<Long> similarTickets = Arrays.asList(1L, 2L, 3L);
-        analysis.put("similarTickets", similarTickets);
+        // Near-duplicates from the MinHash index, most similar first
+        List<TicketSimilarityIndex.Match> matches = ticketRepository.findById(ticketId)
+                .map(ticket -> ticketSimilarityIndex.findSimilar(ticket, 5))
+                .orElse(List.of());
+        Map<Long, Double> similarityScores = new LinkedHashMap<>();
+        matches.forEach(m -> similarityScores.put(m.ticketId(), m.similarity()));
+        analysis.put("similarTickets", new ArrayList<>(similarityScores.keySet()));
+        analysis.put("similarityScores", similarityScores);
         analysis.put("suggestedResponse", "Thank you for your ticket. Our team will investigate this issue.");
         
         return analysis;
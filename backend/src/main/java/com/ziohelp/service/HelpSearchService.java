@@ -0,0 +1,268 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.HelpSearchResponse;
+import com.ziohelp.dto.HelpSearchResult;
+import com.ziohelp.entity.Faq;
+import com.ziohelp.entity.KnowledgeBaseArticle;
+import com.ziohelp.entity.Product;
+import com.ziohelp.repository.FaqRepository;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import com.ziohelp.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Federated public help search: resolves the product once, queries the FAQ and article
+ * indexes in parallel on a small bounded pool, and merges whatever arrives before the
+ * deadline into one ranked list. Scores are max-normalized per source so FAQs and
+ * articles are comparable. A source that is slow, saturated or failing is reported in
+ * the response instead of delaying or failing it.
+ */
+@Service
+public class HelpSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HelpSearchService.class);
+
+    public static final String SOURCE_FAQS = "faqs";
+    public static final String SOURCE_ARTICLES = "articles";
+    private static final String TYPE_FAQ = "faq";
+    private static final String TYPE_ARTICLE = "article";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FaqRepository faqRepository;
+
+    @Autowired
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+
+    @Autowired
+    private KnowledgeBaseSearchIndex articleSearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${help.search.threads:4}")
+    private int threads;
+
+    @Value("${help.search.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${help.search.source-deadline-ms:250}")
+    private long sourceDeadlineMs;
+
+    @Value("${help.search.max-candidates:200}")
+    private int maxCandidates;
+
+    @Value("${search.article.snippet-length:200}")
+    private int snippetLength;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "help-search-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws IllegalArgumentException if page is negative or size is not positive
+     */
+    public HelpSearchResponse search(String domain, String keyword, int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("page must not be negative");
+        if (size < 1) throw new IllegalArgumentException("size must be positive");
+        Map<String, String> sources = new LinkedHashMap<>();
+        Optional<Product> product = productRepository.findByDomain(domain);
+        if (product.isEmpty()) {
+            return page(domain, null, keyword, new ArrayList<>(), page, size, 0, sources);
+        }
+        Long productId = product.get().getId();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sourceDeadlineMs);
+        Future<List<SearchHit>> faqs = submit(SOURCE_FAQS, faqSearchIndex.isReady(),
+                () -> faqSearchIndex.search(productId, keyword, maxCandidates), sources);
+        Future<List<SearchHit>> articles = submit(SOURCE_ARTICLES, articleSearchIndex.isReady(),
+                () -> articleSearchIndex.search(productId, keyword, maxCandidates), sources);
+
+        List<RankedEntry> merged = new ArrayList<>();
+        addNormalized(merged, TYPE_FAQ, await(SOURCE_FAQS, faqs, deadline, sources));
+        addNormalized(merged, TYPE_ARTICLE, await(SOURCE_ARTICLES, articles, deadline, sources));
+        merged.sort((a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            if (byScore != 0) return byScore;
+            int byType = a.type.compareTo(b.type);
+            return byType != 0 ? byType : Long.compare(b.id, a.id);
+        });
+
+        int start = (int) Math.min(Math.max(0L, (long) page * size), merged.size());
+        int end = Math.min(start + size, merged.size());
+        List<HelpSearchResult> content = hydrate(merged.subList(start, end), keyword);
+        return page(domain, productId, keyword, content, page, size, merged.size(), sources);
+    }
+
+    private Future<List<SearchHit>> submit(String source, boolean available, Callable<List<SearchHit>> query,
+                                           Map<String, String> sources) {
+        if (!available) {
+            record(source, "unavailable", sources);
+            return null;
+        }
+        try {
+            return executor.submit(query);
+        } catch (RejectedExecutionException e) {
+            record(source, "rejected", sources);
+            return null;
+        }
+    }
+
+    private List<SearchHit> await(String source, Future<List<SearchHit>> future, long deadline, Map<String, String> sources) {
+        if (future == null) return List.of();
+        try {
+            List<SearchHit> hits = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            record(source, "ok", sources);
+            return hits;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            record(source, "timeout", sources);
+        } catch (ExecutionException e) {
+            logger.warn("Help search source {} failed: {}", source, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            record(source, "error", sources);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            record(source, "error", sources);
+        }
+        return List.of();
+    }
+
+    private void record(String source, String outcome, Map<String, String> sources) {
+        sources.put(source, outcome);
+        Counter.builder("ziohelp.helpsearch.source")
+                .description("Federated help search source outcomes")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static void addNormalized(List<RankedEntry> merged, String type, List<SearchHit> hits) {
+        double max = 0;
+        for (SearchHit hit : hits) {
+            max = Math.max(max, hit.getScore());
+        }
+        for (SearchHit hit : hits) {
+            merged.add(new RankedEntry(type, hit.getId(), max > 0 ? hit.getScore() / max : 0));
+        }
+    }
+
+    /** Load only the entities on the requested page, one query per type, keeping merged order. */
+    private List<HelpSearchResult> hydrate(List<RankedEntry> entries, String keyword) {
+        List<Long> faqIds = new ArrayList<>();
+        List<Long> articleIds = new ArrayList<>();
+        for (RankedEntry entry : entries) {
+            (TYPE_FAQ.equals(entry.type) ? faqIds : articleIds).add(entry.id);
+        }
+        Map<Long, Faq> faqs = faqIds.isEmpty() ? Map.of() : faqRepository.findAllById(faqIds).stream()
+                .collect(Collectors.toMap(Faq::getId, Function.identity()));
+        Map<Long, KnowledgeBaseArticle> articles = articleIds.isEmpty() ? Map.of() : articleRepository.findAllById(articleIds).stream()
+                .collect(Collectors.toMap(KnowledgeBaseArticle::getId, Function.identity()));
+
+        List<String> tokens = SearchTokenizer.tokenize(keyword);
+        List<HelpSearchResult> results = new ArrayList<>(entries.size());
+        for (RankedEntry entry : entries) {
+            if (TYPE_FAQ.equals(entry.type)) {
+                Faq faq = faqs.get(entry.id);
+                if (faq == null || !Boolean.TRUE.equals(faq.getIsPublished())) continue;
+                results.add(HelpSearchResult.builder()
+                        .type(TYPE_FAQ)
+                        .id(faq.getId())
+                        .title(SearchSnippets.highlight(faq.getQuestion(), tokens))
+                        .snippet(SearchSnippets.highlight(faq.getAnswer(), tokens, snippetLength))
+                        .category(faq.getCategory())
+                        .score(entry.score)
+                        .build());
+            } else {
+                KnowledgeBaseArticle article = articles.get(entry.id);
+                if (article == null || !Boolean.TRUE.equals(article.getIsPublished())) continue;
+                results.add(HelpSearchResult.builder()
+                        .type(TYPE_ARTICLE)
+                        .id(article.getId())
+                        .title(SearchSnippets.highlight(article.getTitle(), tokens))
+                        .snippet(SearchSnippets.highlight(article.getContent(), tokens, snippetLength))
+                        .category(article.getCategory())
+                        .score(entry.score)
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    private static HelpSearchResponse page(String domain, Long productId, String keyword, List<HelpSearchResult> content,
+                                           int page, int size, long total, Map<String, String> sources) {
+        int totalPages = size > 0 ? (int) ((total + size - 1) / size) : 0;
+        return HelpSearchResponse.builder()
+                .domain(domain)
+                .productId(productId)
+                .keyword(keyword)
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total)
+                .totalPages(totalPages)
+                .last(page + 1 >= totalPages)
+                .sources(sources)
+                .build();
+    }
+
+    private static final class RankedEntry {
+        final String type;
+        final long id;
+        final double score;
+
+        RankedEntry(String type, long id, double score) {
+            this.type = type;
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.KnowledgeBaseArticle;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BM25 index over published knowledge base articles, segmented by product.
+ *
+ * Title, category and content are indexed as separate fields and combined BM25F-style:
+ * each field's term frequency is normalized by that field's average length and weighted
+ * by its boost before saturation. Any query token may match (tokens of 3+ characters also
+ * match indexed terms they prefix, at half weight). Unpublished articles are never indexed.
+ * Kept current by KnowledgeBaseService and the controllers that save articles directly.
+ */
+@Component
+public class KnowledgeBaseSearchIndex extends RebuildableIndex<String[], KnowledgeBaseSearchIndex.Segment> {
+
+    private static final int TITLE = 0;
+    private static final int CATEGORY = 1;
+    private static final int CONTENT = 2;
+    private static final double[] FIELD_BOOST = {3.0, 2.0, 1.0};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    public KnowledgeBaseSearchIndex() {
+        super("Article search index", CHUNK_SIZE);
+    }
+
+    /** Index a saved article, or drop it if it is not published. */
+    public void index(KnowledgeBaseArticle article) {
+        if (article == null || article.getId() == null) return;
+        if (!Boolean.TRUE.equals(article.getIsPublished())) {
+            remove(article.getId());
+            return;
+        }
+        String[] fields = {article.getTitle(), article.getCategory(), article.getContent()};
+        put(article.getId(), segmentOf(article.getProduct() != null ? article.getProduct().getId() : null), fields);
+    }
+
+    /**
+     * Published articles matching any query token, best first.
+     *
+     * @param productId restrict to one product, or null to search all products
+     */
+    public List<SearchHit> search(Long productId, String query, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) return new ArrayList<>();
+        List<Map.Entry<Long, Double>> ranked = rank(collect(productId, segment -> segment.search(tokens)), limit);
+        List<SearchHit> hits = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            hits.add(new SearchHit(entry.getKey(), entry.getValue()));
+        }
+        return hits;
+    }
+
+    @Override
+    public String name() {
+        return "articles";
+    }
+
+    @Override
+    protected void addStats(Collection<Segment> segments, Map<String, Object> stats) {
+        int terms = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                terms += segment.terms.size();
+                for (TermPostings term : segment.terms.values()) {
+                    for (PostingList postings : term.fields) {
+                        if (postings != null) bytes += postings.sizeInBytes();
+                    }
+                }
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        stats.put("terms", terms);
+        stats.put("postingsBytes", bytes);
+    }
+
+    @Override
+    protected List<Object[]> rowsAfter(Long afterId, int limit) {
+        return articleRepository.findPublishedSearchRowsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    protected String[] documentOf(Object[] row) {
+        return new String[]{(String) row[2], (String) row[3], (String) row[4]};
+    }
+
+    @Override
+    protected int contentHash(String[] fields) {
+        return Objects.hash((Object[]) fields);
+    }
+
+    @Override
+    protected Segment newSegment() {
+        return new Segment();
+    }
+
+    private static final class TermPostings {
+        final PostingList[] fields = new PostingList[FIELD_BOOST.length];
+        // Number of documents containing the term in any field
+        int docFrequency;
+    }
+
+    static final class Segment implements IndexSegment<String[]> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final TreeMap<String, TermPostings> terms = new TreeMap<>();
+        final Map<Long, IndexedDoc> docs = new HashMap<>();
+        final long[] totalFieldLength = new long[FIELD_BOOST.length];
+
+        @Override
+        public void put(long id, String[] fields) {
+            List<Map<String, Integer>> frequencies = new ArrayList<>(fields.length);
+            int[] lengths = new int[fields.length];
+            Set<String> docTerms = new HashSet<>();
+            for (int f = 0; f < fields.length; f++) {
+                Map<String, Integer> tf = new HashMap<>();
+                List<String> tokens = SearchTokenizer.tokenize(fields[f]);
+                for (String token : tokens) {
+                    tf.merge(token, 1, Integer::sum);
+                }
+                lengths[f] = tokens.size();
+                docTerms.addAll(tf.keySet());
+                frequencies.add(tf);
+            }
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                for (int f = 0; f < fields.length; f++) {
+                    for (Map.Entry<String, Integer> entry : frequencies.get(f).entrySet()) {
+                        TermPostings term = terms.computeIfAbsent(entry.getKey(), k -> new TermPostings());
+                        if (term.fields[f] == null) term.fields[f] = new PostingList();
+                        term.fields[f].add(id, entry.getValue());
+                    }
+                    totalFieldLength[f] += lengths[f];
+                }
+                for (String term : docTerms) {
+                    terms.get(term).docFrequency++;
+                }
+                docs.put(id, new IndexedDoc(docTerms.toArray(new String[0]), lengths, Objects.hash((Object[]) fields)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean hasContent(long id, int hash) {
+            lock.readLock().lock();
+            try {
+                IndexedDoc doc = docs.get(id);
+                return doc != null && doc.contentHash == hash;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<Long, Double> search(List<String> tokens) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = new HashMap<>();
+                if (docs.isEmpty()) return scores;
+                double[] avgLength = new double[totalFieldLength.length];
+                for (int f = 0; f < avgLength.length; f++) {
+                    avgLength[f] = Math.max(1.0, (double) totalFieldLength[f] / docs.size());
+                }
+                for (String token : tokens) {
+                    scoreTerm(token, 1.0, avgLength, scores);
+                    if (token.length() >= 3) {
+                        int expansions = 0;
+                        for (String term : terms.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                            if (++expansions > MAX_PREFIX_EXPANSIONS) break;
+                            scoreTerm(term, PREFIX_FACTOR, avgLength, scores);
+                        }
+                    }
+                }
+                return scores;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void scoreTerm(String text, double factor, double[] avgLength, Map<Long, Double> scores) {
+            TermPostings term = terms.get(text);
+            if (term == null) return;
+            // Boosted, length-normalized frequency summed over fields, then saturated once
+            Map<Long, Double> weighted = new HashMap<>();
+            for (int f = 0; f < term.fields.length; f++) {
+                PostingList postings = term.fields[f];
+                if (postings == null) continue;
+                int field = f;
+                postings.forEach((docId, tf) -> {
+                    IndexedDoc doc = docs.get(docId);
+                    double norm = 1.0 - B + B * (doc != null ? doc.fieldLengths[field] : 0) / avgLength[field];
+                    weighted.merge(docId, FIELD_BOOST[field] * tf / norm, Double::sum);
+                });
+            }
+            int n = docs.size();
+            double idf = Math.log(1.0 + (n - term.docFrequency + 0.5) / (term.docFrequency + 0.5));
+            for (Map.Entry<Long, Double> entry : weighted.entrySet()) {
+                double tf = entry.getValue();
+                scores.merge(entry.getKey(), factor * idf * tf * (K1 + 1) / (tf + K1), Double::sum);
+            }
+        }
+
+        private void removeLocked(long id) {
+            IndexedDoc doc = docs.remove(id);
+            if (doc == null) return;
+            for (int f = 0; f < totalFieldLength.length; f++) {
+                totalFieldLength[f] -= doc.fieldLengths[f];
+            }
+            for (String text : doc.terms) {
+                TermPostings term = terms.get(text);
+                if (term == null) continue;
+                for (PostingList postings : term.fields) {
+                    if (postings != null) postings.remove(id);
+                }
+                if (--term.docFrequency <= 0) terms.remove(text);
+            }
+        }
+    }
+
+    private static final class IndexedDoc {
+        final String[] terms;
+        final int[] fieldLengths;
+        final int contentHash;
+
+        IndexedDoc(String[] terms, int[] fieldLengths, int contentHash) {
+            this.terms = terms;
+            this.fieldLengths = fieldLengths;
+            this.contentHash = contentHash;
+        }
+    }
+}
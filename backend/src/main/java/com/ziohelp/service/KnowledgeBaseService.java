@@ -1,10 +1,12 @@
 package com.ziohelp.service;
 
+import com.ziohelp.dto.ArticleSearchResult;
 import com.ziohelp.entity.KnowledgeBaseArticle;
 import com.ziohelp.entity.Product;
 import com.ziohelp.repository.KnowledgeBaseArticleRepository;
 import com.ziohelp.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,7 +14,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,6 +27,18 @@ public class KnowledgeBaseService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private KnowledgeBaseSearchIndex articleSearchIndex;
+
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Value("${search.article.max-candidates:1000}")
+    private int maxSearchCandidates;
+
+    @Value("${search.article.snippet-length:200}")
+    private int snippetLength;
+
     public Page<KnowledgeBaseArticle> listArticles(Long productId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         if (productId != null) {
@@ -51,8 +67,45 @@ public class KnowledgeBaseService {
      * Search articles by keyword for a specific product
      */
     public Page<KnowledgeBaseArticle> searchArticlesByProduct(Long productId, String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return repository.searchByProduct_IdAndKeyword(productId, keyword, pageable);
+        if (!articleSearchIndex.isReady()) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            return repository.searchByProduct_IdAndKeyword(productId, keyword, pageable);
+        }
+        List<SearchHit> hits = articleSearchIndex.search(productId, keyword, maxSearchCandidates);
+        return publishedPage(hits, page, size);
+    }
+
+    /**
+     * Ranked search for a product's published articles, with highlighted title and content snippet.
+     */
+    public Page<ArticleSearchResult> searchArticlesWithSnippets(Long productId, String keyword, int page, int size) {
+        List<String> tokens = SearchTokenizer.tokenize(keyword);
+        Map<Long, Double> scores = new HashMap<>();
+        Page<KnowledgeBaseArticle> articles;
+        if (articleSearchIndex.isReady()) {
+            List<SearchHit> hits = articleSearchIndex.search(productId, keyword, maxSearchCandidates);
+            hits.forEach(hit -> scores.put(hit.getId(), hit.getScore()));
+            articles = publishedPage(hits, page, size);
+        } else {
+            articles = searchArticlesByProduct(productId, keyword, page, size);
+        }
+        return articles.map(article -> ArticleSearchResult.builder()
+                .id(article.getId())
+                .productId(article.getProductId())
+                .title(article.getTitle())
+                .highlightedTitle(SearchSnippets.highlight(article.getTitle(), tokens))
+                .category(article.getCategory())
+                .author(article.getAuthor())
+                .snippet(SearchSnippets.highlight(article.getContent(), tokens, snippetLength))
+                .score(scores.getOrDefault(article.getId(), 0.0))
+                .updatedAt(article.getUpdatedAt())
+                .build());
+    }
+
+    // Ranked page of hits, skipping articles unpublished since indexing
+    private Page<KnowledgeBaseArticle> publishedPage(List<SearchHit> hits, int page, int size) {
+        return RankedPages.hydrate(RankedPages.ids(hits), page, size, repository::findAllById,
+                KnowledgeBaseArticle::getId, article -> Boolean.TRUE.equals(article.getIsPublished()));
     }
 
     public Optional<KnowledgeBaseArticle> getArticle(Long id) {
@@ -77,7 +130,10 @@ public class KnowledgeBaseService {
             article.setIsPublished(false);
         }
         
-        return repository.save(article);
+        KnowledgeBaseArticle saved = repository.save(article);
+        articleSearchIndex.index(saved);
+        dictionaryCache.onArticleWritten(saved);
+        return saved;
     }
 
     public KnowledgeBaseArticle updateArticle(Long id, KnowledgeBaseArticle article) {
@@ -97,11 +153,15 @@ public class KnowledgeBaseService {
             }
         }
         
-        return repository.save(existing);
+        KnowledgeBaseArticle saved = repository.save(existing);
+        articleSearchIndex.index(saved);
+        dictionaryCache.onArticleWritten(saved);
+        return saved;
     }
 
     public void deleteArticle(Long id) {
         repository.deleteById(id);
+        articleSearchIndex.remove(id);
     }
 
     public List<KnowledgeBaseArticle> findByCategory(String category) {
@@ -116,7 +176,7 @@ public class KnowledgeBaseService {
      * Get all categories for a specific product
      */
     public List<String> getCategoriesByProduct(Long productId) {
-        return repository.findDistinctCategoriesByProduct_Id(productId);
+        return dictionaryCache.articleCategories(productId);
     }
     
     /**
@@ -128,7 +188,10 @@ public class KnowledgeBaseService {
             KnowledgeBaseArticle article = existingArticle.get();
             article.setIsPublished(!article.getIsPublished());
             article.setUpdatedAt(LocalDateTime.now());
-            return repository.save(article);
+            KnowledgeBaseArticle saved = repository.save(article);
+            articleSearchIndex.index(saved);
+            dictionaryCache.onArticleWritten(saved);
+            return saved;
         } else {
             throw new RuntimeException("Article not found with ID: " + id);
         }
@@ -341,13 +341,29 @@ public class NotificationService {
     }
     
     public void sendTicketEvent(String eventType, Ticket ticket) {
-        // Send ticket event notification
+        sendTicketEvent(eventType, ticket.getId(), ticket.getTitle(), LocalDateTime.now());
+    }
+
+    // Outbox delivery passes the time the change happened rather than the time it is sent
+    public void sendTicketEvent(String eventType, Long ticketId, String ticketTitle, LocalDateTime timestamp) {
         Map<String, Object> eventData = new HashMap<>();
         eventData.put("eventType", eventType);
-        eventData.put("ticketId", ticket.getId());
-        eventData.put("ticketTitle", ticket.getTitle());
-        eventData.put("timestamp", LocalDateTime.now());
+        eventData.put("ticketId", ticketId);
+        eventData.put("ticketTitle", ticketTitle);
+        eventData.put("timestamp", timestamp);
         
         messagingTemplate.convertAndSend("/topic/ticket-events", eventData);
     }
+
+    // One event for a bulk change instead of one per ticket
+    public void sendBulkTicketEvent(String eventType, List<Long> ticketIds, Map<String, Object> changes) {
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("eventType", eventType);
+        eventData.put("ticketIds", ticketIds);
+        eventData.put("ticketCount", ticketIds.size());
+        eventData.put("changes", changes);
+        eventData.put("timestamp", LocalDateTime.now());
+
+        messagingTemplate.convertAndSend("/topic/ticket-events", eventData);
+    }
 } 
\ No newline at end of file
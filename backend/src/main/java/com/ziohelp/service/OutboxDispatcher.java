@@ -0,0 +1,256 @@
+package com.ziohelp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ziohelp.entity.OutboxEvent;
+import com.ziohelp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox written by {@link TicketOutbox}: polls due PENDING events in id order,
+ * delivers each event's effects in order to NotificationService or the audit log, and marks
+ * the batch with JDBC batch updates. When an effect fails, the effects not yet delivered are
+ * kept as the event's payload and retried with exponential backoff; until the event succeeds
+ * or is given up as FAILED it holds back later events of the same ticket, so each ticket's
+ * effects are delivered in order. Delivery is at-least-once.
+ *
+ * Every node may run the dispatcher: a run holds a PostgreSQL advisory lock on a connection
+ * of its own, and a node that cannot take it skips the run, so one node delivers at a time
+ * and the per-ticket order holds across nodes.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Session lock, released when the run ends or its connection closes
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('outbox_event.dispatch'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('outbox_event.dispatch'))";
+    private static final TypeReference<LinkedHashMap<String, Map<String, Object>>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.dispatcher.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.dispatcher.retry-base-ms:1000}")
+    private long retryBaseMs;
+
+    @Value("${outbox.dispatcher.retry-max-ms:300000}")
+    private long retryMaxMs;
+
+    @Value("${outbox.retention-hours:72}")
+    private long retentionHours;
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("ziohelp.outbox.pending", outboxEventRepository, repo -> repo.countByStatus(PENDING))
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!enabled) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!holds(connection, LOCK_SQL)) return null;
+            try {
+                dispatchDue();
+            } finally {
+                holds(connection, UNLOCK_SQL);
+            }
+            return null;
+        });
+    }
+
+    private static boolean holds(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql); ResultSet result = statement.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    // One batch of due events; statements run on other connections than the lock's
+    private void dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = outboxEventRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) return;
+
+        // Lowest pending id per ticket that must be delivered first; later events of that ticket wait
+        Map<Long, Long> heldFrom = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findBackedOffAggregates(now)) {
+            heldFrom.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<Object[]> done = new ArrayList<>();
+        List<Object[]> retry = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (OutboxEvent event : due) {
+            Long ticketId = event.getAggregateId();
+            Long held = ticketId != null ? heldFrom.get(ticketId) : null;
+            if (held != null && held < event.getId()) continue;
+            LinkedHashMap<String, Map<String, Object>> remaining = null;
+            String effect = event.getEffect();
+            try {
+                remaining = effectsOf(event);
+                Iterator<Map.Entry<String, Map<String, Object>>> effects = remaining.entrySet().iterator();
+                while (effects.hasNext()) {
+                    Map.Entry<String, Map<String, Object>> next = effects.next();
+                    effect = next.getKey();
+                    deliver(effect, next.getValue(), event.getCreatedAt());
+                    effects.remove();
+                    count(effect, "ok");
+                }
+                done.add(new Object[]{Timestamp.valueOf(LocalDateTime.now()), event.getId()});
+            } catch (RuntimeException e) {
+                int attempts = event.getAttempts() + 1;
+                String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+                if (attempts >= maxAttempts) {
+                    logger.error("Giving up on outbox event {} ({}) for ticket {} after {} attempts: {}",
+                            event.getId(), effect, ticketId, attempts, error);
+                    failed.add(new Object[]{attempts, error, Timestamp.valueOf(LocalDateTime.now()), event.getId()});
+                    count(effect, "failed");
+                } else {
+                    logger.warn("Outbox event {} ({}) for ticket {} failed (attempt {}), retrying: {}",
+                            event.getId(), effect, ticketId, attempts, error);
+                    // Only the effects not yet delivered are retried
+                    retry.add(new Object[]{attempts, Timestamp.valueOf(now.plus(Duration.ofMillis(backoffMillis(attempts)))),
+                            error, remaining != null ? toJson(remaining) : event.getPayload(), event.getId()});
+                    if (ticketId != null) heldFrom.putIfAbsent(ticketId, event.getId());
+                    count(effect, "retry");
+                }
+            }
+        }
+
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE outbox_event SET status = '" + DONE + "', attempts = attempts + 1, processed_at = ? WHERE id = ?", done);
+        }
+        if (!retry.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE outbox_event SET attempts = ?, next_attempt_at = ?, last_error = ?, payload = ? WHERE id = ?", retry);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE outbox_event SET status = '" + FAILED + "', attempts = ?, last_error = ?, processed_at = ? WHERE id = ?", failed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:3600000}")
+    public void purgeDelivered() {
+        if (!enabled) return;
+        int removed = outboxEventRepository.deleteDoneBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            logger.info("Purged {} delivered outbox events older than {} hours", removed, retentionHours);
+        }
+    }
+
+    // Effect name -> arguments, in delivery order
+    private LinkedHashMap<String, Map<String, Object>> effectsOf(OutboxEvent event) {
+        if (!TicketOutbox.TICKET_CHANGE.equals(event.getEffect())) {
+            throw new IllegalStateException("Unknown outbox event type " + event.getEffect());
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload", e);
+        }
+    }
+
+    private String toJson(Map<String, Map<String, Object>> effects) {
+        try {
+            return objectMapper.writeValueAsString(effects);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+
+    private void deliver(String effect, Map<String, Object> payload, LocalDateTime createdAt) {
+        switch (effect) {
+            case TicketOutbox.NOTIFICATION -> notificationService.sendNotification((String) payload.get("message"));
+            case TicketOutbox.TICKET_EVENT -> notificationService.sendTicketEvent((String) payload.get("eventType"),
+                    ((Number) payload.get("ticketId")).longValue(), (String) payload.get("ticketTitle"), createdAt);
+            case TicketOutbox.BULK_TICKET_EVENT -> notificationService.sendBulkTicketEvent((String) payload.get("eventType"),
+                    ((List<?>) payload.get("ticketIds")).stream().map(id -> ((Number) id).longValue()).toList(),
+                    castMap(payload.get("changes")));
+            case TicketOutbox.AUDIT -> auditLogService.logActivity((String) payload.get("action"),
+                    (String) payload.get("details"), (String) payload.get("userEmail"));
+            default -> throw new IllegalStateException("Unknown outbox effect " + effect);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private long backoffMillis(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, retryMaxMs);
+    }
+
+    private void count(String effect, String outcome) {
+        Counter.builder("ziohelp.outbox.dispatched")
+                .tag("effect", effect)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+}
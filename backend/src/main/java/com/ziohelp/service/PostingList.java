@@ -0,0 +1,114 @@
+package com.ziohelp.service;
+
+import java.util.Arrays;
+
+/**
+ * Compressed postings for one term: ascending document ids stored as variable-length
+ * deltas, each followed by a small integer weight (e.g. term frequency).
+ *
+ * New documents usually have the highest id so {@link #add} is an append; out-of-order
+ * inserts and removals re-encode the list. Not thread-safe; callers guard it with the
+ * owning segment's lock.
+ */
+public class PostingList {
+
+    public interface Visitor {
+        void visit(long docId, int weight);
+    }
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int docCount;
+    private long lastDocId;
+
+    public int docCount() {
+        return docCount;
+    }
+
+    public int sizeInBytes() {
+        return length;
+    }
+
+    public void add(long docId, int weight) {
+        if (docCount == 0 || docId > lastDocId) {
+            append(docId, weight);
+            return;
+        }
+        // Out of order: merge into a fresh encoding
+        PostingList merged = new PostingList();
+        boolean[] inserted = {false};
+        forEach((id, w) -> {
+            if (!inserted[0] && docId <= id) {
+                merged.append(docId, weight);
+                inserted[0] = true;
+                if (docId == id) return;
+            }
+            merged.append(id, w);
+        });
+        if (!inserted[0]) merged.append(docId, weight);
+        copyFrom(merged);
+    }
+
+    public boolean remove(long docId) {
+        PostingList kept = new PostingList();
+        boolean[] found = {false};
+        forEach((id, w) -> {
+            if (id == docId) {
+                found[0] = true;
+            } else {
+                kept.append(id, w);
+            }
+        });
+        if (found[0]) copyFrom(kept);
+        return found[0];
+    }
+
+    public void forEach(Visitor visitor) {
+        int pos = 0;
+        long docId = 0;
+        while (pos < length) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            int weight = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                weight |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            docId += delta;
+            visitor.visit(docId, weight);
+        }
+    }
+
+    private void append(long docId, int weight) {
+        writeVarLong(docCount == 0 ? docId : docId - lastDocId);
+        writeVarLong(weight);
+        lastDocId = docId;
+        docCount++;
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    private void copyFrom(PostingList other) {
+        this.data = other.data;
+        this.length = other.length;
+        this.docCount = other.docCount;
+        this.lastDocId = other.lastDocId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * The product domains that exist, reloaded every ratelimit.known-domains.refresh-ms. Lets
+ * the rate limiter give known domains their own bucket without a query per request; a
+ * domain created since the last reload is treated as unknown until the next one.
+ */
+@Service
+public class ProductDomainCache {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile Set<String> domains = Set.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${ratelimit.known-domains.refresh-ms:60000}",
+            fixedDelayString = "${ratelimit.known-domains.refresh-ms:60000}")
+    public void refresh() {
+        domains = Set.copyOf(productRepository.findAllDomains());
+    }
+
+    public boolean isKnown(String domain) {
+        return domain != null && domains.contains(domain);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ziohelp.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Turns ids ranked by an in-memory search index into a page of entities.
+ */
+public final class RankedPages {
+
+    private RankedPages() {
+    }
+
+    public static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Load only the requested page of ranked ids in one query, keeping rank order. The total is
+     * the number of ranked ids; documents that were deleted or no longer pass {@code keep} since
+     * they were indexed are left out of the page.
+     *
+     * @param load loads the entities with the given ids, in any order
+     */
+    public static <T> Page<T> hydrate(List<Long> rankedIds, int page, int size,
+                                      Function<List<Long>, List<T>> load, Function<T, Long> idOf, Predicate<T> keep) {
+        Pageable pageable = PageRequest.of(page, size);
+        int start = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int end = Math.min(start + size, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(start, end);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, rankedIds.size());
+        }
+        Map<Long, T> byId = load.apply(pageIds).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .filter(keep)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, rankedIds.size());
+    }
+}
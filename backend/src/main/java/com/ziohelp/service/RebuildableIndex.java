@@ -0,0 +1,262 @@
+package com.ziohelp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Scaffolding shared by the in-memory indexes that are loaded from the database and then kept
+ * current document by document: product segments, the rebuild that swaps in a fresh state while
+ * replaying updates made meanwhile, and the consistency check against the database.
+ *
+ * Subclasses supply the rows to load ({@code [id, productId, ...]}), how a row becomes an indexed
+ * document and the segment structure that stores documents.
+ *
+ * @param <D> what a segment stores for one document
+ * @param <S> the segment type
+ */
+public abstract class RebuildableIndex<D, S extends RebuildableIndex.IndexSegment<D>> implements SearchIndex {
+
+    protected static final long NO_PRODUCT = 0L;
+    private static final int SAMPLE_IDS = 20;
+
+    /** Documents of one product; implementations do their own locking. */
+    protected interface IndexSegment<D> {
+        void put(long id, D document);
+
+        void remove(long id);
+
+        boolean hasContent(long id, int contentHash);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final String label;
+    private final int chunkSize;
+
+    private volatile IndexState state = new IndexState();
+    private volatile boolean ready;
+    // Non-null while a rebuild runs; updates made meanwhile are replayed onto the new index
+    private volatile Queue<Consumer<IndexState>> pendingDuringRebuild;
+
+    /**
+     * @param label used in log messages, e.g. "Ticket search index"
+     * @param chunkSize rows loaded per query during rebuilds and consistency checks
+     */
+    protected RebuildableIndex(String label, int chunkSize) {
+        this.label = label;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Rows with an id above afterId in id order, at most limit of them. */
+    protected abstract List<Object[]> rowsAfter(Long afterId, int limit);
+
+    /** The document to index for a row, or null if the row is not indexed. */
+    protected abstract D documentOf(Object[] row);
+
+    protected abstract int contentHash(D document);
+
+    protected abstract S newSegment();
+
+    /** Index-specific entries for {@link #stats()}. */
+    protected void addStats(Collection<S> segments, Map<String, Object> stats) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Index or re-index a document; a null document removes it. */
+    protected void put(Long id, long segment, D document) {
+        apply(s -> s.put(id, segment, document));
+    }
+
+    public void remove(Long id) {
+        if (id == null) return;
+        apply(s -> s.remove(id));
+    }
+
+    protected S segment(long key) {
+        return state.segments.get(key);
+    }
+
+    protected Collection<S> segments() {
+        return state.segments.values();
+    }
+
+    /** Scores from one product's segment, or from all segments when productId is null. */
+    protected Map<Long, Double> collect(Long productId, Function<S, Map<Long, Double>> search) {
+        Map<Long, Double> scores = new HashMap<>();
+        if (productId != null) {
+            S segment = segment(productId);
+            if (segment != null) scores.putAll(search.apply(segment));
+        } else {
+            for (S segment : segments()) {
+                scores.putAll(search.apply(segment));
+            }
+        }
+        return scores;
+    }
+
+    /** The best scores first, ties broken by newer id, at most limit of them. */
+    protected static List<Map.Entry<Long, Double>> rank(Map<Long, Double> scores, int limit) {
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    protected static long segmentOf(Object productId) {
+        return productId != null ? ((Number) productId).longValue() : NO_PRODUCT;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        IndexState current = state;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("documents", current.docSegment.size());
+        stats.put("segments", current.segments.size());
+        addStats(current.segments.values(), stats);
+        return stats;
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (this) {
+            long started = System.currentTimeMillis();
+            pendingDuringRebuild = new ConcurrentLinkedQueue<>();
+            IndexState fresh = new IndexState();
+            Long afterId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = rowsAfter(afterId, chunkSize);
+                for (Object[] row : rows) {
+                    fresh.put((Long) row[0], segmentOf(row[1]), documentOf(row));
+                    afterId = (Long) row[0];
+                }
+            } while (rows.size() == chunkSize);
+
+            state = fresh;
+            Queue<Consumer<IndexState>> pending = pendingDuringRebuild;
+            pendingDuringRebuild = null;
+            Consumer<IndexState> op;
+            while ((op = pending.poll()) != null) {
+                op.accept(fresh);
+            }
+            ready = true;
+            logger.info("{} rebuilt: {} documents in {} ms",
+                    label, fresh.docSegment.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    @Override
+    public Map<String, Object> checkConsistency(boolean repair) {
+        IndexState current = state;
+        List<Long> missing = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Long afterId = 0L;
+        List<Object[]> rows;
+        do {
+            rows = rowsAfter(afterId, chunkSize);
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                long segment = segmentOf(row[1]);
+                D document = documentOf(row);
+                seen.add(id);
+                afterId = id;
+                Long indexedSegment = current.docSegment.get(id);
+                S indexed = indexedSegment != null ? current.segments.get(indexedSegment) : null;
+                if (indexedSegment == null) {
+                    if (document == null) continue;
+                    missing.add(id);
+                } else if (document == null || indexedSegment != segment || indexed == null
+                        || !indexed.hasContent(id, contentHash(document))) {
+                    stale.add(id);
+                } else {
+                    continue;
+                }
+                if (repair) put(id, segment, document);
+            }
+        } while (rows.size() == chunkSize);
+
+        // Only ids at or below the last scanned id can be judged; newer documents may still be committing
+        long maxScanned = afterId;
+        List<Long> orphaned = new ArrayList<>();
+        for (Long id : current.docSegment.keySet()) {
+            if (id <= maxScanned && !seen.contains(id)) {
+                orphaned.add(id);
+                if (repair) remove(id);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", missing.isEmpty() && stale.isEmpty() && orphaned.isEmpty());
+        report.put("checked", seen.size());
+        report.put("missing", missing.size());
+        report.put("stale", stale.size());
+        report.put("orphaned", orphaned.size());
+        report.put("sampleMissingIds", missing.subList(0, Math.min(SAMPLE_IDS, missing.size())));
+        report.put("sampleStaleIds", stale.subList(0, Math.min(SAMPLE_IDS, stale.size())));
+        report.put("sampleOrphanedIds", orphaned.subList(0, Math.min(SAMPLE_IDS, orphaned.size())));
+        report.put("repaired", repair);
+        return report;
+    }
+
+    private void apply(Consumer<IndexState> op) {
+        IndexState applied = state;
+        op.accept(applied);
+        Queue<Consumer<IndexState>> pending = pendingDuringRebuild;
+        if (pending != null) pending.add(op);
+        // A rebuild may have swapped the state in between; operations are idempotent
+        if (state != applied) op.accept(state);
+    }
+
+    private final class IndexState {
+        final ConcurrentHashMap<Long, S> segments = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, Long> docSegment = new ConcurrentHashMap<>();
+
+        void put(Long id, long segment, D document) {
+            if (document == null) {
+                remove(id);
+                return;
+            }
+            Long previous = docSegment.put(id, segment);
+            if (previous != null && previous != segment) {
+                S old = segments.get(previous);
+                if (old != null) old.remove(id);
+            }
+            segments.computeIfAbsent(segment, k -> newSegment()).put(id, document);
+        }
+
+        void remove(Long id) {
+            Long previous = docSegment.remove(id);
+            if (previous != null) {
+                S segment = segments.get(previous);
+                if (segment != null) segment.remove(id);
+            }
+        }
+    }
+}
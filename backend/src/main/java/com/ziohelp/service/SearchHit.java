@@ -0,0 +1,22 @@
+package com.ziohelp.service;
+
+/**
+ * One ranked document from an in-memory search index.
+ */
+public final class SearchHit {
+    private final long id;
+    private final double score;
+
+    public SearchHit(long id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ziohelp.service;
+
+import java.util.Map;
+
+/**
+ * Operational hooks shared by the in-memory search indexes, exposed at /actuator/searchindex.
+ */
+public interface SearchIndex {
+
+    /** Short name used as the actuator selector, e.g. "tickets". */
+    String name();
+
+    /** Document/term counts and readiness. */
+    Map<String, Object> stats();
+
+    /** Reload every document from the database and swap in the new index. */
+    void rebuild();
+
+    /**
+     * Compare the index with the database.
+     *
+     * @param repair re-index missing or stale documents and drop orphaned ones
+     */
+    Map<String, Object> checkConsistency(boolean repair);
+}
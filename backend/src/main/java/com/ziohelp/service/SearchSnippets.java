@@ -0,0 +1,117 @@
+package com.ziohelp.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds HTML-escaped highlighted snippets for search results. Words matching a query
+ * token (exactly, or by prefix for tokens of 3+ characters, as the indexes do) are
+ * wrapped in {@code <mark>}; the snippet window is placed where most matches cluster.
+ */
+public final class SearchSnippets {
+
+    private static final String ELLIPSIS = "…";
+
+    private SearchSnippets() {
+    }
+
+    /** Highlight every match in the full text. */
+    public static String highlight(String text, List<String> queryTokens) {
+        return highlight(text, queryTokens, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Highlight matches within a window of at most {@code maxChars} characters.
+     *
+     * @param queryTokens tokens produced by {@link SearchTokenizer}
+     */
+    public static String highlight(String text, List<String> queryTokens, int maxChars) {
+        if (text == null || text.isEmpty()) return "";
+        Set<String> tokens = new HashSet<>(queryTokens);
+        List<int[]> matches = findMatches(text, tokens);
+
+        int start = 0;
+        int end = text.length();
+        if (text.length() > maxChars) {
+            if (!matches.isEmpty()) {
+                int bestStart = matches.get(0)[0];
+                int bestCount = 0;
+                for (int i = 0, j = 0; i < matches.size(); i++) {
+                    while (j < matches.size() && matches.get(j)[1] <= matches.get(i)[0] + maxChars) j++;
+                    if (j - i > bestCount) {
+                        bestCount = j - i;
+                        bestStart = matches.get(i)[0];
+                    }
+                }
+                // Leave a little leading context before the first match
+                start = Math.max(0, bestStart - Math.min(40, maxChars / 4));
+                while (start > 0 && start < bestStart && !Character.isWhitespace(text.charAt(start - 1))) start++;
+            }
+            end = Math.min(text.length(), start + maxChars);
+            while (end < text.length() && end > start && Character.isLetterOrDigit(text.charAt(end))
+                    && Character.isLetterOrDigit(text.charAt(end - 1))) end--;
+            if (end == start) end = Math.min(text.length(), start + maxChars);
+        }
+
+        StringBuilder out = new StringBuilder(Math.min(end - start, 1024) + 32);
+        if (start > 0) out.append(ELLIPSIS);
+        int pos = start;
+        for (int[] match : matches) {
+            if (match[1] <= start) continue;
+            if (match[0] >= end) break;
+            int matchStart = Math.max(match[0], start);
+            int matchEnd = Math.min(match[1], end);
+            escape(text, pos, matchStart, out);
+            out.append("<mark>");
+            escape(text, matchStart, matchEnd, out);
+            out.append("</mark>");
+            pos = matchEnd;
+        }
+        escape(text, pos, end, out);
+        if (end < text.length()) out.append(ELLIPSIS);
+        return out.toString();
+    }
+
+    private static List<int[]> findMatches(String text, Set<String> tokens) {
+        List<int[]> matches = new ArrayList<>();
+        if (tokens.isEmpty()) return matches;
+        int wordStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!wordChar && wordStart >= 0) {
+                if (matches(text.substring(wordStart, i).toLowerCase(Locale.ROOT), tokens)) {
+                    matches.add(new int[]{wordStart, i});
+                }
+                wordStart = -1;
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matches(String word, Set<String> tokens) {
+        if (tokens.contains(word)) return true;
+        for (String token : tokens) {
+            if (token.length() >= 3 && word.startsWith(token)) return true;
+        }
+        return false;
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
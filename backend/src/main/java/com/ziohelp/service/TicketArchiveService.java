@@ -0,0 +1,401 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.TicketCursor;
+import com.ziohelp.dto.TicketSummary;
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.entity.TicketArchive;
+import com.ziohelp.repository.TicketArchiveRepository;
+import com.ziohelp.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cold tier for old tickets. A background mover relocates RESOLVED and CLOSED tickets not
+ * updated for tickets.archive.retention-days from ticket to ticket_archive, one chunk per
+ * transaction, taking their comments, attachments and history along as JSON.
+ *
+ * Date-range reads go through this service: the archive is only queried when the requested
+ * range starts at or before the retention cutoff or the newest archived timestamp, so recent
+ * ranges (dashboards' default 30 days, realtime counts, the first list pages) touch the ticket
+ * table alone. Everything archived is older than the cutoff whichever node moved it; the
+ * newest timestamps are reloaded every tickets.archive.boundaries-refresh-ms and only matter
+ * after retention-days has been lowered.
+ */
+@Service
+public class TicketArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketArchiveService.class);
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id FROM ticket WHERE status IN ('RESOLVED', 'CLOSED') AND updated_at < ? " +
+            "ORDER BY updated_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO ticket_archive (id, title, description, status, priority, created_by, is_guest, created_at, " +
+            "updated_at, category, organization_id, product_id, assigned_to_id, version, archived_at, comments, attachments, history) " +
+            "SELECT t.id, t.title, t.description, t.status, t.priority, t.created_by, t.is_guest, t.created_at, " +
+            "t.updated_at, t.category, t.organization_id, t.product_id, t.assigned_to_id, t.version, ?, " +
+            "(SELECT COALESCE(jsonb_agg(to_jsonb(c) - 'ticket_id' ORDER BY c.id), '[]'::jsonb)::text FROM comment c WHERE c.ticket_id = t.id), " +
+            "(SELECT COALESCE(jsonb_agg(to_jsonb(a) - 'ticket_id' ORDER BY a.id), '[]'::jsonb)::text FROM attachments a WHERE a.ticket_id = t.id), " +
+            "(SELECT COALESCE(jsonb_agg(to_jsonb(h) - 'ticket_id' ORDER BY h.id), '[]'::jsonb)::text FROM ticket_history h WHERE h.ticket_id = t.id) " +
+            "FROM ticket t WHERE t.id IN (%s) " +
+            "ON CONFLICT (id) DO NOTHING RETURNING created_at, updated_at";
+
+    private static final Comparator<TicketSummary> NEWEST_FIRST = Comparator
+            .comparing(TicketSummary::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TicketSummary::getId, Comparator.reverseOrder());
+
+    // date_trunc units accepted by the bucketed counts
+    private static final Set<String> TRUNC_UNITS = Set.of("day", "week", "month");
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketArchiveRepository ticketArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TicketSearchIndex ticketSearchIndex;
+
+    @Autowired
+    private TicketSimilarityIndex ticketSimilarityIndex;
+
+    @Value("${tickets.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tickets.archive.retention-days:365}")
+    private long retentionDays;
+
+    @Value("${tickets.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tickets.archive.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Value("${tickets.archive.max-offset-rows:10000}")
+    private int maxOffsetRows;
+
+    // Newest created_at / updated_at in the archive as of the last load; null = archive was empty
+    private volatile LocalDateTime newestCreatedAt;
+    private volatile LocalDateTime newestUpdatedAt;
+    private volatile boolean boundariesLoaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        loadBoundaries();
+    }
+
+    @Scheduled(initialDelayString = "${tickets.archive.boundaries-refresh-ms:60000}",
+            fixedDelayString = "${tickets.archive.boundaries-refresh-ms:60000}")
+    public void refreshBoundaries() {
+        loadBoundaries();
+    }
+
+    @Scheduled(initialDelayString = "${tickets.archive.interval-ms:3600000}",
+            fixedDelayString = "${tickets.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (enabled) archiveExpired();
+    }
+
+    /**
+     * Move expired tickets to the archive, at most max-chunks-per-run chunks.
+     *
+     * @return number of tickets archived
+     */
+    public int archiveExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long start = System.currentTimeMillis();
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved.isEmpty()) break;
+            moved.forEach(ticketSearchIndex::remove);
+            moved.forEach(ticketSimilarityIndex::remove);
+            total += moved.size();
+            if (moved.size() < chunkSize) break;
+        }
+        if (total > 0) {
+            logger.info("Archived {} tickets last updated before {} in {} ms", total, cutoff, System.currentTimeMillis() - start);
+        }
+        return total;
+    }
+
+    // One transaction: copy the chunk with its children, then delete children and tickets
+    private List<Long> archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, Long.class, Timestamp.valueOf(cutoff), chunkSize);
+        if (ids.isEmpty()) return ids;
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        List<LocalDateTime[]> archived = jdbcTemplate.query(String.format(ARCHIVE_SQL, in), (rs, rowNum) -> new LocalDateTime[]{
+                toLocalDateTime(rs.getTimestamp(1)), toLocalDateTime(rs.getTimestamp(2))}, args.toArray());
+        Object[] idArgs = ids.toArray();
+        jdbcTemplate.update("DELETE FROM comment WHERE ticket_id IN (" + in + ")", idArgs);
+        jdbcTemplate.update("DELETE FROM attachments WHERE ticket_id IN (" + in + ")", idArgs);
+        jdbcTemplate.update("DELETE FROM ticket_history WHERE ticket_id IN (" + in + ")", idArgs);
+        jdbcTemplate.update("DELETE FROM ticket WHERE id IN (" + in + ")", idArgs);
+        for (LocalDateTime[] row : archived) {
+            extendBoundaries(row[0], row[1]);
+        }
+        return ids;
+    }
+
+    public Optional<TicketArchive> findArchived(Long id) {
+        return ticketArchiveRepository.findById(id);
+    }
+
+    // ==== RANGE-ROUTED READS ====
+
+    /**
+     * Keyset page over (createdAt, id) descending across ticket and archive. The archive is
+     * only read when the range reaches it and the live rows alone could not fill the page
+     * with rows newer than everything archived.
+     *
+     * @param after cursor of the previous page, or null for the first page
+     */
+    public List<TicketSummary> findFilteredKeysetPage(String status, LocalDateTime fromDate, LocalDateTime toDate, String search,
+                                                      TicketCursor after, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        List<TicketSummary> live = after == null
+                ? ticketRepository.findAllFilteredFirstKeysetPage(status, fromDate, toDate, search, page)
+                : ticketRepository.findAllFilteredKeysetPageAfter(status, fromDate, toDate, search, after.getCreatedAt(), after.getId(), page);
+        if (!reachesByCreatedAt(fromDate)) return live;
+        LocalDateTime newest = newestCreatedAt;
+        if (live.size() >= limit && live.get(live.size() - 1).getCreatedAt().isAfter(newest)) return live;
+        List<TicketSummary> archived = after == null
+                ? ticketArchiveRepository.findAllFilteredFirstKeysetPage(status, fromDate, toDate, search, page)
+                : ticketArchiveRepository.findAllFilteredKeysetPageAfter(status, fromDate, toDate, search, after.getCreatedAt(), after.getId(), page);
+        if (archived.isEmpty()) return live;
+        List<TicketSummary> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Offset page across ticket and archive. A range the archive cannot hold is read from ticket
+     * alone in the requested order. Otherwise both tables are read up to the end of the page and
+     * merged newest first, so such a range only pages by createdAt descending and only up to
+     * tickets.archive.max-offset-rows; cursor paging has neither limit.
+     *
+     * @throws IllegalArgumentException for another order or a page past the limit on such a range
+     */
+    public Page<TicketSummary> findFilteredPage(String status, LocalDateTime fromDate, LocalDateTime toDate, String search, Pageable pageable) {
+        if (!reachesByCreatedAt(fromDate)) {
+            return ticketRepository.findAllFilteredSummaries(status, fromDate, toDate, search, pageable);
+        }
+        if (!isNewestFirst(pageable.getSort())) {
+            throw new IllegalArgumentException("Ranges that include archived tickets can only be sorted by createdAt desc; use paging=cursor");
+        }
+        int offset = (int) pageable.getOffset();
+        Pageable head = PageRequest.of(0, pageEnd(offset, pageable.getPageSize()));
+        List<TicketSummary> merged = new ArrayList<>(ticketRepository.findAllFilteredFirstKeysetPage(status, fromDate, toDate, search, head));
+        merged.addAll(ticketArchiveRepository.findAllFilteredFirstKeysetPage(status, fromDate, toDate, search, head));
+        merged.sort(NEWEST_FIRST);
+        return new PageImpl<>(slice(merged, offset, pageable.getPageSize()), pageable, countFiltered(status, fromDate, toDate, search));
+    }
+
+    /**
+     * Continue a page of ranked search hits with the archived tickets matching the same filters,
+     * newest first. Archived tickets are not in the search index, so they follow every ranked hit;
+     * the same offset limit as {@link #findFilteredPage} applies within the archive.
+     */
+    public Page<TicketSummary> withArchivedMatches(Page<TicketSummary> ranked, String status, LocalDateTime fromDate,
+                                                   LocalDateTime toDate, String search) {
+        if (!reachesByCreatedAt(fromDate)) return ranked;
+        Pageable pageable = ranked.getPageable();
+        long rankedTotal = ranked.getTotalElements();
+        long archivedTotal = ticketArchiveRepository.countAllFiltered(status, fromDate, toDate, search);
+        long pageEnd = pageable.getOffset() + pageable.getPageSize();
+        if (archivedTotal == 0 || pageEnd <= rankedTotal) {
+            return new PageImpl<>(ranked.getContent(), pageable, rankedTotal + archivedTotal);
+        }
+        int skip = (int) Math.max(0, pageable.getOffset() - rankedTotal);
+        int wanted = (int) (pageEnd - Math.max(pageable.getOffset(), rankedTotal));
+        List<TicketSummary> archived = ticketArchiveRepository.findAllFilteredFirstKeysetPage(status, fromDate, toDate, search,
+                PageRequest.of(0, pageEnd(skip, wanted)));
+        List<TicketSummary> content = new ArrayList<>(ranked.getContent());
+        content.addAll(slice(archived, skip, wanted));
+        return new PageImpl<>(content, pageable, rankedTotal + archivedTotal);
+    }
+
+    private static boolean isNewestFirst(Sort sort) {
+        if (sort.isUnsorted()) return true;
+        Sort.Order createdAt = sort.getOrderFor("createdAt");
+        return createdAt != null && createdAt.isDescending() && sort.stream().count() == 1;
+    }
+
+    private int pageEnd(long offset, int size) {
+        if (offset + size > maxOffsetRows) {
+            throw new IllegalArgumentException("Pages that include archived tickets end at row " + maxOffsetRows + "; use paging=cursor");
+        }
+        return (int) offset + size;
+    }
+
+    private static <T> List<T> slice(List<T> rows, int offset, int size) {
+        int start = Math.min(offset, rows.size());
+        return rows.subList(start, Math.min(start + size, rows.size()));
+    }
+
+    public long countFiltered(String status, LocalDateTime fromDate, LocalDateTime toDate, String search) {
+        long count = ticketRepository.countAllFiltered(status, fromDate, toDate, search);
+        return reachesByCreatedAt(fromDate) ? count + ticketArchiveRepository.countAllFiltered(status, fromDate, toDate, search) : count;
+    }
+
+    public long countCreatedBetween(LocalDateTime start, LocalDateTime end) {
+        long count = ticketRepository.countByCreatedAtBetween(start, end);
+        return reachesByCreatedAt(start) ? count + ticketArchiveRepository.countByCreatedAtBetween(start, end) : count;
+    }
+
+    public long countByStatusCreatedBetween(String status, LocalDateTime start, LocalDateTime end) {
+        long count = ticketRepository.countByStatusAndCreatedAtBetween(status, start, end);
+        return reachesByCreatedAt(start) ? count + ticketArchiveRepository.countByStatusAndCreatedAtBetween(status, start, end) : count;
+    }
+
+    public long countByStatusUpdatedBetween(String status, LocalDateTime start, LocalDateTime end) {
+        long count = ticketRepository.countByStatusAndUpdatedAtBetween(status, start, end);
+        return reachesByUpdatedAt(start) ? count + ticketArchiveRepository.countByStatusAndUpdatedAtBetween(status, start, end) : count;
+    }
+
+    public long countByOrganizationStatusCreatedBetween(Long organizationId, String status, LocalDateTime start, LocalDateTime end) {
+        long count = ticketRepository.countByOrganizationIdAndStatusAndCreatedAtBetween(organizationId, status, start, end);
+        return reachesByCreatedAt(start)
+                ? count + ticketArchiveRepository.countByOrganizationIdAndStatusAndCreatedAtBetween(organizationId, status, start, end)
+                : count;
+    }
+
+    /**
+     * Tickets created in [start, end) per date_trunc(unit) bucket of created_at, taken in
+     * {@code zone}; one grouped query per table. Buckets without tickets are absent.
+     *
+     * @param unit day, week (ISO, starting Monday) or month
+     * @param start server-local timestamp, as stored; end likewise and exclusive
+     */
+    public Map<LocalDate, Long> countCreatedByBucket(String unit, ZoneId zone, LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        bucketCounts("ticket", "created_at", null, unit, zone, start, end, counts);
+        if (reachesByCreatedAt(start)) bucketCounts("ticket_archive", "created_at", null, unit, zone, start, end, counts);
+        return counts;
+    }
+
+    /** Like {@link #countCreatedByBucket}, for tickets in {@code status} by updated_at. */
+    public Map<LocalDate, Long> countByStatusUpdatedByBucket(String status, String unit, ZoneId zone, LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        bucketCounts("ticket", "updated_at", status, unit, zone, start, end, counts);
+        if (reachesByUpdatedAt(start)) bucketCounts("ticket_archive", "updated_at", status, unit, zone, start, end, counts);
+        return counts;
+    }
+
+    /** Archived rows come back as detached tickets without relations other than organization and product ids. */
+    public List<Ticket> findCreatedBetween(LocalDateTime start, LocalDateTime end) {
+        List<Ticket> tickets = ticketRepository.findByCreatedAtBetween(start, end);
+        if (!reachesByCreatedAt(start)) return tickets;
+        return withArchived(tickets, ticketArchiveRepository.findByCreatedAtBetween(start, end));
+    }
+
+    public List<Ticket> findByStatusInCreatedBetween(List<String> statuses, LocalDateTime start, LocalDateTime end) {
+        List<Ticket> tickets = ticketRepository.findByStatusInAndCreatedAtBetween(statuses, start, end);
+        if (!reachesByCreatedAt(start)) return tickets;
+        return withArchived(tickets, ticketArchiveRepository.findByStatusInAndCreatedAtBetween(statuses, start, end));
+    }
+
+    private static List<Ticket> withArchived(List<Ticket> live, Collection<TicketArchive> archived) {
+        if (archived.isEmpty()) return live;
+        List<Ticket> all = new ArrayList<>(live.size() + archived.size());
+        all.addAll(live);
+        archived.forEach(a -> all.add(a.toTicket()));
+        return all;
+    }
+
+    /** Whether tickets created at or after {@code from} (null = unbounded) can be in the archive. */
+    public boolean reachesByCreatedAt(LocalDateTime from) {
+        if (!boundariesLoaded) loadBoundaries();
+        return reaches(from, newestCreatedAt);
+    }
+
+    private boolean reachesByUpdatedAt(LocalDateTime from) {
+        if (!boundariesLoaded) loadBoundaries();
+        return reaches(from, newestUpdatedAt);
+    }
+
+    // created_at <= updated_at < cutoff for every archived ticket, even one another node archived since the last load
+    private boolean reaches(LocalDateTime from, LocalDateTime newest) {
+        if (from == null || !from.isAfter(LocalDateTime.now().minusDays(retentionDays))) return true;
+        return newest != null && !from.isAfter(newest);
+    }
+
+    private synchronized void loadBoundaries() {
+        newestCreatedAt = ticketArchiveRepository.findNewestCreatedAt();
+        newestUpdatedAt = ticketArchiveRepository.findNewestUpdatedAt();
+        boundariesLoaded = true;
+    }
+
+    // Widened before the chunk commits, so a concurrent reader may query the archive early but never misses it
+    private synchronized void extendBoundaries(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        if (createdAt != null && (newestCreatedAt == null || createdAt.isAfter(newestCreatedAt))) newestCreatedAt = createdAt;
+        if (updatedAt != null && (newestUpdatedAt == null || updatedAt.isAfter(newestUpdatedAt))) newestUpdatedAt = updatedAt;
+    }
+
+    // Timestamps are stored server-local; they are moved to the requested zone before truncating
+    private void bucketCounts(String table, String column, String status, String unit, ZoneId zone,
+                              LocalDateTime start, LocalDateTime end, Map<LocalDate, Long> into) {
+        if (!TRUNC_UNITS.contains(unit)) throw new IllegalArgumentException("Unsupported bucket unit: " + unit);
+        String sql = "SELECT date_trunc(?, (" + column + " AT TIME ZONE ?) AT TIME ZONE ?) AS bucket, COUNT(*) FROM " + table
+                + " WHERE " + column + " >= ? AND " + column + " < ?" + (status != null ? " AND status = ?" : "")
+                + " GROUP BY 1";
+        List<Object> args = new ArrayList<>(List.of(unit, sqlZone(ZoneId.systemDefault()), sqlZone(zone),
+                Timestamp.valueOf(start), Timestamp.valueOf(end)));
+        if (status != null) args.add(status);
+        jdbcTemplate.query(sql, rs -> {
+            into.merge(rs.getTimestamp(1).toLocalDateTime().toLocalDate(), rs.getLong(2), Long::sum);
+        }, args.toArray());
+    }
+
+    // PostgreSQL reads numeric zone offsets POSIX-style (positive = west of UTC), so fixed offsets are written inverted
+    private static String sqlZone(ZoneId zone) {
+        if (!(zone.normalized() instanceof ZoneOffset offset)) return zone.getId();
+        if (offset.getTotalSeconds() == 0) return "UTC";
+        String id = offset.getId();
+        return "UTC" + (id.charAt(0) == '+' ? '-' : '+') + id.substring(1);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
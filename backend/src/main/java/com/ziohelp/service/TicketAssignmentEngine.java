@@ -0,0 +1,250 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.TicketRepository;
+import com.ziohelp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load-aware auto-assignment. Keeps one pool of developers per organization, ordered by
+ * open-ticket load (optionally relative to each developer's capacity) in a TreeSet, so the
+ * least-loaded developer is found and re-ranked in O(log n). Ties go to whoever was
+ * assigned least recently, which gives round-robin among equally loaded developers.
+ *
+ * Pools are built from the database when the application is ready, re-read every
+ * assignment.resync-interval-ms (picking up new developers and correcting drift), and kept
+ * current between resyncs by the {@link TicketChangedEvent}s of committed ticket writes.
+ */
+@Service
+public class TicketAssignmentEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketAssignmentEngine.class);
+
+    /** Statuses that no longer count towards a developer's load. */
+    public static final Set<String> CLOSED_STATUSES = Set.of("RESOLVED", "CLOSED");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    // Capacity for developers without user.assignment_capacity
+    @Value("${assignment.default-capacity:10}")
+    private int defaultCapacity;
+
+    // true: rank by open/capacity; false: rank by open tickets only
+    @Value("${assignment.weight-by-capacity:true}")
+    private boolean weightByCapacity;
+
+    private final ConcurrentHashMap<Long, Pool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> developerOrganization = new ConcurrentHashMap<>();
+    private final AtomicLong assignmentSequence = new AtomicLong();
+
+    public static boolean isOpen(String status) {
+        return status != null && !CLOSED_STATUSES.contains(status);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${assignment.resync-interval-ms:300000}",
+            fixedDelayString = "${assignment.resync-interval-ms:300000}")
+    public void resync() {
+        rebuild();
+    }
+
+    /** Re-read developers and open-ticket counts for every organization. */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Integer> openCounts = openCounts(ticketRepository.countOpenByAssignee(CLOSED_STATUSES));
+        Map<Long, Pool> fresh = new HashMap<>();
+        for (Object[] row : userRepository.findDeveloperAssignmentRows()) {
+            Long organizationId = (Long) row[1];
+            fresh.computeIfAbsent(organizationId, k -> new Pool()).add(developer(row, openCounts));
+        }
+        fresh.forEach((organizationId, pool) -> {
+            pools.put(organizationId, pool);
+            pool.members.keySet().forEach(id -> developerOrganization.put(id, organizationId));
+        });
+        pools.keySet().retainAll(fresh.keySet());
+        developerOrganization.entrySet().removeIf(e -> !fresh.containsKey(e.getValue())
+                || !fresh.get(e.getValue()).members.containsKey(e.getKey()));
+        int developers = fresh.values().stream().mapToInt(p -> p.members.size()).sum();
+        logger.info("Assignment pools rebuilt: {} organizations, {} developers in {} ms",
+                fresh.size(), developers, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Pick the least-loaded developer of the organization and count the ticket against them
+     * right away, so concurrent auto-assignments spread out. The provisional count is released
+     * when the surrounding transaction ends; if it commits, the assignment's
+     * {@link TicketChangedEvent} has counted the ticket by then.
+     *
+     * @param previousAssigneeId current assignee, whose load is released if the ticket is open
+     * @return the chosen developer's user id, or empty if the organization has no developers
+     */
+    public Optional<Long> claimLeastLoaded(Long organizationId, Long previousAssigneeId, String status) {
+        Pool pool = pool(organizationId);
+        boolean open = isOpen(status);
+        if (open && previousAssigneeId != null) adjust(previousAssigneeId, -1);
+        Long chosen;
+        synchronized (pool) {
+            Developer developer = pool.byLoad.isEmpty() ? null : pool.byLoad.first();
+            if (developer == null) {
+                chosen = null;
+            } else {
+                pool.byLoad.remove(developer);
+                if (open) developer.open++;
+                developer.lastAssigned = assignmentSequence.incrementAndGet();
+                pool.byLoad.add(developer);
+                chosen = developer.id;
+            }
+        }
+        if (chosen == null) {
+            if (open && previousAssigneeId != null) adjust(previousAssigneeId, 1);
+            return Optional.empty();
+        }
+        if (open) {
+            Runnable release = () -> {
+                adjust(chosen, -1);
+                if (previousAssigneeId != null) adjust(previousAssigneeId, 1);
+            };
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        release.run();
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+        return Optional.of(chosen);
+    }
+
+    /**
+     * Apply a ticket's assignee and/or status change to the loads (null assignee = unassigned;
+     * creation and deletion are a change from or to nothing).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        Long fromAssigneeId = event.before() != null ? event.before().assigneeId() : null;
+        String fromStatus = event.before() != null ? event.before().status() : null;
+        Long toAssigneeId = event.after() != null ? event.after().assigneeId() : null;
+        String toStatus = event.after() != null ? event.after().status() : null;
+        boolean release = fromAssigneeId != null && isOpen(fromStatus);
+        boolean acquire = toAssigneeId != null && isOpen(toStatus);
+        if (release && acquire && fromAssigneeId.equals(toAssigneeId)) return;
+        if (release) adjust(fromAssigneeId, -1);
+        if (acquire) adjust(toAssigneeId, 1);
+    }
+
+    private Pool pool(Long organizationId) {
+        Pool pool = pools.computeIfAbsent(organizationId, this::loadPool);
+        if (pool.members.isEmpty()) {
+            // Developers may have joined since the last resync
+            Pool reloaded = loadPool(organizationId);
+            if (!reloaded.members.isEmpty()) {
+                pools.put(organizationId, reloaded);
+                reloaded.members.keySet().forEach(id -> developerOrganization.put(id, organizationId));
+                return reloaded;
+            }
+        }
+        return pool;
+    }
+
+    private Pool loadPool(Long organizationId) {
+        Map<Long, Integer> openCounts = openCounts(
+                ticketRepository.countOpenByAssigneeInOrganization(organizationId, CLOSED_STATUSES));
+        Pool pool = new Pool();
+        for (Object[] row : userRepository.findDeveloperAssignmentRowsByOrganizationId(organizationId)) {
+            pool.add(developer(row, openCounts));
+            developerOrganization.put((Long) row[0], organizationId);
+        }
+        return pool;
+    }
+
+    private void adjust(Long developerId, int delta) {
+        Long organizationId = developerOrganization.get(developerId);
+        Pool pool = organizationId != null ? pools.get(organizationId) : null;
+        if (pool == null) return; // not a tracked developer (e.g. an admin picked manually)
+        synchronized (pool) {
+            Developer developer = pool.members.get(developerId);
+            if (developer == null) return;
+            pool.byLoad.remove(developer);
+            developer.open = Math.max(0, developer.open + delta);
+            pool.byLoad.add(developer);
+        }
+    }
+
+    // (userId, organizationId, assignmentCapacity)
+    private Developer developer(Object[] row, Map<Long, Integer> openCounts) {
+        Long id = (Long) row[0];
+        Integer capacity = (Integer) row[2];
+        return new Developer(id, capacity != null && capacity > 0 ? capacity : defaultCapacity, openCounts.getOrDefault(id, 0));
+    }
+
+    private static Map<Long, Integer> openCounts(List<Object[]> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
+    private int compareLoad(Developer a, Developer b) {
+        int byLoad = weightByCapacity
+                ? Long.compare((long) a.open * b.capacity, (long) b.open * a.capacity)
+                : Integer.compare(a.open, b.open);
+        if (byLoad != 0) return byLoad;
+        int byRecency = Long.compare(a.lastAssigned, b.lastAssigned);
+        return byRecency != 0 ? byRecency : Long.compare(a.id, b.id);
+    }
+
+    /** One organization's developers; guarded by its own monitor. */
+    private final class Pool {
+        final Map<Long, Developer> members = new HashMap<>();
+        final TreeSet<Developer> byLoad = new TreeSet<>(TicketAssignmentEngine.this::compareLoad);
+
+        void add(Developer developer) {
+            if (members.putIfAbsent(developer.id, developer) == null) byLoad.add(developer);
+        }
+    }
+
+    /** Mutable sort keys: always remove from byLoad before changing them. */
+    private static final class Developer {
+        final long id;
+        final int capacity;
+        int open;
+        long lastAssigned;
+
+        Developer(long id, int capacity, int open) {
+            this.id = id;
+            this.capacity = capacity;
+            this.open = open;
+        }
+    }
+}
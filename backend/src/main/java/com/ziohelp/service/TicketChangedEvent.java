@@ -0,0 +1,45 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Ticket;
+
+/**
+ * Published inside the transaction of every ticket write. The in-memory stores derived from
+ * tickets (search and similarity indexes, counters, dictionaries, assignment loads) consume it
+ * with {@code @TransactionalEventListener(phase = AFTER_COMMIT, fallbackExecution = true)}, so a
+ * rolled-back change never reaches them and writes outside a transaction apply immediately.
+ *
+ * @param before the ticket before the change, null for a new ticket
+ * @param after the ticket after the change, null for a deleted one
+ * @param content the saved ticket when its title or description may have changed, else null
+ */
+public record TicketChangedEvent(Long ticketId, State before, State after, Ticket content) {
+
+    /** The ticket columns the stores key on. */
+    public record State(Long organizationId, Long productId, String status, String priority,
+                        String category, Long assigneeId) {
+
+        public static State of(Ticket ticket) {
+            return new State(ticket.getOrganizationId(),
+                    ticket.getProduct() != null ? ticket.getProduct().getId() : null,
+                    ticket.getStatus(), ticket.getPriority(), ticket.getCategory(),
+                    ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null);
+        }
+    }
+
+    public static TicketChangedEvent created(Ticket saved) {
+        return new TicketChangedEvent(saved.getId(), null, State.of(saved), saved);
+    }
+
+    public static TicketChangedEvent updated(State before, Ticket saved) {
+        return new TicketChangedEvent(saved.getId(), before, State.of(saved), saved);
+    }
+
+    public static TicketChangedEvent deleted(Ticket ticket) {
+        return new TicketChangedEvent(ticket.getId(), State.of(ticket), null, null);
+    }
+
+    /** A change of status, priority, category or assignee only. */
+    public static TicketChangedEvent transitioned(Long ticketId, State before, State after) {
+        return new TicketChangedEvent(ticketId, before, after, null);
+    }
+}
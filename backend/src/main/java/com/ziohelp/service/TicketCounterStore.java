@@ -0,0 +1,324 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.TicketArchiveRepository;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ticket counts keyed by (organization, product, status, priority), so count
+ * endpoints never scan the ticket table. Archived tickets are included; moving a ticket to
+ * the archive does not change its counts.
+ *
+ * Every change updates one LongAdder per combination of concrete and "any" dimensions
+ * (16 cells), so a count for any subset of the dimensions is a single map lookup.
+ * Committed ticket writes are counted from their {@link TicketChangedEvent}.
+ * The store is loaded from grouped queries when the application is ready and reconciled
+ * with the database every ticket.counters.reconcile-interval-ms.
+ *
+ * Counts are per node: only this node's commits are counted as they happen, so writes made
+ * on other nodes show up here with the next reconcile. Between reconciles the counts are
+ * eventually consistent, off by at most the other nodes' changes since then.
+ *
+ * A reconcile does not stop writers. Each transaction publishing ticket changes records its
+ * transaction id before it commits. While the grouped queries run, changes counted on this
+ * node are also kept in a journal; the queries record the database snapshot they read, and
+ * journaled changes the snapshot did not see are added to the rebuilt counts before they
+ * are swapped in. Only the swap itself excludes writers, for the length of the journal.
+ */
+@Service
+public class TicketCounterStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketCounterStore.class);
+
+    private static final String ANY = "*";
+    private static final String NONE = "";
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketArchiveRepository ticketArchiveRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String CURRENT_XID_SQL = "SELECT pg_current_xact_id()::text::bigint";
+    private static final String CURRENT_SNAPSHOT_SQL = "SELECT pg_current_snapshot()::text";
+
+    private volatile ConcurrentHashMap<Key, LongAdder> cells = new ConcurrentHashMap<>();
+    // Changes counted while a reconcile queries the database; null when none runs
+    private volatile ConcurrentLinkedQueue<Change> journal;
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    /** Dimension values of one ticket; {@code null} snapshot = ticket does not exist. */
+    private record Snapshot(Long organizationId, Long productId, String status, String priority) {
+        static Snapshot of(TicketChangedEvent.State state) {
+            return state == null ? null
+                    : new Snapshot(state.organizationId(), state.productId(), state.status(), state.priority());
+        }
+    }
+
+    private record Key(String organization, String product, String status, String priority) {
+    }
+
+    /** @param xid transaction that committed the change; null when it was published outside one */
+    private record Change(Snapshot before, Snapshot after, Long xid) {
+    }
+
+    /** Transactions a database snapshot sees, from pg_current_snapshot() ("xmin:xmax:xip,..."). */
+    private record DatabaseSnapshot(long xmin, long xmax, Set<Long> inProgress) {
+        static DatabaseSnapshot parse(String text) {
+            String[] parts = text.split(":", -1);
+            Set<Long> inProgress = new HashSet<>();
+            if (parts.length > 2 && !parts[2].isEmpty()) {
+                Arrays.stream(parts[2].split(",")).map(Long::valueOf).forEach(inProgress::add);
+            }
+            return new DatabaseSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+        }
+
+        // A change without transaction id committed before it was counted; taken as seen
+        boolean sees(Long xid) {
+            if (xid == null || xid < xmin) return true;
+            return xid < xmax && !inProgress.contains(xid);
+        }
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("ziohelp.ticket.counters.cells", this, store -> store.cells.size())
+                .description("Ticket counter cells, including roll-ups")
+                .register(meterRegistry);
+        Gauge.builder("ziohelp.ticket.counters.drift", lastDrift, AtomicLong::get)
+                .description("Sum of absolute count differences found by the last reconcile")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${ticket.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${ticket.counters.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild all counts from the database and swap them in. Changes committed while the
+     * queries run are carried over if the queries did not see them.
+     *
+     * @return sum of absolute differences between the old and the rebuilt counts
+     */
+    public synchronized long reconcile() {
+        long start = System.currentTimeMillis();
+        // One snapshot for both tables, so a ticket being archived is counted exactly once
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        ConcurrentHashMap<Key, LongAdder> fresh = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<Change> recorded = new ConcurrentLinkedQueue<>();
+        // Set before the snapshot, so a change counted without being journaled committed before it
+        journal = recorded;
+        String seen;
+        try {
+            seen = snapshot.execute(status -> {
+                // First statement, which fixes the snapshot of the grouped queries
+                String visible = jdbcTemplate.queryForObject(CURRENT_SNAPSHOT_SQL, String.class);
+                addGrouped(fresh, ticketRepository.countGroupedByOrganizationProductStatusPriority());
+                addGrouped(fresh, ticketArchiveRepository.countGroupedByOrganizationProductStatusPriority());
+                return visible;
+            });
+        } catch (RuntimeException e) {
+            journal = null;
+            throw e;
+        }
+        DatabaseSnapshot databaseSnapshot = DatabaseSnapshot.parse(seen);
+        ConcurrentHashMap<Key, LongAdder> previous;
+        int carried = 0;
+        swapLock.writeLock().lock();
+        try {
+            journal = null;
+            for (Change change : recorded) {
+                if (databaseSnapshot.sees(change.xid())) continue;
+                apply(fresh, change);
+                carried++;
+            }
+            previous = cells;
+            cells = fresh;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        long drift = ready ? drift(previous, fresh) : 0;
+        lastDrift.set(drift);
+        if (drift > 0) {
+            logger.warn("Ticket counters reconciled with drift {} ({} cells, {} changes carried over) in {} ms",
+                    drift, fresh.size(), carried, System.currentTimeMillis() - start);
+        } else {
+            logger.debug("Ticket counters reconciled ({} cells, {} changes carried over) in {} ms",
+                    fresh.size(), carried, System.currentTimeMillis() - start);
+        }
+        ready = true;
+        return drift;
+    }
+
+    // Once per transaction; read again after commit to tell whether a reconcile's snapshot saw the change
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTicketCommitting(TicketChangedEvent event) {
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+        Long xid = jdbcTemplate.queryForObject(CURRENT_XID_SQL, Long.class);
+        if (xid != null) TransactionSynchronizationManager.bindResource(this, xid);
+    }
+
+    /** Count a committed ticket write: a creation, a deletion or a move between cells. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        Snapshot before = Snapshot.of(event.before());
+        Snapshot after = Snapshot.of(event.after());
+        if (Objects.equals(before, after)) return;
+        Change change = new Change(before, after, (Long) TransactionSynchronizationManager.getResource(this));
+        swapLock.readLock().lock();
+        try {
+            apply(cells, change);
+            ConcurrentLinkedQueue<Change> recording = journal;
+            if (recording != null) recording.add(change);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Also runs after a rollback, when onTicketCommitting may not have run
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onTicketCompleted(TicketChangedEvent event) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(this);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Tickets matching the given dimensions; a null argument matches any value. */
+    public long count(Long organizationId, Long productId, String status, String priority) {
+        LongAdder cell = cells.get(new Key(anyOr(organizationId), anyOr(productId), anyOr(status), anyOr(priority)));
+        return cell == null ? 0 : Math.max(0, cell.sum());
+    }
+
+    /**
+     * Counts by status and by priority within an organization and/or product (null = any).
+     * Walks the counter cells, not the ticket table.
+     */
+    public Map<String, Object> breakdown(Long organizationId, Long productId) {
+        String organization = anyOr(organizationId);
+        String product = anyOr(productId);
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byPriority = new TreeMap<>();
+        for (Map.Entry<Key, LongAdder> entry : cells.entrySet()) {
+            Key key = entry.getKey();
+            if (!key.organization().equals(organization) || !key.product().equals(product)) continue;
+            long count = entry.getValue().sum();
+            if (count <= 0) continue;
+            if (!key.status().equals(ANY) && key.priority().equals(ANY)) {
+                byStatus.put(label(key.status()), count);
+            } else if (key.status().equals(ANY) && !key.priority().equals(ANY)) {
+                byPriority.put(label(key.priority()), count);
+            }
+        }
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("organizationId", organizationId);
+        breakdown.put("productId", productId);
+        breakdown.put("total", count(organizationId, productId, null, null));
+        breakdown.put("byStatus", byStatus);
+        breakdown.put("byPriority", byPriority);
+        return breakdown;
+    }
+
+    // (organizationId, productId, status, priority, count)
+    private static void addGrouped(ConcurrentHashMap<Key, LongAdder> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            add(target, new Snapshot((Long) row[0], (Long) row[1], (String) row[2], (String) row[3]), ((Number) row[4]).longValue());
+        }
+    }
+
+    private static void apply(ConcurrentHashMap<Key, LongAdder> target, Change change) {
+        if (change.before() != null) add(target, change.before(), -1);
+        if (change.after() != null) add(target, change.after(), 1);
+    }
+
+    // One cell per subset of dimensions rolled up to ANY
+    private static void add(ConcurrentHashMap<Key, LongAdder> target, Snapshot snapshot, long delta) {
+        String organization = valueOf(snapshot.organizationId());
+        String product = valueOf(snapshot.productId());
+        String status = valueOf(snapshot.status());
+        String priority = valueOf(snapshot.priority());
+        for (int mask = 0; mask < 16; mask++) {
+            Key key = new Key((mask & 1) != 0 ? ANY : organization, (mask & 2) != 0 ? ANY : product,
+                    (mask & 4) != 0 ? ANY : status, (mask & 8) != 0 ? ANY : priority);
+            target.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static long drift(Map<Key, LongAdder> previous, Map<Key, LongAdder> fresh) {
+        Set<Key> keys = new HashSet<>(previous.keySet());
+        keys.addAll(fresh.keySet());
+        long drift = 0;
+        for (Key key : keys) {
+            // Only leaf cells, so one stale ticket is counted once rather than 16 times
+            if (key.organization().equals(ANY) || key.product().equals(ANY)
+                    || key.status().equals(ANY) || key.priority().equals(ANY)) continue;
+            LongAdder before = previous.get(key);
+            LongAdder after = fresh.get(key);
+            drift += Math.abs((before == null ? 0 : before.sum()) - (after == null ? 0 : after.sum()));
+        }
+        return drift;
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? NONE : value.toString();
+    }
+
+    private static String anyOr(Object value) {
+        return value == null ? ANY : value.toString();
+    }
+
+    private static String label(String value) {
+        return value.equals(NONE) ? "NONE" : value;
+    }
+}
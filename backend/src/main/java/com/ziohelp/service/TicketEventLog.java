@@ -0,0 +1,209 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.TicketEvent;
+import com.ziohelp.repository.TicketEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only ticket event log (ticket_event). Write paths call {@link #append} inside the
+ * transaction that changes the ticket; the events of a transaction are buffered and inserted
+ * in one JDBC batch just before it commits, so they are committed or rolled back with the
+ * change, on whichever node made it.
+ *
+ * The seq BIGSERIAL is taken at insert, so concurrent transactions can commit it out of order
+ * and a reader following seq could pass an event that becomes visible later. Consumers
+ * therefore follow the log position instead: {@link #sequenceCommitted} numbers committed
+ * events in seq order, one node at a time under an advisory lock, so an event only gets a
+ * position after every event with a lower position is visible.
+ *
+ * Reads scan by (ticket, seq) for timelines, or by position for consumers that follow the
+ * log incrementally.
+ */
+@Service
+public class TicketEventLog {
+
+    public static final String CREATED = "CREATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String ASSIGNED = "ASSIGNED";
+    public static final String UPDATED = "UPDATED";
+    public static final String COMMENTED = "COMMENTED";
+    public static final String ATTACHMENT_ADDED = "ATTACHMENT_ADDED";
+    public static final String NOTE = "NOTE";
+
+    private static final int MAX_VALUE_LENGTH = 255;
+    private static final int MAX_DETAIL_LENGTH = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ticket_event (ticket_id, type, actor, from_value, to_value, detail, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Released at commit; a node that does not get it leaves the run to the node holding it
+    private static final String SEQUENCER_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('ticket_event.log_position'))";
+    private static final String LAST_POSITION_SQL = "SELECT COALESCE(MAX(log_position), 0) FROM ticket_event";
+    private static final String UNSEQUENCED_SQL = "SELECT seq FROM ticket_event WHERE log_position IS NULL ORDER BY seq LIMIT ?";
+    private static final String SET_POSITION_SQL = "UPDATE ticket_event SET log_position = ? WHERE seq = ?";
+
+    @Autowired
+    private TicketEventRepository ticketEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticket.events.max-read:500}")
+    private int maxRead;
+
+    @Value("${ticket.events.sequence-batch-size:1000}")
+    private int sequenceBatchSize;
+
+    private Counter written;
+
+    /** One event, see {@link #append}. */
+    public record Event(Long ticketId, String type, String actor, String from, String to, String detail) {
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        written = Counter.builder("ziohelp.ticket.events.written").register(meterRegistry);
+    }
+
+    /**
+     * Record an event for the ticket. Joins the caller's transaction and is inserted with the
+     * transaction's other events when it commits; called outside one, the event is written in
+     * its own.
+     *
+     * @param from previous value for changes, null otherwise
+     * @param to new value (status, assignee id, comment id, ...), may be null
+     */
+    @Transactional
+    public void append(Long ticketId, String type, String actor, String from, String to, String detail) {
+        if (ticketId == null) return;
+        appendAll(List.of(new Event(ticketId, type, actor, from, to, detail)));
+    }
+
+    /** Record many events at once, e.g. for a bulk update; same transaction rules as {@link #append}. */
+    @Transactional
+    public void appendAll(List<Event> events) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        List<Object[]> rows = inTransaction ? transactionBuffer() : new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (event.ticketId() != null) rows.add(row(event, now));
+        }
+        if (!inTransaction && !rows.isEmpty()) insert(rows);
+    }
+
+    // Rows of the current transaction, inserted in one batch before it commits and dropped on rollback
+    @SuppressWarnings("unchecked")
+    private List<Object[]> transactionBuffer() {
+        List<Object[]> rows = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (rows != null) return rows;
+        List<Object[]> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(TicketEventLog.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TicketEventLog.this, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!created.isEmpty()) insert(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TicketEventLog.this);
+            }
+        });
+        return created;
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        written.increment(rows.size());
+    }
+
+    /**
+     * Give committed events their log position, in seq order, sequence-batch-size per
+     * transaction. Only one node numbers at a time; the next run's snapshot starts after this
+     * one committed, so later positions never go to events committed before earlier ones.
+     *
+     * @return number of events that got a position
+     */
+    @Scheduled(initialDelayString = "${ticket.events.sequence-interval-ms:250}",
+            fixedDelayString = "${ticket.events.sequence-interval-ms:250}")
+    public int sequenceCommitted() {
+        int total = 0;
+        while (true) {
+            Integer numbered = transactionTemplate.execute(status -> sequenceBatch());
+            if (numbered == null || numbered == 0) return total;
+            total += numbered;
+            if (numbered < sequenceBatchSize) return total;
+        }
+    }
+
+    private int sequenceBatch() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(SEQUENCER_LOCK_SQL, Boolean.class))) return 0;
+        List<Long> pending = jdbcTemplate.queryForList(UNSEQUENCED_SQL, Long.class, sequenceBatchSize);
+        if (pending.isEmpty()) return 0;
+        Long last = jdbcTemplate.queryForObject(LAST_POSITION_SQL, Long.class);
+        long position = last == null ? 0 : last;
+        List<Object[]> updates = new ArrayList<>(pending.size());
+        for (Long seq : pending) {
+            updates.add(new Object[]{++position, seq});
+        }
+        jdbcTemplate.batchUpdate(SET_POSITION_SQL, updates);
+        return pending.size();
+    }
+
+    /** Events of one ticket with a sequence above {@code afterSequence}, oldest first. */
+    public List<TicketEvent> ticketEvents(Long ticketId, long afterSequence, int limit) {
+        return ticketEventRepository.findByTicketAfter(ticketId, afterSequence, PageRequest.of(0, Math.min(Math.max(limit, 1), maxRead)));
+    }
+
+    /**
+     * Events of all tickets with a log position above {@code afterPosition}, in position order.
+     * Positions are only given to committed events and never below one already given, so a
+     * consumer passing the last position it saw does not miss events.
+     */
+    public List<TicketEvent> eventsAfter(long afterPosition, int limit) {
+        return ticketEventRepository.findAfterPosition(afterPosition, PageRequest.of(0, Math.min(Math.max(limit, 1), maxRead)));
+    }
+
+    private static Object[] row(Event event, Timestamp occurredAt) {
+        return new Object[]{event.ticketId(), event.type(), truncate(event.actor(), MAX_VALUE_LENGTH),
+                truncate(event.from(), MAX_VALUE_LENGTH), truncate(event.to(), MAX_VALUE_LENGTH),
+                truncate(event.detail(), MAX_DETAIL_LENGTH), occurredAt};
+    }
+
+    private static String truncate(String text, int max) {
+        return text == null || text.length() <= max ? text : text.substring(0, max);
+    }
+}
@@ -0,0 +1,283 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.exception.IdempotencyKeyMismatchException;
+import com.ziohelp.exception.ResourceNotFoundException;
+import com.ziohelp.exception.TicketConflictException;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for the ticket creation endpoints. A key maps to the id of the
+ * ticket its first request created; a retry with the same key within idempotency.ttl-seconds
+ * gets that ticket back instead of creating another one (and another round of notifications).
+ * Requests racing on a key wait for the first one and share its result; if it fails, the key is
+ * released and the next request creates the ticket. A hash of the request is kept with the key;
+ * reusing a key for a different request is rejected with 422. Scopes include the submitter, so
+ * one caller's key never returns another caller's ticket.
+ *
+ * Keys live in a bounded in-memory map (idempotency.max-entries, oldest completed keys evicted
+ * first). With idempotency.persist=true the key is also claimed in the idempotency_key table in
+ * the same transaction that creates the ticket, so the guarantee holds across restarts and
+ * nodes: a request with the same key on another node waits for that transaction and then
+ * replays its ticket.
+ */
+@Service
+public class TicketIdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_key (scope, idem_key, request_hash, ticket_id, created_at) VALUES (?, ?, ?, NULL, ?) ON CONFLICT DO NOTHING";
+    // Takes over a key whose previous use has expired but was not purged yet, or a claim without
+    // a ticket left by an older version (claims now commit together with their ticket)
+    private static final String RECLAIM_SQL =
+            "UPDATE idempotency_key SET request_hash = ?, ticket_id = NULL, created_at = ? "
+                    + "WHERE scope = ? AND idem_key = ? AND (created_at < ? OR ticket_id IS NULL)";
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    // How long a retry waits for the in-flight request with the same key
+    @Value("${idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    @Value("${idempotency.persist:false}")
+    private boolean persist;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Insertion order for eviction; may hold keys already removed from entries
+    private final ConcurrentLinkedQueue<Key> order = new ConcurrentLinkedQueue<>();
+    private Counter replayed;
+
+    private record Key(String scope, String key) {
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Long> ticketId = new CompletableFuture<>();
+        final long createdAtNanos = System.nanoTime();
+        final String requestHash;
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    private record Recorded(Long ticketId, String requestHash) {
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        replayed = Counter.builder("ziohelp.idempotency.replayed")
+                .description("Ticket creations answered from an earlier request with the same Idempotency-Key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Create a ticket once per (scope, key). Without a key, {@code create} simply runs.
+     *
+     * @param scope separates endpoints and submitters, e.g. "guest:" + email or "user:" + email
+     * @param requestHash {@link #requestHash} of the submitted ticket, taken before {@code create} changes it
+     * @throws IllegalArgumentException if the key is longer than 255 characters
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     * @throws TicketConflictException if the first request with the key is still running after idempotency.wait-ms
+     */
+    public Ticket createOnce(String scope, String idempotencyKey, String requestHash, Supplier<Ticket> create) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return create.get();
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(scope, idempotencyKey);
+        while (true) {
+            Entry mine = new Entry(requestHash);
+            Entry existing = entries.putIfAbsent(key, mine);
+            if (existing != null) {
+                if (isExpired(existing) && existing.ticketId.isDone()) {
+                    entries.remove(key, existing);
+                    continue;
+                }
+                if (!existing.requestHash.equals(requestHash)) throw mismatch();
+                Long ticketId = await(existing);
+                // null: the first request failed and released the key, so try again as the owner
+                if (ticketId != null) return replay(ticketId);
+                continue;
+            }
+            order.add(key);
+            evictOverflow();
+            return run(key, mine, create);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.purge-interval-ms:60000}",
+            fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().ticketId.isDone() && isExpired(e.getValue()));
+        order.removeIf(k -> !entries.containsKey(k));
+        if (persist) {
+            jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at < ?", cutoff());
+        }
+    }
+
+    private Ticket run(Key key, Entry mine, Supplier<Ticket> create) {
+        try {
+            Ticket result = persist
+                    ? transactionTemplate.execute(status -> claimAndCreate(key, mine.requestHash, create))
+                    : create.get();
+            mine.ticketId.complete(result.getId());
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, mine);
+            mine.ticketId.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // The claim row, the ticket and the ticket id on the claim commit together or not at all,
+    // so a crash never leaves a claim without its ticket
+    private Ticket claimAndCreate(Key key, String requestHash, Supplier<Ticket> create) {
+        Long recorded = claim(key, requestHash);
+        if (recorded != null) return replay(recorded);
+        Ticket created = create.get();
+        jdbcTemplate.update("UPDATE idempotency_key SET ticket_id = ? WHERE scope = ? AND idem_key = ?",
+                created.getId(), key.scope(), key.key());
+        return created;
+    }
+
+    /**
+     * Claim the key in idempotency_key. A concurrent claim of the same key on another node
+     * holds the row until its transaction ends; the INSERT waits for it and then either sees
+     * its ticket or, if it rolled back, takes the key.
+     *
+     * @return the ticket an earlier request recorded for the key, or null if the key is now ours
+     */
+    private Long claim(Key key, String requestHash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(CLAIM_SQL, key.scope(), key.key(), requestHash, now) == 1) return null;
+        if (jdbcTemplate.update(RECLAIM_SQL, requestHash, now, key.scope(), key.key(), cutoff()) == 1) return null;
+        List<Recorded> recorded = jdbcTemplate.query(
+                "SELECT ticket_id, request_hash FROM idempotency_key WHERE scope = ? AND idem_key = ?",
+                (rs, rowNum) -> new Recorded(rs.getObject(1, Long.class), rs.getString(2)), key.scope(), key.key());
+        if (recorded.isEmpty()) {
+            // Purged in between
+            if (jdbcTemplate.update(CLAIM_SQL, key.scope(), key.key(), requestHash, now) == 1) return null;
+            throw inProgress();
+        }
+        if (!requestHash.equals(recorded.get(0).requestHash())) throw mismatch();
+        return recorded.get(0).ticketId();
+    }
+
+    // Ticket id of the finished request, or null if it failed
+    private Long await(Entry entry) {
+        try {
+            return entry.ticketId.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private Ticket replay(Long ticketId) {
+        replayed.increment();
+        return ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+    }
+
+    // Drops the oldest completed keys once the map is over capacity; in-flight keys are skipped
+    private void evictOverflow() {
+        int budget = order.size();
+        while (entries.size() > maxEntries && budget-- > 0) {
+            Key oldest = order.poll();
+            if (oldest == null) return;
+            Entry entry = entries.get(oldest);
+            if (entry == null) continue;
+            if (entry.ticketId.isDone()) {
+                entries.remove(oldest, entry);
+            } else {
+                order.add(oldest);
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.createdAtNanos > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    private Timestamp cutoff() {
+        return Timestamp.valueOf(LocalDateTime.now().minusSeconds(ttlSeconds));
+    }
+
+    /** Lower-cased submitter email for scopes; "" for anonymous submissions. */
+    public static String submitter(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** SHA-256 over the submitted ticket fields that decide what gets created. */
+    public static String requestHash(Ticket ticket) {
+        String canonical = String.join("\u0000",
+                String.valueOf(ticket.getTitle()),
+                String.valueOf(ticket.getDescription()),
+                String.valueOf(ticket.getPriority()),
+                String.valueOf(ticket.getCategory()),
+                String.valueOf(ticket.getCreatedBy()),
+                String.valueOf(ticket.getProduct() != null ? ticket.getProduct().getId() : null),
+                String.valueOf(ticket.getOrganizationId()),
+                String.valueOf(ticket.isGuest()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static IdempotencyKeyMismatchException mismatch() {
+        return new IdempotencyKeyMismatchException("This Idempotency-Key was already used for a different request");
+    }
+
+    private static TicketConflictException inProgress() {
+        return new TicketConflictException("A request with this Idempotency-Key is still in progress");
+    }
+}
@@ -0,0 +1,118 @@
+package com.ziohelp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ziohelp.entity.OutboxEvent;
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records ticket side effects in the outbox table, one row per ticket change carrying all of
+ * that change's effects in delivery order. {@link #record} must run inside the transaction
+ * that changes the ticket, so the effects are committed (or rolled back) with it;
+ * {@link OutboxDispatcher} delivers them afterwards, off the request thread.
+ */
+@Service
+public class TicketOutbox {
+
+    // Effect column of a change row; its payload maps effect names to their arguments
+    public static final String TICKET_CHANGE = "TICKET_CHANGE";
+
+    public static final String NOTIFICATION = "NOTIFICATION";
+    public static final String TICKET_EVENT = "TICKET_EVENT";
+    public static final String AUDIT = "AUDIT";
+    public static final String BULK_TICKET_EVENT = "BULK_TICKET_EVENT";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** The effects of one ticket change, in the order they are delivered. */
+    public static final class Effects {
+        private final Ticket ticket;
+        private final Map<String, Map<String, Object>> effects = new LinkedHashMap<>();
+
+        private Effects(Ticket ticket) {
+            this.ticket = ticket;
+        }
+
+        /** System-wide message, see {@link NotificationService#sendNotification(String)}. */
+        public Effects notification(String message) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("message", message);
+            effects.put(NOTIFICATION, payload);
+            return this;
+        }
+
+        /** Broadcast on /topic/ticket-events, see {@link NotificationService#sendTicketEvent(String, Ticket)}. */
+        public Effects ticketEvent(String eventType) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("eventType", eventType);
+            payload.put("ticketId", ticket.getId());
+            payload.put("ticketTitle", ticket.getTitle());
+            effects.put(TICKET_EVENT, payload);
+            return this;
+        }
+
+        /** Broadcast of one change to many tickets, see {@link NotificationService#sendBulkTicketEvent}. */
+        public Effects bulkTicketEvent(String eventType, List<Long> ticketIds, Map<String, Object> changes) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("eventType", eventType);
+            payload.put("ticketIds", ticketIds);
+            payload.put("changes", changes);
+            effects.put(BULK_TICKET_EVENT, payload);
+            return this;
+        }
+
+        public Effects audit(String action, String details, String userEmail) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("action", action);
+            payload.put("details", details);
+            payload.put("userEmail", userEmail);
+            effects.put(AUDIT, payload);
+            return this;
+        }
+    }
+
+    public Effects effectsOf(Ticket ticket) {
+        return new Effects(ticket);
+    }
+
+    /** Effects of a change to many tickets; not ordered with the effects of any single ticket. */
+    public Effects effectsOfMany() {
+        return new Effects(null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Effects change) {
+        if (change.effects.isEmpty()) return;
+        Long ticketId = change.ticket != null ? change.ticket.getId() : null;
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(change.effects);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload of ticket " + ticketId, e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(ticketId)
+                .effect(TICKET_CHANGE)
+                .payload(json)
+                .status(OutboxDispatcher.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+}
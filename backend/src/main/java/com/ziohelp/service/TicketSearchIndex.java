@@ -0,0 +1,230 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over ticket title and description, segmented by product.
+ *
+ * Each segment maps terms to compressed {@link PostingList}s whose weight is the term
+ * frequency with title hits boosted. Queries require every query token to match (the
+ * token itself or, for tokens of 3+ characters, any indexed term it prefixes) and rank
+ * by tf-idf. The index is built from the database at startup and kept current from
+ * {@link TicketChangedEvent}s after commit, so rolled-back tickets never become searchable.
+ */
+@Component
+public class TicketSearchIndex extends RebuildableIndex<TicketSearchIndex.Doc, TicketSearchIndex.Segment> {
+
+    private static final int TITLE_BOOST = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int CHUNK_SIZE = 1000;
+
+    record Doc(String title, String description) {
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    public TicketSearchIndex() {
+        super("Ticket search index", CHUNK_SIZE);
+    }
+
+    public void index(Ticket ticket) {
+        if (ticket == null || ticket.getId() == null) return;
+        put(ticket.getId(), segmentOf(ticket.getProduct() != null ? ticket.getProduct().getId() : null),
+                new Doc(ticket.getTitle(), ticket.getDescription()));
+    }
+
+    /** Re-index a committed ticket write whose text may have changed, or drop a deleted ticket. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (event.after() == null) {
+            remove(event.ticketId());
+        } else if (event.content() != null) {
+            index(event.content());
+        }
+    }
+
+    /**
+     * Ticket ids matching every token of the query, best first.
+     *
+     * @param productId restrict to one product, or null to search all products
+     */
+    public List<Long> search(Long productId, String query, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) return new ArrayList<>();
+        List<Map.Entry<Long, Double>> ranked = rank(collect(productId, segment -> segment.search(tokens)), limit);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    @Override
+    public String name() {
+        return "tickets";
+    }
+
+    @Override
+    protected void addStats(Collection<Segment> segments, Map<String, Object> stats) {
+        int terms = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                terms += segment.postings.size();
+                for (PostingList postings : segment.postings.values()) {
+                    bytes += postings.sizeInBytes();
+                }
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        stats.put("terms", terms);
+        stats.put("postingsBytes", bytes);
+    }
+
+    @Override
+    protected List<Object[]> rowsAfter(Long afterId, int limit) {
+        return ticketRepository.findSearchRowsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    protected Doc documentOf(Object[] row) {
+        return new Doc((String) row[2], (String) row[3]);
+    }
+
+    @Override
+    protected int contentHash(Doc doc) {
+        return Objects.hash(doc.title(), doc.description());
+    }
+
+    @Override
+    protected Segment newSegment() {
+        return new Segment();
+    }
+
+    static final class Segment implements IndexSegment<Doc> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final TreeMap<String, PostingList> postings = new TreeMap<>();
+        final Map<Long, IndexedDoc> docs = new HashMap<>();
+
+        @Override
+        public void put(long id, Doc doc) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String token : SearchTokenizer.tokenize(doc.title())) {
+                weights.merge(token, TITLE_BOOST, Integer::sum);
+            }
+            for (String token : SearchTokenizer.tokenize(doc.description())) {
+                weights.merge(token, 1, Integer::sum);
+            }
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), k -> new PostingList()).add(id, entry.getValue());
+                }
+                docs.put(id, new IndexedDoc(weights.keySet().toArray(new String[0]), Objects.hash(doc.title(), doc.description())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean hasContent(long id, int hash) {
+            lock.readLock().lock();
+            try {
+                IndexedDoc doc = docs.get(id);
+                return doc != null && doc.contentHash == hash;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<Long, Double> search(List<String> tokens) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> result = null;
+                int totalDocs = Math.max(1, docs.size());
+                for (String token : tokens) {
+                    Map<Long, Double> tokenScores = new HashMap<>();
+                    accumulate(token, 1.0, totalDocs, tokenScores);
+                    if (token.length() >= 3) {
+                        int expansions = 0;
+                        for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                            if (++expansions > MAX_PREFIX_EXPANSIONS) break;
+                            accumulate(term, 0.5, totalDocs, tokenScores);
+                        }
+                    }
+                    if (result == null) {
+                        result = tokenScores;
+                    } else {
+                        Map<Long, Double> both = new HashMap<>();
+                        for (Map.Entry<Long, Double> entry : result.entrySet()) {
+                            Double score = tokenScores.get(entry.getKey());
+                            if (score != null) both.put(entry.getKey(), entry.getValue() + score);
+                        }
+                        result = both;
+                    }
+                    if (result.isEmpty()) break;
+                }
+                return result != null ? result : new HashMap<>();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void accumulate(String term, double factor, int totalDocs, Map<Long, Double> scores) {
+            PostingList list = postings.get(term);
+            if (list == null) return;
+            double idf = Math.log(1.0 + (double) totalDocs / list.docCount());
+            list.forEach((docId, weight) -> scores.merge(docId, factor * weight * idf, Double::sum));
+        }
+
+        private void removeLocked(long id) {
+            IndexedDoc doc = docs.remove(id);
+            if (doc == null) return;
+            for (String term : doc.terms) {
+                PostingList list = postings.get(term);
+                if (list != null && list.remove(id) && list.docCount() == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static final class IndexedDoc {
+        final String[] terms;
+        final int contentHash;
+
+        IndexedDoc(String[] terms, int contentHash) {
+            this.terms = terms;
+            this.contentHash = contentHash;
+        }
+    }
+}
@@ -1,30 +1,114 @@
 package com.ziohelp.service;
 
+import com.ziohelp.dto.CursorPageResponse;
+import com.ziohelp.dto.TicketCursor;
+import com.ziohelp.dto.TicketStateChange;
+import com.ziohelp.dto.TicketSummary;
+import com.ziohelp.entity.Attachment;
+import com.ziohelp.entity.Comment;
+import com.ziohelp.entity.Organization;
 import com.ziohelp.entity.Ticket;
 import com.ziohelp.entity.Product;
+import com.ziohelp.entity.TicketHistory;
+import com.ziohelp.entity.User;
 import com.ziohelp.exception.ResourceNotFoundException;
+import com.ziohelp.exception.TicketConflictException;
+import com.ziohelp.repository.AttachmentRepository;
+import com.ziohelp.repository.CommentRepository;
 import com.ziohelp.repository.TicketRepository;
 import com.ziohelp.repository.ProductRepository;
+import com.ziohelp.repository.TicketHistoryRepository;
+import com.ziohelp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TicketService {
 
     @Autowired
     private TicketRepository ticketRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private TicketSearchIndex ticketSearchIndex;
+
+    @Autowired
+    private TicketSimilarityIndex ticketSimilarityIndex;
+
+    @Autowired
+    private TicketHistoryRepository ticketHistoryRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TicketOutbox ticketOutbox;
+
+    @Autowired
+    private TicketAssignmentEngine ticketAssignmentEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Autowired
+    private TicketCounterStore ticketCounterStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketEventLog ticketEventLog;
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Upper bound on ranked ids taken from the search index per query
+    @Value("${search.ticket.max-candidates:1000}")
+    private int maxSearchCandidates;
+
+    @Value("${tickets.similarity.flag-on-submit:true}")
+    private boolean flagDuplicatesOnSubmit;
+
+    @Value("${tickets.similarity.max-flagged:5}")
+    private int maxFlaggedDuplicates;
+
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
     }
@@ -39,6 +123,18 @@ public class TicketService {
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
     }
 
+    /**
+     * The ticket as stored now. Conditional updates bypass the persistence context, so a copy
+     * loaded earlier in the request is refreshed rather than returned stale.
+     */
+    @Transactional(readOnly = true)
+    public Ticket getCurrentTicket(Long id) {
+        Ticket ticket = getTicketById(id);
+        entityManager.refresh(ticket);
+        return ticket;
+    }
+
+    @Transactional
     public Ticket createTicket(Ticket ticket) {
         // Validate product exists
         if (ticket.getProduct() != null && ticket.getProduct().getId() != null) {
@@ -58,19 +154,94 @@ public class TicketService {
             ticket.setPriority("MEDIUM");
         }
         
-        return ticketRepository.save(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        flagPossibleDuplicates(saved);
+        eventPublisher.publishEvent(TicketChangedEvent.created(saved));
+        ticketEventLog.append(saved.getId(), TicketEventLog.CREATED, saved.getCreatedBy(), null, saved.getStatus(), saved.getTitle());
+        return saved;
     }
 
+    @Transactional
     public Ticket updateTicket(Ticket ticket) {
+        TicketChangedEvent.State before = ticket.getId() != null ? storedState(ticket.getId()) : null;
         ticket.setUpdatedAt(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.updated(before, saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteTicket(Long id) {
-        if (!ticketRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Ticket not found with id: " + id);
-        }
-        ticketRepository.deleteById(id);
+        Ticket ticket = getTicketById(id);
+        TicketChangedEvent deleted = TicketChangedEvent.deleted(ticket);
+        ticketRepository.delete(ticket);
+        eventPublisher.publishEvent(deleted);
+    }
+
+    /**
+     * Save a ticket as submitted, without the defaults {@link #createTicket} applies.
+     *
+     * @param actor recorded as the creator in the ticket's event log
+     */
+    @Transactional
+    public Ticket saveNewTicket(Ticket ticket, String actor) {
+        Ticket saved = ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.created(saved));
+        ticketEventLog.append(saved.getId(), TicketEventLog.CREATED, actor, null, saved.getStatus(), saved.getTitle());
+        return saved;
+    }
+
+    @Transactional
+    public Ticket updateCategory(Ticket ticket, String category, String changedBy) {
+        String previousCategory = ticket.getCategory();
+        TicketChangedEvent.State before = TicketChangedEvent.State.of(ticket);
+        ticket.setCategory(category);
+        Ticket saved = ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.transitioned(saved.getId(), before, TicketChangedEvent.State.of(saved)));
+        ticketEventLog.append(saved.getId(), TicketEventLog.UPDATED, changedBy, previousCategory, category, "category");
+        return saved;
+    }
+
+    /** Save a comment on the ticket together with its COMMENTED event. */
+    @Transactional
+    public Comment addComment(Ticket ticket, Comment comment) {
+        comment.setTicket(ticket);
+        comment.setCreatedAt(LocalDateTime.now());
+        Comment saved = commentRepository.save(comment);
+        ticketEventLog.append(ticket.getId(), TicketEventLog.COMMENTED, saved.getAuthor(), null, String.valueOf(saved.getId()), saved.getMessage());
+        return saved;
+    }
+
+    /** Save an attachment of the ticket together with its ATTACHMENT_ADDED event. */
+    @Transactional
+    public Attachment addAttachment(Ticket ticket, Attachment attachment, String actor) {
+        attachment.setTicket(ticket);
+        Attachment saved = attachmentRepository.save(attachment);
+        ticketEventLog.append(ticket.getId(), TicketEventLog.ATTACHMENT_ADDED, actor, null, String.valueOf(saved.getId()), saved.getFilename());
+        return saved;
+    }
+
+    /** Save a history note on the ticket together with its NOTE event. */
+    @Transactional
+    public TicketHistory addHistory(Ticket ticket, TicketHistory history, String actor) {
+        history.setTicket(ticket);
+        history.setTimestamp(LocalDateTime.now());
+        TicketHistory saved = ticketHistoryRepository.save(history);
+        ticketEventLog.append(ticket.getId(), TicketEventLog.NOTE, actor, null, saved.getAction(), saved.getDetail());
+        return saved;
+    }
+
+    /**
+     * The ticket's columns as stored, read past any managed entity the caller may already have
+     * changed; null if the ticket does not exist.
+     */
+    public TicketChangedEvent.State storedState(Long ticketId) {
+        List<TicketChangedEvent.State> rows = jdbcTemplate.query(
+                "SELECT organization_id, product_id, status, priority, category, assigned_to_id FROM ticket WHERE id = ?",
+                (rs, rowNum) -> new TicketChangedEvent.State(rs.getObject(1, Long.class), rs.getObject(2, Long.class),
+                        rs.getString(3), rs.getString(4), rs.getString(5), rs.getObject(6, Long.class)),
+                ticketId);
+        return rows.isEmpty() ? null : rows.get(0);
     }
     
     // ==== PRODUCT-SPECIFIC METHODS ====
@@ -78,15 +249,36 @@ public class TicketService {
     /**
      * Get tickets by product ID
      */
-    public Page<Ticket> getTicketsByProduct(Long productId, int page, int size) {
+    public Page<TicketSummary> getTicketsByProduct(Long productId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return ticketRepository.findByProduct_Id(productId, pageable);
+        return ticketRepository.findSummariesByProduct_Id(productId, pageable);
+    }
+
+    /**
+     * Get tickets by product ID using keyset pagination on (createdAt, id).
+     * A null cursor returns the first page; the total is only counted when requested.
+     *
+     * @throws IllegalArgumentException for a size outside 1..{@link TicketCursor#MAX_PAGE_SIZE} or a foreign cursor
+     */
+    public CursorPageResponse<TicketSummary> getTicketsByProduct(Long productId, String cursor, int size, boolean includeCount) {
+        Pageable limit = PageRequest.of(0, TicketCursor.checkSize(size) + 1);
+        List<TicketSummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = ticketRepository.findByProduct_IdFirstKeysetPage(productId, limit);
+        } else {
+            TicketCursor after = TicketCursor.decode(cursor);
+            rows = ticketRepository.findByProduct_IdKeysetPageAfter(productId, after.getCreatedAt(), after.getId(), limit);
+        }
+        Long total = !includeCount ? null
+                : ticketCounterStore.isReady() ? ticketCounterStore.count(null, productId, null, null)
+                : ticketRepository.countByProduct_Id(productId);
+        return TicketCursor.toPage(rows, size, total);
     }
     
     /**
      * Get tickets by product domain (for public access)
      */
-    public Page<Ticket> getTicketsByProductDomain(String domain, int page, int size) {
+    public Page<TicketSummary> getTicketsByProductDomain(String domain, int page, int size) {
         Optional<Product> product = productRepository.findByDomain(domain);
         if (product.isPresent()) {
             return getTicketsByProduct(product.get().getId(), page, size);
@@ -126,15 +318,52 @@ public class TicketService {
     /**
      * Search tickets by keyword for a specific product
      */
-    public Page<Ticket> searchTicketsByProduct(Long productId, String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return ticketRepository.searchByProduct_IdAndKeyword(productId, keyword, pageable);
+    public Page<TicketSummary> searchTicketsByProduct(Long productId, String keyword, int page, int size) {
+        // The index cannot rank a query without indexable tokens (blank, punctuation, one-letter words)
+        if (!ticketSearchIndex.isReady() || SearchTokenizer.tokenize(keyword).isEmpty()) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            return ticketRepository.searchSummariesByProduct_IdAndKeyword(productId, keyword, pageable);
+        }
+        List<Long> rankedIds = ticketSearchIndex.search(productId, keyword, maxSearchCandidates);
+        return hydrateRankedPage(rankedIds, null, null, null, page, size);
+    }
+
+    /**
+     * Search all tickets by relevance, optionally filtered by status and creation date. A search
+     * without indexable tokens lists the filtered tickets newest first instead. When the range
+     * reaches the archive, archived matches follow the ranked live tickets.
+     *
+     * @throws IllegalArgumentException for pages too deep into the archive, see TicketArchiveService#findFilteredPage
+     */
+    public Page<TicketSummary> searchTickets(String status, LocalDateTime fromDate, LocalDateTime toDate, String search, int page, int size) {
+        if (!ticketSearchIndex.isReady() || SearchTokenizer.tokenize(search).isEmpty()) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            return ticketArchiveService.findFilteredPage(status, fromDate, toDate, search, pageable);
+        }
+        List<Long> rankedIds = ticketSearchIndex.search(null, search, maxSearchCandidates);
+        return ticketArchiveService.withArchivedMatches(hydrateRankedPage(rankedIds, status, fromDate, toDate, page, size),
+                status, fromDate, toDate, search);
+    }
+
+    /**
+     * Apply the remaining filters to ranked ids in one query, then load only the requested page.
+     */
+    private Page<TicketSummary> hydrateRankedPage(List<Long> rankedIds, String status, LocalDateTime fromDate, LocalDateTime toDate, int page, int size) {
+        List<Long> ids = rankedIds;
+        if (!rankedIds.isEmpty() && (status != null || fromDate != null || toDate != null)) {
+            Set<Long> matching = new HashSet<>(ticketRepository.findIdsMatchingFilters(rankedIds, status, fromDate, toDate));
+            ids = rankedIds.stream().filter(matching::contains).collect(Collectors.toList());
+        }
+        return RankedPages.hydrate(ids, page, size, ticketRepository::findSummariesByIdIn, TicketSummary::getId, summary -> true);
     }
     
     /**
      * Get ticket count by status for a product
      */
     public long getTicketCountByProductAndStatus(Long productId, String status) {
+        if (ticketCounterStore.isReady()) {
+            return ticketCounterStore.count(null, productId, status, null);
+        }
         return ticketRepository.countByProduct_IdAndStatus(productId, status);
     }
     
@@ -142,14 +371,14 @@ public class TicketService {
      * Get all statuses for tickets in a product
      */
     public List<String> getTicketStatusesByProduct(Long productId) {
-        return ticketRepository.findDistinctStatusesByProduct_Id(productId);
+        return dictionaryCache.ticketStatuses(productId);
     }
     
     /**
      * Get all categories for tickets in a product
      */
     public List<String> getTicketCategoriesByProduct(Long productId) {
-        return ticketRepository.findDistinctCategoriesByProduct_Id(productId);
+        return dictionaryCache.ticketCategories(productId);
     }
     
     /**
@@ -166,23 +395,233 @@ public class TicketService {
     }
     
     /**
-     * Update ticket status
+     * Move a ticket to {@code status} if {@link TicketStatusMachine} allows it from the
+     * ticket's current status, in one conditional update.
+     *
+     * @param expectedVersion version the caller last saw, or null to check the status only
+     * @throws IllegalArgumentException if the status is unknown
+     * @throws TicketConflictException if the transition is not allowed or the version changed
      */
-    public Ticket updateTicketStatus(Long ticketId, String status) {
-        Ticket ticket = getTicketById(ticketId);
-        ticket.setStatus(status);
-        ticket.setUpdatedAt(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+    @Transactional
+    public TicketStateChange updateTicketStatus(Long ticketId, String status, Long expectedVersion, String changedBy) {
+        String target = status == null ? null : status.trim().toUpperCase(Locale.ROOT);
+        if (!TicketStatusMachine.isKnown(target)) {
+            throw new IllegalArgumentException("Unknown ticket status: " + status);
+        }
+        Transition transition = conditionalUpdate(ticketId, "status = ?", target,
+                TicketStatusMachine.sourcesOf(target), expectedVersion, "moved to " + target);
+        afterStatusChange(transition, changedBy);
+        return transition.change();
     }
     
+    // ==== STATE CHANGES WITH SIDE EFFECTS ====
+    // Notifications, ticket events and audit entries go to the outbox in the same
+    // transaction as the change and are delivered by OutboxDispatcher after commit.
+
+    @Transactional
+    public Ticket raiseTicket(Ticket ticket, String createdBy) {
+        ticket.setStatus("OPEN");
+        ticket.setCreatedBy(createdBy);
+        ticket.setCreatedAt(LocalDateTime.now());
+        Ticket saved = ticketRepository.save(ticket);
+        flagPossibleDuplicates(saved);
+        eventPublisher.publishEvent(TicketChangedEvent.created(saved));
+        ticketEventLog.append(saved.getId(), TicketEventLog.CREATED, createdBy, null, saved.getStatus(), saved.getTitle());
+        ticketOutbox.record(ticketOutbox.effectsOf(saved)
+                .notification("New ticket created: " + saved.getTitle())
+                .ticketEvent("NEW")
+                .audit("TICKET_CREATE", "Created ticket: " + saved.getId(), createdBy));
+        return saved;
+    }
+
+    /**
+     * @param expectedVersion version the caller last saw, or null to check the status only
+     * @throws TicketConflictException if the ticket is already resolved or closed, or the version changed
+     */
+    @Transactional
+    public TicketStateChange resolveTicket(Long ticketId, String resolvedBy, Long expectedVersion) {
+        Transition transition = conditionalUpdate(ticketId, "status = ?", TicketStatusMachine.RESOLVED,
+                TicketStatusMachine.sourcesOf(TicketStatusMachine.RESOLVED), expectedVersion, "resolved");
+        afterStatusChange(transition, resolvedBy);
+        Ticket saved = transition.ticket();
+        ticketOutbox.record(ticketOutbox.effectsOf(saved)
+                .notification("Ticket resolved: " + saved.getTitle())
+                .ticketEvent("RESOLVED")
+                .audit("TICKET_RESOLVE", "Resolved ticket: " + saved.getId(), resolvedBy));
+        return transition.change();
+    }
+
+    /**
+     * @param expectedVersion version the caller last saw, or null to check the status only
+     * @throws TicketConflictException if the ticket is closed or the version changed
+     */
+    @Transactional
+    public TicketStateChange assignTicket(Long ticketId, User assignee, String changedBy, Long expectedVersion) {
+        return applyAssignment(ticketId, assignee, changedBy, false, expectedVersion).change();
+    }
+
+    /**
+     * Assign the ticket to the least-loaded developer of its organization. The update is
+     * conditional on the version of the ticket passed in.
+     *
+     * @return empty if the ticket has no organization or the organization has no developers
+     */
+    @Transactional
+    public Optional<TicketStateChange> autoAssignTicket(Ticket ticket) {
+        Long orgId = ticket.getOrganization() != null ? ticket.getOrganization().getId() : null;
+        if (orgId == null) return Optional.empty();
+        Optional<Long> developerId = ticketAssignmentEngine.claimLeastLoaded(orgId, assigneeId(ticket), ticket.getStatus());
+        if (developerId.isEmpty()) return Optional.empty();
+        User developer = userRepository.findById(developerId.get())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + developerId.get()));
+        return Optional.of(applyAssignment(ticket.getId(), developer, "system", true, ticket.getVersion()).change());
+    }
+
+    // Records the history row; changedBy is "system" for auto-assignment
+    private Transition applyAssignment(Long ticketId, User assignee, String changedBy, boolean automatic, Long expectedVersion) {
+        Transition transition = conditionalUpdate(ticketId, "assigned_to_id = ?", assignee.getId(),
+                TicketStatusMachine.ASSIGNABLE, expectedVersion, "assigned");
+        Ticket saved = transition.ticket();
+        ticketHistoryRepository.save(TicketHistory.builder()
+                .action("ASSIGNMENT")
+                .detail((automatic ? "Auto-assigned to developer: " : "Manually assigned to: ")
+                        + assignee.getFullName() + " (" + assignee.getEmail() + ")")
+                .changedBy(changedBy)
+                .timestamp(LocalDateTime.now())
+                .ticket(ticketRepository.getReferenceById(ticketId))
+                .build());
+        ticketEventLog.append(ticketId, TicketEventLog.ASSIGNED, changedBy, idValue(transition.change().getPreviousAssigneeId()),
+                idValue(assignee.getId()), assignee.getFullName() + " (" + assignee.getEmail() + ")");
+        ticketOutbox.record(ticketOutbox.effectsOf(saved)
+                .notification((automatic ? "Ticket auto-assigned: " : "Ticket assigned: ") + saved.getTitle())
+                .ticketEvent("ASSIGNED"));
+        return transition;
+    }
+
+    // ==== CONDITIONAL UPDATES ====
+    // A transition is a single UPDATE that only matches while the ticket is in one of the
+    // allowed statuses (and at the caller's version, if given). The locked sub-select supplies
+    // the values before the change to RETURNING, so no separate read is needed.
+
+    private static final String TRANSITION_SQL =
+            "UPDATE ticket t SET %s, version = COALESCE(t.version, 0) + 1, updated_at = ? " +
+            "FROM (SELECT id, status, assigned_to_id FROM ticket WHERE id = ? FOR UPDATE) old " +
+            "WHERE t.id = old.id AND t.status IN (%s)%s " +
+            "RETURNING t.id, old.status, old.assigned_to_id, t.status, t.assigned_to_id, t.version, t.updated_at, " +
+            "t.title, t.priority, t.category, t.created_by, t.organization_id, t.product_id";
+
+    /** The change as reported to the caller, and the updated ticket's columns for side effects. */
+    private record Transition(TicketStateChange change, Ticket ticket) {
+    }
+
+    private Transition conditionalUpdate(Long ticketId, String assignment, Object value,
+                                         Set<String> fromStatuses, Long expectedVersion, String action) {
+        List<Object> args = new ArrayList<>();
+        args.add(value);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(ticketId);
+        args.addAll(fromStatuses);
+        if (expectedVersion != null) args.add(expectedVersion);
+        String sql = String.format(TRANSITION_SQL, assignment,
+                String.join(", ", Collections.nCopies(fromStatuses.size(), "?")),
+                expectedVersion != null ? " AND t.version = ?" : "");
+        List<Transition> rows = jdbcTemplate.query(sql, TicketService::mapTransition, args.toArray());
+        if (rows.isEmpty()) {
+            throw conflict(ticketId, expectedVersion, action);
+        }
+        Transition transition = rows.get(0);
+        TicketChangedEvent.State after = TicketChangedEvent.State.of(transition.ticket());
+        TicketStateChange change = transition.change();
+        eventPublisher.publishEvent(TicketChangedEvent.transitioned(ticketId, new TicketChangedEvent.State(after.organizationId(),
+                after.productId(), change.getPreviousStatus(), after.priority(), after.category(), change.getPreviousAssigneeId()), after));
+        return transition;
+    }
+
+    // Only reached when the update matched nothing, to say why
+    private RuntimeException conflict(Long ticketId, Long expectedVersion, String action) {
+        List<Object[]> current = jdbcTemplate.query("SELECT status, version FROM ticket WHERE id = ?",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getObject(2, Long.class)}, ticketId);
+        if (current.isEmpty()) {
+            return new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+        }
+        String status = (String) current.get(0)[0];
+        Long version = (Long) current.get(0)[1];
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            return new TicketConflictException("Ticket " + ticketId + " was modified by someone else (version "
+                    + version + ", expected " + expectedVersion + ")");
+        }
+        return new TicketConflictException("Ticket " + ticketId + " cannot be " + action + " while " + status);
+    }
+
+    private static Transition mapTransition(ResultSet rs, int rowNum) throws SQLException {
+        Long previousAssigneeId = rs.getObject(3, Long.class);
+        Long assigneeId = rs.getObject(5, Long.class);
+        Long organizationId = rs.getObject(12, Long.class);
+        Long productId = rs.getObject(13, Long.class);
+        LocalDateTime updatedAt = rs.getTimestamp(7).toLocalDateTime();
+        Ticket ticket = Ticket.builder()
+                .id(rs.getLong(1))
+                .status(rs.getString(4))
+                .version(rs.getLong(6))
+                .updatedAt(updatedAt)
+                .title(rs.getString(8))
+                .priority(rs.getString(9))
+                .category(rs.getString(10))
+                .createdBy(rs.getString(11))
+                .organization(organizationId != null ? Organization.builder().id(organizationId).build() : null)
+                .product(productId != null ? Product.builder().id(productId).build() : null)
+                .assignedTo(assigneeId != null ? User.builder().id(assigneeId).build() : null)
+                .build();
+        TicketStateChange change = TicketStateChange.builder()
+                .ticketId(ticket.getId())
+                .previousStatus(rs.getString(2))
+                .status(ticket.getStatus())
+                .previousAssigneeId(previousAssigneeId)
+                .assigneeId(assigneeId)
+                .version(ticket.getVersion())
+                .updatedAt(updatedAt)
+                .build();
+        return new Transition(change, ticket);
+    }
+
+    private void afterStatusChange(Transition transition, String changedBy) {
+        Ticket ticket = transition.ticket();
+        TicketStateChange change = transition.change();
+        ticketEventLog.append(ticket.getId(), TicketEventLog.STATUS_CHANGED, changedBy, change.getPreviousStatus(), change.getStatus(), null);
+    }
+
+    // Sets possibleDuplicateIds on a just-submitted ticket and records them in its history
+    private void flagPossibleDuplicates(Ticket saved) {
+        if (!flagDuplicatesOnSubmit) return;
+        List<TicketSimilarityIndex.Match> matches = ticketSimilarityIndex.findSimilar(saved, maxFlaggedDuplicates);
+        if (matches.isEmpty()) return;
+        saved.setPossibleDuplicateIds(matches.stream().map(TicketSimilarityIndex.Match::ticketId).toList());
+        ticketHistoryRepository.save(TicketHistory.builder()
+                .action("POSSIBLE_DUPLICATE")
+                .detail("Similar to " + matches.stream()
+                        .map(m -> "#" + m.ticketId() + " (" + Math.round(m.similarity() * 100) + "%)")
+                        .collect(Collectors.joining(", ")))
+                .changedBy("system")
+                .timestamp(LocalDateTime.now())
+                .ticket(saved)
+                .build());
+    }
+
+    private static String idValue(Long id) {
+        return id != null ? id.toString() : null;
+    }
+
+    private static Long assigneeId(Ticket ticket) {
+        return ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+    }
+
     /**
      * Assign ticket to user
      */
-    public Ticket assignTicket(Long ticketId, Long userId) {
-        Ticket ticket = getTicketById(ticketId);
-        // Assuming User entity exists and can be referenced
-        ticket.setAssignedTo(com.ziohelp.entity.User.builder().id(userId).build());
-        ticket.setUpdatedAt(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+    @Transactional
+    public TicketStateChange assignTicket(Long ticketId, Long userId) {
+        User assignee = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        return assignTicket(ticketId, assignee, "system", null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,288 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash signatures of ticket title + description with locality-sensitive hashing buckets,
+ * segmented by product, for finding near-duplicate tickets.
+ *
+ * A ticket's shingles are its {@link SearchTokenizer} tokens and adjacent token pairs. The
+ * signature has {@value #NUM_HASHES} minimum hashes split into {@value #BANDS} bands; tickets
+ * sharing any band are candidates, so pairs with a Jaccard similarity around 0.5 and above are
+ * found with high probability. Candidates are ranked by the fraction of equal signature
+ * positions (the Jaccard estimate) and kept from tickets.similarity.threshold on.
+ *
+ * Built from the database at startup and kept current from {@link TicketChangedEvent}s
+ * after commit, like {@link TicketSearchIndex}.
+ */
+@Component
+public class TicketSimilarityIndex extends RebuildableIndex<TicketSimilarityIndex.Doc, TicketSimilarityIndex.Segment> {
+
+    private static final int NUM_HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = NUM_HASHES / BANDS;
+    private static final int CHUNK_SIZE = 1000;
+
+    // Fixed seeds so signatures are identical across restarts and nodes
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_71C4E7L).longs(NUM_HASHES).toArray();
+
+    public record Match(Long ticketId, double similarity) {
+    }
+
+    record Doc(int[] signature, int contentHash) {
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Value("${tickets.similarity.threshold:0.5}")
+    private double threshold;
+
+    public TicketSimilarityIndex() {
+        super("Ticket similarity index", CHUNK_SIZE);
+    }
+
+    public void index(Ticket ticket) {
+        if (ticket == null || ticket.getId() == null) return;
+        put(ticket.getId(), segmentOf(ticket.getProduct() != null ? ticket.getProduct().getId() : null),
+                documentOf(ticket.getTitle(), ticket.getDescription()));
+    }
+
+    /** Re-index a committed ticket write whose text may have changed, or drop a deleted ticket. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (event.after() == null) {
+            remove(event.ticketId());
+        } else if (event.content() != null) {
+            index(event.content());
+        }
+    }
+
+    /**
+     * Tickets of the product whose text is near-identical to the given one, most similar first.
+     *
+     * @param productId product to look in; null looks at tickets without a product
+     * @param excludeId ticket to leave out (the ticket itself), may be null
+     */
+    public List<Match> findSimilar(Long productId, String title, String description, Long excludeId, int limit) {
+        int[] signature = signature(title, description);
+        if (signature == null || limit <= 0) return new ArrayList<>();
+        Segment segment = segment(segmentOf(productId));
+        if (segment == null) return new ArrayList<>();
+        List<Match> matches = segment.matches(signature, excludeId, threshold);
+        matches.sort((a, b) -> {
+            int bySimilarity = Double.compare(b.similarity(), a.similarity());
+            return bySimilarity != 0 ? bySimilarity : Long.compare(b.ticketId(), a.ticketId());
+        });
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /** Near-duplicates of a saved ticket within its product. */
+    public List<Match> findSimilar(Ticket ticket, int limit) {
+        return findSimilar(ticket.getProduct() != null ? ticket.getProduct().getId() : null,
+                ticket.getTitle(), ticket.getDescription(), ticket.getId(), limit);
+    }
+
+    @Override
+    public String name() {
+        return "ticket-similarity";
+    }
+
+    @Override
+    protected void addStats(Collection<Segment> segments, Map<String, Object> stats) {
+        int buckets = 0;
+        for (Segment segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                buckets += segment.buckets.size();
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        stats.put("buckets", buckets);
+        stats.put("threshold", threshold);
+    }
+
+    @Override
+    protected List<Object[]> rowsAfter(Long afterId, int limit) {
+        return ticketRepository.findSearchRowsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    // Tickets without any token are never indexed
+    @Override
+    protected Doc documentOf(Object[] row) {
+        return documentOf((String) row[2], (String) row[3]);
+    }
+
+    @Override
+    protected int contentHash(Doc doc) {
+        return doc.contentHash();
+    }
+
+    @Override
+    protected Segment newSegment() {
+        return new Segment();
+    }
+
+    private static Doc documentOf(String title, String description) {
+        int[] signature = signature(title, description);
+        return signature != null ? new Doc(signature, Objects.hash(title, description)) : null;
+    }
+
+    /** MinHash signature of the text, or null if it has no tokens. */
+    private static int[] signature(String title, String description) {
+        List<String> tokens = SearchTokenizer.tokenize(title);
+        tokens.addAll(SearchTokenizer.tokenize(description));
+        if (tokens.isEmpty()) return null;
+        Set<Long> shingles = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            shingles.add(fnv64(tokens.get(i)));
+            if (i + 1 < tokens.size()) shingles.add(fnv64(tokens.get(i) + ' ' + tokens.get(i + 1)));
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) (mix64(shingle ^ SEEDS[i]) >>> 33);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    // Band number in the high half so equal rows in different bands never share a bucket
+    private static long bandKey(int[] signature, int band) {
+        int h = 1;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            h = 31 * h + signature[i];
+        }
+        return ((long) band << 32) | (h & 0xFFFFFFFFL);
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static long fnv64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    static final class Segment implements IndexSegment<Doc> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, IndexedDoc> docs = new HashMap<>();
+        final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+        @Override
+        public void put(long id, Doc doc) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.computeIfAbsent(bandKey(doc.signature(), band), k -> new HashSet<>()).add(id);
+                }
+                docs.put(id, new IndexedDoc(doc.signature(), doc.contentHash()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean hasContent(long id, int hash) {
+            lock.readLock().lock();
+            try {
+                IndexedDoc doc = docs.get(id);
+                return doc != null && doc.contentHash == hash;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Match> matches(int[] signature, Long excludeId, double threshold) {
+            lock.readLock().lock();
+            try {
+                Set<Long> candidates = new HashSet<>();
+                for (int band = 0; band < BANDS; band++) {
+                    Set<Long> bucket = buckets.get(bandKey(signature, band));
+                    if (bucket != null) candidates.addAll(bucket);
+                }
+                if (excludeId != null) candidates.remove(excludeId);
+                List<Match> matches = new ArrayList<>();
+                for (Long candidate : candidates) {
+                    double similarity = estimate(signature, docs.get(candidate).signature);
+                    if (similarity >= threshold) matches.add(new Match(candidate, similarity));
+                }
+                return matches;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeLocked(long id) {
+            IndexedDoc doc = docs.remove(id);
+            if (doc == null) return;
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(doc.signature, band);
+                Set<Long> bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private static final class IndexedDoc {
+        final int[] signature;
+        final int contentHash;
+
+        IndexedDoc(int[] signature, int contentHash) {
+            this.signature = signature;
+            this.contentHash = contentHash;
+        }
+    }
+}
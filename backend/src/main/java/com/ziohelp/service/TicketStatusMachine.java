@@ -0,0 +1,46 @@
+package com.ziohelp.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Allowed ticket status transitions. Status changes are applied as a conditional update
+ * ({@code ... AND status IN (sourcesOf(target))}), so an illegal or concurrently
+ * invalidated transition simply matches no row.
+ */
+public final class TicketStatusMachine {
+
+    public static final String OPEN = "OPEN";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String RESOLVED = "RESOLVED";
+    public static final String CLOSED = "CLOSED";
+
+    private static final Map<String, Set<String>> TRANSITIONS = Map.of(
+            OPEN, Set.of(IN_PROGRESS, RESOLVED, CLOSED),
+            IN_PROGRESS, Set.of(OPEN, RESOLVED, CLOSED),
+            RESOLVED, Set.of(OPEN, IN_PROGRESS, CLOSED),
+            CLOSED, Set.of(OPEN));
+
+    /** Statuses in which a ticket can still be (re)assigned. */
+    public static final Set<String> ASSIGNABLE = Set.of(OPEN, IN_PROGRESS, RESOLVED);
+
+    private TicketStatusMachine() {
+    }
+
+    public static boolean isKnown(String status) {
+        return status != null && TRANSITIONS.containsKey(status);
+    }
+
+    public static boolean canTransition(String from, String to) {
+        return from != null && TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /** Statuses from which {@code target} can be reached. */
+    public static Set<String> sourcesOf(String target) {
+        return TRANSITIONS.entrySet().stream()
+                .filter(e -> e.getValue().contains(target))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
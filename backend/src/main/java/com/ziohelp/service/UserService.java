@@ -3,8 +3,10 @@ package com.ziohelp.service;
 import com.ziohelp.entity.User;
 import com.ziohelp.exception.ResourceNotFoundException;
 import com.ziohelp.repository.UserRepository;
+import com.ziohelp.security.TokenVersionCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +16,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -29,9 +34,20 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional
     public User disableUser(Long id) {
         User user = getUserById(id);
         user.setActive(false);
+        return saveRevokingTokens(user);
+    }
+
+    /**
+     * Save a user whose roles or status changed, invalidating the tokens issued before. The
+     * cached token version is only dropped once the new version is committed.
+     */
+    @Transactional
+    public User saveRevokingTokens(User user) {
+        tokenVersionCache.revoke(user);
         return userRepository.save(user);
     }
 } 
\ No newline at end of file
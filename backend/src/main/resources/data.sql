@@ -45,9 +45,17 @@ CREATE TABLE IF NOT EXISTS "user" (
     account_locked BOOLEAN NOT NULL DEFAULT false,
     locked_until TIMESTAMP,
     verification_token VARCHAR(255),
-    reset_token VARCHAR(255)
+    reset_token VARCHAR(255),
+    token_version INTEGER DEFAULT 0,
+    email_normalized VARCHAR(255),
+    username_normalized VARCHAR(100)
 );
 
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS token_version INTEGER DEFAULT 0;
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS email_normalized VARCHAR(255);
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS username_normalized VARCHAR(100);
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS assignment_capacity INTEGER;
+
 CREATE TABLE IF NOT EXISTS user_roles (
     user_id BIGINT NOT NULL REFERENCES "user"(id) ON DELETE CASCADE,
     role_id BIGINT NOT NULL REFERENCES roles(id) ON DELETE CASCADE,
@@ -70,6 +78,71 @@ CREATE TABLE IF NOT EXISTS ticket (
     assigned_to_id BIGINT REFERENCES "user"(id)
 );
 
+-- Optimistic version, bumped by every ticket update (JPA @Version and the conditional transitions)
+ALTER TABLE ticket ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+UPDATE ticket SET version = 0 WHERE version IS NULL;
+
+-- Keyset pagination order: (created_at, id) descending, overall and per product
+UPDATE ticket SET created_at = COALESCE(updated_at, NOW()) WHERE created_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_ticket_created_at_id ON ticket (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_ticket_product_created_at_id ON ticket (product_id, created_at DESC, id DESC);
+
+-- Cold tier: RESOLVED/CLOSED tickets past tickets.archive.retention-days, moved in chunks by
+-- TicketArchiveService. Relations are plain ids; comments, attachments and history are JSON arrays.
+CREATE TABLE IF NOT EXISTS ticket_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255),
+    description TEXT,
+    status VARCHAR(50),
+    priority VARCHAR(50),
+    created_by VARCHAR(255),
+    is_guest BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    category VARCHAR(100),
+    organization_id BIGINT,
+    product_id BIGINT,
+    assigned_to_id BIGINT,
+    version BIGINT,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    comments TEXT,
+    attachments TEXT,
+    history TEXT
+);
+CREATE INDEX IF NOT EXISTS idx_ticket_archive_created_at_id ON ticket_archive (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_ticket_archive_updated_at ON ticket_archive (updated_at);
+-- Archive candidates, oldest first
+CREATE INDEX IF NOT EXISTS idx_ticket_closed_updated_at ON ticket (updated_at, id) WHERE status IN ('RESOLVED', 'CLOSED');
+
+-- Append-only ticket event log; no FK so events outlive archiving and deletion
+CREATE TABLE IF NOT EXISTS ticket_event (
+    seq BIGSERIAL PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    type VARCHAR(30) NOT NULL,
+    actor VARCHAR(255),
+    from_value VARCHAR(255),
+    to_value VARCHAR(255),
+    detail VARCHAR(500),
+    occurred_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_ticket_event_ticket_seq ON ticket_event (ticket_id, seq);
+-- Commit-ordered position for consumers following the log, set after commit by TicketEventLog.sequenceCommitted
+ALTER TABLE ticket_event ADD COLUMN IF NOT EXISTS log_position BIGINT;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_ticket_event_position ON ticket_event (log_position);
+CREATE INDEX IF NOT EXISTS idx_ticket_event_unsequenced ON ticket_event (seq) WHERE log_position IS NULL;
+
+-- Idempotency-Key claims for ticket creation (used with idempotency.persist=true), committed with their ticket
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    scope VARCHAR(512) NOT NULL,
+    idem_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64),
+    ticket_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope, idem_key)
+);
+ALTER TABLE idempotency_key ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created_at ON idempotency_key (created_at);
+
 CREATE TABLE IF NOT EXISTS comment (
     id BIGSERIAL PRIMARY KEY,
     ticket_id BIGINT NOT NULL REFERENCES ticket(id) ON DELETE CASCADE,
@@ -97,6 +170,21 @@ CREATE TABLE IF NOT EXISTS audit_log (
     organization_id BIGINT REFERENCES organizations(id)
 );
 
+-- Transactional outbox: ticket side effects written with the ticket change, drained by OutboxDispatcher
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id BIGINT,
+    effect VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending ON outbox_event (next_attempt_at, id) WHERE status = 'PENDING';
+
 -- Create products table
 CREATE TABLE IF NOT EXISTS product (
     id BIGSERIAL PRIMARY KEY,
@@ -202,6 +290,14 @@ INSERT INTO user_roles (user_id, role_id) VALUES
 (17, 2)  -- Developer Admin is DEVELOPER
 ON CONFLICT (user_id, role_id) DO NOTHING;
 
+-- Backfill normalized lookup columns (kept in sync by the User entity on write)
+UPDATE "user" SET email_normalized = LOWER(TRIM(email))
+WHERE email_normalized IS DISTINCT FROM LOWER(TRIM(email));
+UPDATE "user" SET username_normalized = LOWER(TRIM(username))
+WHERE username_normalized IS DISTINCT FROM LOWER(TRIM(username));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_email_normalized ON "user" (email_normalized);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_username_normalized ON "user" (username_normalized);
+
 -- Sample Products
 INSERT INTO product (id, name, domain, logo_url, theme_color, description, version, status, category, is_active) VALUES
 (1, 'Machine Inventory System', 'inventory.acme.com', '/assets/inventory-logo.png', '#2563eb', 'Complete machine and equipment inventory management system', '2.1.0', 'ACTIVE', 'Enterprise Software', true),
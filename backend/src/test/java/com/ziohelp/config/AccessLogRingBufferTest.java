@@ -0,0 +1,84 @@
+package com.ziohelp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogRingBufferTest {
+
+    private final AccessLogRingBuffer buffer = new AccessLogRingBuffer(64);
+
+    @BeforeEach
+    void setUp() {
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.stop();
+    }
+
+    @Test
+    void publishedRecordsAreWritten() {
+        for (int i = 0; i < 40; i++) {
+            buffer.publish("GET", "/api/tickets", "/api/tickets?page=" + i, 200, 1_000_000);
+        }
+
+        awaitTrue(() -> written("GET /api/tickets") == 40);
+        assertEquals(0, buffer.droppedCount());
+    }
+
+    @Test
+    void stalledProducerIsSkippedAndCannotPublishIntoTheReusedSlot() {
+        long stalled = buffer.claim();
+        assertTrue(buffer.begin(stalled));
+        for (int i = 0; i < 10; i++) {
+            buffer.publish("GET", "/api/tickets", "/api/tickets", 200, 1_000_000);
+        }
+
+        // The writer gives up on the stalled slot after its timeout and writes the rest
+        awaitTrue(() -> written("GET /api/tickets") == 10);
+        assertEquals(1, buffer.droppedCount());
+
+        // The late producer's publish fails and hands the slot to the next lap
+        buffer.complete(stalled);
+        for (int i = 0; i < 64; i++) {
+            buffer.publish("POST", "/api/tickets", "/api/tickets", 201, 1_000_000);
+        }
+
+        awaitTrue(() -> written("POST /api/tickets") == 64);
+        assertEquals(1, buffer.droppedCount());
+        assertEquals(10, written("GET /api/tickets"));
+    }
+
+    @Test
+    void idleWriterParksInsteadOfPolling() {
+        buffer.publish("GET", "/api/tickets", "/api/tickets", 200, 1_000_000);
+        awaitTrue(() -> written("GET /api/tickets") == 1);
+
+        // Parked without a timeout until the next publish
+        awaitTrue(() -> buffer.writer.getState() == Thread.State.WAITING);
+
+        buffer.publish("GET", "/api/tickets", "/api/tickets", 200, 1_000_000);
+        awaitTrue(() -> written("GET /api/tickets") == 2);
+    }
+
+    private long written(String route) {
+        LatencyHistogram histogram = buffer.histograms().get(route);
+        return histogram == null ? 0 : histogram.count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.onSpinWait();
+        }
+    }
+}
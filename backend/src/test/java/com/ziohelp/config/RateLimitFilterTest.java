@@ -0,0 +1,105 @@
+package com.ziohelp.config;
+
+import com.ziohelp.service.ProductDomainCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Spy
+    private RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), 60, 120, 5, 10, 20, 60, 600, 1200, 50, 100, 300);
+
+    @Mock
+    private ProductDomainCache productDomainCache;
+
+    @InjectMocks
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+        lenient().when(productDomainCache.isKnown(anyString())).thenReturn(false);
+    }
+
+    @Test
+    void sixthGuestSubmissionIsRejected() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("POST", "/api/tickets/guest", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = send("POST", "/api/tickets/guest", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(200, send("POST", "/api/tickets/guest", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void statusLookupsHaveTheirOwnLimit() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            send("POST", "/api/tickets/guest", "10.0.0.1");
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, send("GET", "/api/tickets/guest/42/guest@example.com", "10.0.0.1").getStatus());
+        }
+        assertEquals(429, send("GET", "/api/tickets/guest/42/guest@example.com", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void inventedDomainsDoNotBypassTheClientLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("POST", "/api/product-help/public/random-" + i + "/ticket", "10.0.0.1").getStatus());
+        }
+
+        assertEquals(429, send("POST", "/api/product-help/public/random-99/ticket", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void knownDomainIsChargedOnTopOfTheClient() throws Exception {
+        when(productDomainCache.isKnown("acme.example.com")).thenReturn(true);
+
+        send("GET", "/api/product-help/public/acme.example.com/search", "10.0.0.1");
+
+        // client bucket + domain bucket
+        assertEquals(2, rateLimiter.bucketCount());
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("POST", "/api/tickets/guestbook", "10.0.0.1").getStatus());
+        }
+
+        assertEquals(0, rateLimiter.bucketCount());
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request(method, uri, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
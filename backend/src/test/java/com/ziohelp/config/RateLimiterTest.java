@@ -0,0 +1,80 @@
+package com.ziohelp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // public-help 3 per IP, 5 per domain; guest-ticket 2 per IP, 3 per domain; lookups 4 per IP
+    private final RateLimiter rateLimiter = new RateLimiter(meterRegistry, 3, 60, 2, 60, 4, 60, 5, 60, 3, 60, 300);
+
+    @Test
+    void burstIsAdmittedThenRejectedWithWaitTime() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.1", null));
+        }
+        long wait = rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.1", null);
+
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "wait " + wait);
+        assertEquals(1.0, meterRegistry.get("ziohelp.ratelimit.requests")
+                .tag("group", RateLimiter.GROUP_PUBLIC_HELP).tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.1", null);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.2", null));
+    }
+
+    @Test
+    void domainsDoNotAddPerClientBuckets() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.1", "product-" + i + ".example.com"));
+        }
+
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.GROUP_PUBLIC_HELP, "10.0.0.1", "product-9.example.com") > 0);
+        // One bucket for the client plus one per domain it used
+        assertEquals(4, rateLimiter.bucketCount());
+    }
+
+    @Test
+    void knownDomainIsLimitedAcrossClients() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0." + i, "acme.example.com"));
+        }
+
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.9", "acme.example.com") > 0);
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.9", "other.example.com"));
+    }
+
+    @Test
+    void rejectedClientDoesNotDrainTheDomain() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.1", "acme.example.com");
+        }
+
+        // 10.0.0.1 got 2 tokens from the domain before its own bucket ran dry
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.2", "acme.example.com"));
+    }
+
+    @Test
+    void lookupsAndSubmissionsAreLimitedSeparately() {
+        for (int i = 0; i < 2; i++) {
+            rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.1", null);
+        }
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_TICKET, "10.0.0.1", null) > 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_LOOKUP, "10.0.0.1", null));
+        }
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.GROUP_GUEST_LOOKUP, "10.0.0.1", null) > 0);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ziohelp.controller;
+
+import com.ziohelp.dto.ApiError;
+import com.ziohelp.dto.LoginRequest;
+import com.ziohelp.entity.User;
+import com.ziohelp.repository.UserRepository;
+import com.ziohelp.security.LoginAttemptTracker;
+import com.ziohelp.service.AuditLogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login lockout as a client sees it: wrong passwords are 400/1002 until the third, after which
+ * every attempt, the right password included, is 429/1008 with Retry-After. The password
+ * encoder mock rejects every password.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthControllerLoginTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Spy
+    private LoginAttemptTracker loginAttemptTracker = new LoginAttemptTracker(3, 60, 300);
+
+    @InjectMocks
+    private AuthController authController;
+
+    private final User alice = User.builder()
+            .id(7L)
+            .email("alice@example.com")
+            .username("alice")
+            .password("hash")
+            .active(true)
+            .approved(true)
+            .emailVerified(true)
+            .build();
+
+    @Test
+    void thirdWrongPasswordLocksOutEvenTheRightOne() {
+        when(userRepository.findByEmailIgnoreCase("alice@example.com")).thenReturn(Optional.of(alice));
+
+        for (int i = 0; i < 3; i++) {
+            assertError(400, 1002, authController.login(byEmail("wrong")));
+        }
+        ResponseEntity<?> locked = authController.login(byEmail("right"));
+
+        assertError(429, 1008, locked);
+        assertNotNull(locked.getHeaders().getFirst("Retry-After"));
+        verify(auditLogService).logActivity(eq("ACCOUNT_LOCKED"), anyString(), eq("alice@example.com"));
+        verify(passwordEncoder, times(3)).matches(anyString(), eq("hash"));
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void failuresByEmailAndByUsernameLockTheSameAccount() {
+        when(userRepository.findByEmailIgnoreCase("alice@example.com")).thenReturn(Optional.of(alice));
+        when(userRepository.findByUsernameIgnoreCase("alice")).thenReturn(Optional.of(alice));
+
+        authController.login(byEmail("wrong"));
+        authController.login(byUsername("wrong"));
+        authController.login(byEmail("wrong"));
+
+        assertError(429, 1008, authController.login(byUsername("right")));
+    }
+
+    @Test
+    void lockPersistedBeforeARestartIsHonoured() {
+        alice.setAccountLocked(true);
+        alice.setLockedUntil(LocalDateTime.now().plusMinutes(10));
+        when(userRepository.findByEmailIgnoreCase("alice@example.com")).thenReturn(Optional.of(alice));
+
+        assertError(429, 1008, authController.login(byEmail("right")));
+        verifyNoInteractions(passwordEncoder, authenticationManager);
+    }
+
+    @Test
+    void unknownEmailIsThrottledToo() {
+        when(userRepository.findByEmailIgnoreCase("nobody@example.com")).thenReturn(Optional.empty());
+        LoginRequest request = new LoginRequest();
+        request.setEmail("nobody@example.com");
+        request.setPassword("guess");
+
+        for (int i = 0; i < 3; i++) {
+            assertError(400, 1001, authController.login(request));
+        }
+
+        assertError(429, 1008, authController.login(request));
+    }
+
+    private static LoginRequest byEmail(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("alice@example.com");
+        request.setPassword(password);
+        return request;
+    }
+
+    private static LoginRequest byUsername(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("alice");
+        request.setPassword(password);
+        return request;
+    }
+
+    private static void assertError(int status, int code, ResponseEntity<?> response) {
+        assertEquals(status, response.getStatusCode().value());
+        assertEquals(code, ((ApiError) response.getBody()).getCode());
+    }
+}
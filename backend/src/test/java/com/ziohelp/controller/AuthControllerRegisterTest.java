@@ -0,0 +1,45 @@
+package com.ziohelp.controller;
+
+import com.ziohelp.dto.ApiError;
+import com.ziohelp.dto.RegisterRequest;
+import com.ziohelp.repository.UserRepository;
+import com.ziohelp.service.AuditLogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerRegisterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @InjectMocks
+    private AuthController authController;
+
+    @Test
+    void emailDifferingOnlyInCaseIsAlreadyInUse() {
+        when(userRepository.existsByEmailNormalized("alice@example.com")).thenReturn(true);
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("  Alice@Example.COM ");
+        request.setPassword("secret");
+
+        ResponseEntity<?> response = authController.register(request);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(1006, ((ApiError) response.getBody()).getCode());
+        verify(userRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ziohelp.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketCursorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+
+    @Test
+    void extraRowSignalsNextPageAndCursorPointsAtLastReturnedRow() {
+        List<TicketSummary> rows = rows(4);
+
+        CursorPageResponse<TicketSummary> page = TicketCursor.toPage(rows, 3, null);
+
+        assertTrue(page.isHasNext());
+        assertEquals(3, page.getContent().size());
+        TicketCursor next = TicketCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(2).getId(), next.getId());
+        assertEquals(rows.get(2).getCreatedAt(), next.getCreatedAt());
+        assertNull(page.getTotalElements());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPageResponse<TicketSummary> page = TicketCursor.toPage(rows(3), 3, 3L);
+
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(3, page.getContent().size());
+        assertEquals(3L, page.getTotalElements());
+    }
+
+    @Test
+    void emptyResultIsAnEmptyLastPage() {
+        CursorPageResponse<TicketSummary> page = TicketCursor.toPage(List.of(), 20, null);
+
+        assertFalse(page.isHasNext());
+        assertTrue(page.getContent().isEmpty());
+    }
+
+    @Test
+    void nonPositiveSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.toPage(rows(1), 0, null));
+    }
+
+    @Test
+    void sizeAboveTheMaximumIsRejectedBeforeAnythingIsFetched() {
+        assertEquals(TicketCursor.MAX_PAGE_SIZE, TicketCursor.checkSize(TicketCursor.MAX_PAGE_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.checkSize(TicketCursor.MAX_PAGE_SIZE + 1));
+        // size + 1 would overflow to a negative page size
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.checkSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        TicketCursor cursor = TicketCursor.decode(new TicketCursor(NOW, 987L).encode());
+
+        assertEquals(NOW, cursor.getCreatedAt());
+        assertEquals(987L, cursor.getId());
+    }
+
+    @Test
+    void foreignCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    // Newest first, as the keyset queries return them
+    private static List<TicketSummary> rows(int count) {
+        List<TicketSummary> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TicketSummary summary = new TicketSummary();
+            summary.setId(100L - i);
+            summary.setCreatedAt(NOW.minusMinutes(i));
+            rows.add(summary);
+        }
+        return rows;
+    }
+}
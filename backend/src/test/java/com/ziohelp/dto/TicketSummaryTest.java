@@ -0,0 +1,84 @@
+package com.ziohelp.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ziohelp.repository.TicketArchiveRepository;
+import com.ziohelp.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * List rows stay flat: every query returning TicketSummary is a constructor expression
+ * matching the constructor, never a fetch of the ticket graph, and the JSON has a fixed,
+ * flat shape.
+ */
+class TicketSummaryTest {
+
+    @Test
+    void everySummaryQueryIsAConstructorExpressionWithoutFetches() {
+        List<Method> methods = summaryMethods(TicketRepository.class);
+        methods.addAll(summaryMethods(TicketArchiveRepository.class));
+        assertFalse(methods.isEmpty());
+
+        for (Method method : methods) {
+            Query query = method.getAnnotation(Query.class);
+            assertNotNull(query, method.getName() + " must declare its summary query");
+            String jpql = query.value();
+            assertTrue(jpql.startsWith("SELECT new com.ziohelp.dto.TicketSummary("), method.getName());
+            assertFalse(jpql.toUpperCase().contains("FETCH"), method.getName());
+        }
+    }
+
+    @Test
+    void selectListMatchesTheConstructor() {
+        int parameters = 0;
+        for (Constructor<?> constructor : TicketSummary.class.getConstructors()) {
+            parameters = Math.max(parameters, constructor.getParameterCount());
+        }
+
+        assertEquals(parameters, selectListSize(TicketRepository.SUMMARY_SELECT));
+        assertEquals(parameters, selectListSize(TicketArchiveRepository.SUMMARY_SELECT));
+    }
+
+    @Test
+    void jsonIsFlatAndInTheDeclaredOrder() throws Exception {
+        TicketSummary summary = new TicketSummary(42L, "Printer jams", "OPEN", "HIGH", "Hardware", "customer@example.com",
+                false, LocalDateTime.of(2024, 5, 1, 12, 0), null, 10L, "Acme", 20L, "Printers", 3L, "Dev One", "dev@example.com");
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(summary);
+
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("id", "title", "status", "priority", "category", "createdBy", "guest", "createdAt", "updatedAt",
+                "organizationId", "organizationName", "productId", "productName", "assignedToId", "assignedToName",
+                "assignedToEmail"), fields);
+        json.elements().forEachRemaining(value -> assertFalse(value.isContainerNode(), value.toString()));
+    }
+
+    private static List<Method> summaryMethods(Class<?> repository) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            if (method.getGenericReturnType().getTypeName().contains(TicketSummary.class.getName())) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static int selectListSize(String select) {
+        int start = select.indexOf("TicketSummary(") + "TicketSummary(".length();
+        int end = select.indexOf(") FROM");
+        return select.substring(start, end).split(",").length;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ziohelp.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The normalized identifier columns the case-insensitive lookups compare against.
+ */
+class UserTest {
+
+    @Test
+    void identifiersAreTrimmedAndLowerCased() {
+        assertEquals("alice@example.com", User.normalizeIdentifier("  Alice@Example.COM "));
+        assertEquals("alice", User.normalizeIdentifier("ALICE"));
+        assertNull(User.normalizeIdentifier(null));
+    }
+
+    @Test
+    void lowerCasingDoesNotDependOnTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            assertEquals("ingrid@example.com", User.normalizeIdentifier("INGRID@EXAMPLE.COM"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void normalizedColumnsFollowEveryWrite() {
+        User user = User.builder().email("Alice@Example.com").username("Alice").build();
+        user.syncNormalizedIdentifiers();
+        assertEquals("alice@example.com", user.getEmailNormalized());
+        assertEquals("alice", user.getUsernameNormalized());
+
+        user.setEmail("Alice.Smith@Example.com");
+        user.setUsername(null);
+        user.syncNormalizedIdentifiers();
+
+        assertEquals("alice.smith@example.com", user.getEmailNormalized());
+        assertNull(user.getUsernameNormalized());
+    }
+}
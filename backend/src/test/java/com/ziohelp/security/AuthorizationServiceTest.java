@@ -0,0 +1,72 @@
+package com.ziohelp.security;
+
+import com.ziohelp.entity.Permission;
+import com.ziohelp.entity.Role;
+import com.ziohelp.repository.PermissionRepository;
+import com.ziohelp.repository.RolePermissionRepository;
+import com.ziohelp.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A grant written on another node reaches this node's snapshot on the next refresh; an
+ * unchanged digest costs only the digest query.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthorizationServiceTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private RolePermissionRepository rolePermissionRepository;
+
+    @InjectMocks
+    private AuthorizationService authorizationService;
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.findByIsActiveTrueOrderByName()).thenReturn(List.of(Role.builder().id(1L).name("AGENT").build()));
+        when(permissionRepository.findByIsActiveTrue()).thenReturn(List.of(Permission.builder().id(10L).name("TICKET_RESOLVE").build()));
+        when(rolePermissionRepository.findAuthorizationVersion()).thenReturn("v1");
+        when(rolePermissionRepository.findAllRoleIdPermissionIdPairs()).thenReturn(List.of());
+        authorizationService.onApplicationReady();
+    }
+
+    @Test
+    void grantWrittenElsewhereIsPickedUpOnRefresh() {
+        when(rolePermissionRepository.findAuthorizationVersion()).thenReturn("v2");
+        when(rolePermissionRepository.findAllRoleIdPermissionIdPairs())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 10L}));
+
+        assertFalse(authorizationService.roleHasPermission("ROLE_AGENT", "TICKET_RESOLVE"));
+        authorizationService.refresh();
+
+        assertTrue(authorizationService.roleHasPermission("ROLE_AGENT", "TICKET_RESOLVE"));
+    }
+
+    @Test
+    void unchangedDigestSkipsTheRebuild() {
+        authorizationService.refresh();
+        authorizationService.refresh();
+
+        verify(rolePermissionRepository, times(3)).findAuthorizationVersion();
+        verify(rolePermissionRepository, times(1)).findAllRoleIdPermissionIdPairs();
+        verify(roleRepository, times(1)).findByIsActiveTrueOrderByName();
+    }
+}
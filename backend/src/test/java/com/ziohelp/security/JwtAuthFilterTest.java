@@ -0,0 +1,104 @@
+package com.ziohelp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @InjectMocks
+    private JwtAuthFilter jwtAuthFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessPrincipal", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void currentTokenAuthenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        when(jwtTokenProvider.verifyToken("token")).thenReturn(claims(2));
+        when(tokenVersionCache.isCurrent("dev@example.com", 2)).thenReturn(true);
+
+        jwtAuthFilter.doFilter(request("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        JwtUserPrincipal principal = (JwtUserPrincipal) authentication.getPrincipal();
+        assertEquals(7L, principal.getUserId());
+        assertEquals("ROLE_DEVELOPER", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(customUserDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void revokedTokenIsLeftUnauthenticated() throws Exception {
+        when(jwtTokenProvider.verifyToken("token")).thenReturn(claims(1));
+        when(tokenVersionCache.isCurrent("dev@example.com", 1)).thenReturn(false);
+        MockFilterChain chain = new MockFilterChain();
+
+        jwtAuthFilter.doFilter(request("token"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void invalidTokenIsLeftUnauthenticated() throws Exception {
+        when(jwtTokenProvider.verifyToken("forged")).thenReturn(null);
+
+        jwtAuthFilter.doFilter(request("forged"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static Claims claims(int tokenVersion) {
+        Claims claims = Jwts.claims().setSubject("dev@example.com");
+        claims.put(JwtTokenProvider.CLAIM_USER_ID, 7L);
+        claims.put(JwtTokenProvider.CLAIM_ORG_ID, 3L);
+        claims.put(JwtTokenProvider.CLAIM_AUTHORITIES, List.of("ROLE_DEVELOPER"));
+        claims.put(JwtTokenProvider.CLAIM_TOKEN_VERSION, tokenVersion);
+        return claims;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ziohelp.security;
+
+import com.ziohelp.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Single-parse verification: a token's signature is checked once, later calls are served from
+ * the verified-token cache until the token expires, and invalid tokens are never cached.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtTokenProviderTest {
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(2);
+
+    @InjectMocks
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "dev@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_DEVELOPER")));
+
+    private final User user = User.builder().id(7L).email("dev@example.com").tokenVersion(3).build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "test-secret");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 60_000L);
+    }
+
+    @Test
+    void repeatedVerificationParsesOnce() {
+        String token = jwtTokenProvider.generateToken(authentication, user);
+
+        Claims first = jwtTokenProvider.verifyToken(token);
+        Claims second = jwtTokenProvider.verifyToken(token);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals("dev@example.com", first.getSubject());
+        assertEquals(3, first.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class));
+        verify(verifiedTokenCache, times(1)).put(anyString(), any());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = jwtTokenProvider.generateToken(authentication, user);
+        String forged = Jwts.builder()
+                .setClaims(jwtTokenProvider.verifyToken(token))
+                .claim(JwtTokenProvider.CLAIM_AUTHORITIES, List.of("ROLE_ADMIN"))
+                .signWith(SignatureAlgorithm.HS512, "other-secret")
+                .compact();
+
+        String resigned = token.substring(0, token.lastIndexOf('.')) + forged.substring(forged.lastIndexOf('.'));
+
+        assertNull(jwtTokenProvider.verifyToken(forged));
+        assertNull(jwtTokenProvider.verifyToken(resigned));
+        assertNull(verifiedTokenCache.get(forged));
+        assertNull(verifiedTokenCache.get(resigned));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", -1_000L);
+        String token = jwtTokenProvider.generateToken(authentication, user);
+
+        assertNull(jwtTokenProvider.verifyToken(token));
+        verify(verifiedTokenCache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void cachedClaimsAreDroppedOnceTheTokenExpires() {
+        Claims expired = Jwts.claims().setSubject("dev@example.com").setExpiration(new Date(System.currentTimeMillis() - 1));
+        verifiedTokenCache.put("token", expired);
+
+        assertNull(verifiedTokenCache.get("token"));
+    }
+
+    @Test
+    void cacheKeepsOnlyTheMostRecentlyUsedTokens() {
+        Claims claims = Jwts.claims().setSubject("dev@example.com");
+        verifiedTokenCache.put("a", claims);
+        verifiedTokenCache.put("b", claims);
+        verifiedTokenCache.get("a");
+
+        verifiedTokenCache.put("c", claims);
+
+        assertNotNull(verifiedTokenCache.get("a"));
+        assertNull(verifiedTokenCache.get("b"));
+        assertNotNull(verifiedTokenCache.get("c"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ziohelp.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Three failures within a minute lock for five minutes.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptTrackerTest {
+
+    private static final long LOCKOUT_MILLIS = 300_000;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LoginAttemptTracker tracker = new LoginAttemptTracker(3, 60, 300);
+
+    @Test
+    void thirdFailureLocksTheAccount() {
+        assertFalse(tracker.recordFailure("alice@example.com", 7L));
+        assertFalse(tracker.recordFailure("alice@example.com", 7L));
+        assertEquals(0, tracker.lockedForMillis("alice@example.com", 7L));
+
+        assertTrue(tracker.recordFailure("alice@example.com", 7L));
+
+        long lockedFor = tracker.lockedForMillis("alice@example.com", 7L);
+        assertTrue(lockedFor > LOCKOUT_MILLIS - 5_000 && lockedFor <= LOCKOUT_MILLIS, String.valueOf(lockedFor));
+    }
+
+    @Test
+    void failuresThroughEmailAndUsernameCountTogether() {
+        tracker.recordFailure("alice@example.com", 7L);
+        tracker.recordFailure("alice", 7L);
+
+        assertTrue(tracker.recordFailure("ALICE@example.com", 7L));
+        assertTrue(tracker.lockedForMillis("alice", 7L) > 0);
+        assertEquals(0, tracker.lockedForMillis("bob@example.com", 8L));
+    }
+
+    @Test
+    void failuresWhileLockedDoNotExtendTheLock() {
+        for (int i = 0; i < 3; i++) tracker.recordFailure("alice@example.com", 7L);
+        long lockedFor = tracker.lockedForMillis("alice@example.com", 7L);
+
+        assertFalse(tracker.recordFailure("alice@example.com", 7L));
+        assertTrue(tracker.lockedForMillis("alice@example.com", 7L) <= lockedFor);
+    }
+
+    @Test
+    void unknownIdentifierIsThrottledButNeverPersisted() {
+        tracker.recordFailure(" Nobody@Example.com", null);
+        tracker.recordFailure("nobody@example.com", null);
+        assertTrue(tracker.recordFailure("NOBODY@example.com ", null));
+        assertTrue(tracker.lockedForMillis("nobody@example.com", null) > 0);
+
+        tracker.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void successClearsEarlierFailures() {
+        tracker.recordFailure("alice@example.com", 7L);
+        tracker.recordFailure("alice@example.com", 7L);
+
+        tracker.recordSuccess("alice@example.com", 7L, false);
+
+        assertFalse(tracker.recordFailure("alice@example.com", 7L));
+        assertFalse(tracker.recordFailure("alice@example.com", 7L));
+    }
+
+    @Test
+    void flushWritesTheLatestStatePerUserInOneBatch() {
+        for (int i = 0; i < 3; i++) tracker.recordFailure("alice@example.com", 7L);
+        tracker.recordFailure("bob@example.com", 8L);
+
+        tracker.flush();
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = batchCaptor();
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE \"user\" SET login_attempts"), batch.capture());
+        List<Object[]> rows = batch.getValue().stream().sorted(Comparator.comparing(row -> (Long) row[3])).toList();
+        assertEquals(2, rows.size());
+        // attempts, account_locked, locked_until, id
+        assertEquals(3, rows.get(0)[0]);
+        assertEquals(true, rows.get(0)[1]);
+        assertNotNull(rows.get(0)[2]);
+        assertEquals(1, rows.get(1)[0]);
+        assertEquals(false, rows.get(1)[1]);
+        assertNull(rows.get(1)[2]);
+    }
+
+    @Test
+    void successAfterPersistedFailuresWritesTheReset() {
+        tracker.recordSuccess("alice@example.com", 7L, true);
+
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = batchCaptor();
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(0, batch.getValue().get(0)[0]);
+        assertEquals(false, batch.getValue().get(0)[1]);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<Object[]>> batchCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
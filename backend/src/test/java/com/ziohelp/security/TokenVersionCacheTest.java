@@ -0,0 +1,103 @@
+package com.ziohelp.security;
+
+import com.ziohelp.entity.User;
+import com.ziohelp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionCacheTest {
+
+    private static final String EMAIL = "dev@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokedTokenIsRejectedOnceTheNewVersionIsCommitted() {
+        TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 60_000);
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(0), Optional.of(1));
+        assertTrue(cache.isCurrent(EMAIL, 0));
+
+        User user = User.builder().email(EMAIL).tokenVersion(0).build();
+        TransactionSynchronizationManager.initSynchronization();
+        cache.revoke(user);
+        assertEquals(1, user.getTokenVersion());
+        // Not committed yet: the old token stays valid
+        assertTrue(cache.isCurrent(EMAIL, 0));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(cache.isCurrent(EMAIL, 0));
+        assertTrue(cache.isCurrent(EMAIL, 1));
+    }
+
+    @Test
+    void rolledBackRevocationLeavesCacheInLineWithDatabase() {
+        TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 60_000);
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(0));
+        cache.isCurrent(EMAIL, 0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.revoke(User.builder().email(EMAIL).tokenVersion(0).build());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(cache.isCurrent(EMAIL, 0));
+        assertFalse(cache.isCurrent(EMAIL, 1));
+    }
+
+    @Test
+    void revocationOnAnotherNodeIsSeenWhenTheEntryExpires() throws InterruptedException {
+        TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 50);
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(0), Optional.of(1));
+        assertTrue(cache.isCurrent(EMAIL, 0));
+        assertTrue(cache.isCurrent(EMAIL, 0));
+
+        Thread.sleep(60);
+
+        assertFalse(cache.isCurrent(EMAIL, 0));
+        verify(userRepository, times(2)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void revokeOutsideTransactionEvictsImmediately() {
+        TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 60_000);
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(3), Optional.of(4));
+        cache.isCurrent(EMAIL, 3);
+
+        cache.revoke(User.builder().email(EMAIL).tokenVersion(3).build());
+
+        assertTrue(cache.isCurrent(EMAIL, 4));
+    }
+
+    @Test
+    void unknownUserIsRejected() {
+        TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 60_000);
+        when(userRepository.findTokenVersionByEmail("gone@example.com")).thenReturn(Optional.empty());
+
+        assertFalse(cache.isCurrent("gone@example.com", 0));
+        assertFalse(cache.isCurrent(null, 0));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.BulkTicketUpdateRequest;
+import com.ziohelp.dto.BulkTicketUpdateResponse;
+import com.ziohelp.entity.Role;
+import com.ziohelp.entity.User;
+import com.ziohelp.repository.TicketRepository;
+import com.ziohelp.repository.UserRepository;
+import com.ziohelp.support.StubJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.ziohelp.support.SqlStatementAssertions.assertNoRepeatedStatements;
+import static com.ziohelp.support.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement budget of a bulk update: one batch each for the tickets, history and audit rows,
+ * however many tickets are listed, with all event log entries handed over in one call. The
+ * ticket read goes through the (mocked) repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkTicketServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TicketEventLog ticketEventLog;
+
+    @Mock
+    private TicketOutbox ticketOutbox;
+
+    @Spy
+    private JdbcTemplate jdbcTemplate = StubJdbc.jdbcTemplate();
+
+    @InjectMocks
+    private BulkTicketService bulkTicketService;
+
+    private final User admin = User.builder()
+            .id(1L)
+            .email("admin@example.com")
+            .roles(Set.of(Role.builder().name("ADMIN").build()))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkTicketService, "maxIds", 500);
+        lenient().when(ticketOutbox.effectsOfMany()).thenCallRealMethod();
+    }
+
+    @Test
+    void threeTicketsTakeThreeStatementsAndOneEventBatch() throws Exception {
+        AtomicReference<BulkTicketUpdateResponse> response = new AtomicReference<>();
+
+        assertStatementCount(3, () -> response.set(bulkTicketService.apply(request(3), admin)));
+
+        assertEquals(3, response.get().getUpdated());
+        ArgumentCaptor<List<TicketEventLog.Event>> events = eventsCaptor();
+        verify(ticketEventLog).appendAll(events.capture());
+        assertEquals(3, events.getValue().size());
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTickets() throws Exception {
+        BulkTicketUpdateRequest request = request(200);
+        AtomicReference<BulkTicketUpdateResponse> response = new AtomicReference<>();
+
+        assertStatementCount(3, () -> response.set(bulkTicketService.apply(request, admin)));
+        assertNoRepeatedStatements(2, () -> bulkTicketService.apply(request, admin));
+
+        assertEquals(200, response.get().getUpdated());
+        verify(ticketEventLog, times(2)).appendAll(anyList());
+    }
+
+    @Test
+    void broadcastIsRecordedInTheOutboxOnce() {
+        bulkTicketService.apply(request(3), admin);
+
+        verify(ticketOutbox).record(any());
+    }
+
+    @Test
+    void nothingToChangeRunsNoStatementsAndBroadcastsNothing() throws Exception {
+        BulkTicketUpdateRequest unchanged = request(3);
+        unchanged.setPriority("LOW");
+        AtomicReference<BulkTicketUpdateResponse> response = new AtomicReference<>();
+
+        assertStatementCount(0, () -> response.set(bulkTicketService.apply(unchanged, admin)));
+
+        assertEquals(0, response.get().getUpdated());
+        verify(ticketOutbox, never()).record(any());
+    }
+
+    // Tickets 1..count, all OPEN/LOW in organization 7, raised to HIGH
+    private BulkTicketUpdateRequest request(int count) {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            ids.add(id);
+            rows.add(new Object[]{id, "OPEN", "LOW", "Hardware", 5L, 7L, 3L, 1L});
+        }
+        when(ticketRepository.findBulkUpdateRowsByIdIn(anyList())).thenReturn(rows);
+        return BulkTicketUpdateRequest.builder().ticketIds(ids).priority("HIGH").build();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<TicketEventLog.Event>> eventsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
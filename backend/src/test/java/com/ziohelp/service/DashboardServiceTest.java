@@ -0,0 +1,67 @@
+package com.ziohelp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ticket trends read one grouped count per series, however many buckets the range has; the
+ * statement budget of those counts is covered by TicketArchiveServiceTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private TicketArchiveService ticketArchiveService;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @Test
+    void recentRangeReadsEachSeriesOnce() {
+        LocalDate today = LocalDate.now(ZoneId.of("UTC"));
+        when(ticketArchiveService.countCreatedByBucket(eq("day"), eq(ZoneId.of("UTC")), any(), any()))
+                .thenReturn(Map.of(today, 3L));
+
+        Map<String, Object> trends = dashboardService.getTicketTrends(null, null, 30, "day", "UTC");
+
+        List<?> buckets = (List<?>) trends.get("trends");
+        assertEquals(31, buckets.size());
+        assertEquals(3L, ((Map<?, ?>) buckets.get(30)).get("created"));
+        assertEquals(0L, ((Map<?, ?>) buckets.get(30)).get("resolved"));
+        verify(ticketArchiveService).countByStatusUpdatedByBucket(eq("RESOLVED"), eq("day"), eq(ZoneId.of("UTC")), any(), any());
+    }
+
+    @Test
+    void bucketCountDoesNotAddReads() {
+        LocalDate end = LocalDate.now();
+
+        dashboardService.getTicketTrends(end.minusDays(365), end, 365, "day", "Europe/Berlin");
+
+        verify(ticketArchiveService, times(1)).countCreatedByBucket(any(), any(), any(), any());
+        verify(ticketArchiveService, times(1)).countByStatusUpdatedByBucket(any(), any(), any(), any(), any());
+        verifyNoMoreInteractions(ticketArchiveService);
+    }
+
+    @Test
+    void unknownTimeZoneIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dashboardService.getTicketTrends(null, null, 30, "day", "Mars/Olympus"));
+    }
+}
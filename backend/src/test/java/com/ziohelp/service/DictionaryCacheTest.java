@@ -0,0 +1,168 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Faq;
+import com.ziohelp.entity.Product;
+import com.ziohelp.repository.FaqRepository;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dictionaries are read once per TTL; committed writes extend cached entries in place and
+ * uncommitted ones leave them alone.
+ */
+@ExtendWith(MockitoExtension.class)
+class DictionaryCacheTest {
+
+    private static final Long PRODUCT = 20L;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private FaqRepository faqRepository;
+
+    @Mock
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DictionaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        cache.registerMeters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repeatedReadsHitTheCache() {
+        when(ticketRepository.findDistinctStatusesByProduct_Id(PRODUCT)).thenReturn(List.of("OPEN"));
+
+        cache.ticketStatuses(PRODUCT);
+        cache.ticketStatuses(PRODUCT);
+
+        assertEquals(List.of("OPEN"), cache.ticketStatuses(PRODUCT));
+        verify(ticketRepository).findDistinctStatusesByProduct_Id(PRODUCT);
+        assertEquals(2.0, count("ticket_status", "hit"));
+        assertEquals(1.0, count("ticket_status", "miss"));
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        when(ticketRepository.findDistinctCategoriesByProduct_Id(PRODUCT))
+                .thenReturn(List.of("Hardware"), List.of("Network"));
+
+        cache.ticketCategories(PRODUCT);
+
+        assertEquals(List.of("Network"), cache.ticketCategories(PRODUCT));
+        assertEquals(2.0, count("ticket_category", "miss"));
+    }
+
+    @Test
+    void committedTicketChangeExtendsTheCachedDictionaries() {
+        when(ticketRepository.findDistinctStatusesByProduct_Id(PRODUCT)).thenReturn(List.of("OPEN"));
+        when(ticketRepository.findDistinctCategoriesByProduct_Id(PRODUCT)).thenReturn(List.of("Hardware"));
+        cache.ticketStatuses(PRODUCT);
+        cache.ticketCategories(PRODUCT);
+
+        cache.onTicketChanged(TicketChangedEvent.transitioned(1L,
+                new TicketChangedEvent.State(10L, PRODUCT, "OPEN", "HIGH", "Hardware", null),
+                new TicketChangedEvent.State(10L, PRODUCT, "ESCALATED", "HIGH", "Network", null)));
+
+        assertEquals(List.of("OPEN", "ESCALATED"), cache.ticketStatuses(PRODUCT));
+        assertEquals(List.of("Hardware", "Network"), cache.ticketCategories(PRODUCT));
+        verify(ticketRepository).findDistinctStatusesByProduct_Id(PRODUCT);
+    }
+
+    @Test
+    void faqCategoryReachesTheProductAndTheAllProductsDictionaries() {
+        when(faqRepository.findDistinctCategoriesByProduct_Id(PRODUCT)).thenReturn(List.of("Billing"));
+        when(faqRepository.findDistinctCategories()).thenReturn(List.of("Billing", "Accounts"));
+        cache.faqCategories(PRODUCT);
+        cache.allFaqCategories();
+
+        cache.onFaqWritten(faq("Shipping"));
+
+        assertEquals(List.of("Billing", "Shipping"), cache.faqCategories(PRODUCT));
+        assertEquals(List.of("Billing", "Accounts", "Shipping"), cache.allFaqCategories());
+    }
+
+    @Test
+    void writeInsideATransactionWaitsForCommit() {
+        when(faqRepository.findDistinctCategoriesByProduct_Id(PRODUCT)).thenReturn(List.of("Billing"));
+        cache.faqCategories(PRODUCT);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.onFaqWritten(faq("Shipping"));
+        cache.onFaqWritten(faq("Returns"));
+
+        assertEquals(List.of("Billing"), cache.faqCategories(PRODUCT));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of("Billing", "Shipping"), cache.faqCategories(PRODUCT));
+    }
+
+    @Test
+    void writeToAnUncachedDictionaryIsLeftToTheNextLoad() {
+        cache.onValueWritten(DictionaryCache.Dictionary.ARTICLE_CATEGORY, PRODUCT, "Guides");
+        when(articleRepository.findDistinctCategoriesByProduct_Id(PRODUCT)).thenReturn(List.of("Guides", "Setup"));
+
+        assertEquals(List.of("Guides", "Setup"), cache.articleCategories(PRODUCT));
+    }
+
+    @Test
+    void invalidateAllReloadsEveryDictionary() {
+        when(ticketRepository.findDistinctStatusesByProduct_Id(PRODUCT)).thenReturn(List.of("OPEN"));
+        cache.ticketStatuses(PRODUCT);
+
+        cache.invalidateAll();
+        cache.ticketStatuses(PRODUCT);
+
+        verify(ticketRepository, times(2)).findDistinctStatusesByProduct_Id(PRODUCT);
+    }
+
+    private double count(String dictionary, String result) {
+        return meterRegistry.get("ziohelp.dictionary.cache")
+                .tag("dictionary", dictionary).tag("result", result).counter().count();
+    }
+
+    private static Faq faq(String category) {
+        Faq faq = new Faq();
+        faq.setCategory(category);
+        faq.setProduct(Product.builder().id(PRODUCT).build());
+        return faq;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Faq;
+import com.ziohelp.entity.Product;
+import com.ziohelp.repository.FaqRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Typo-tolerant FAQ matching: trigram candidates confirmed by a bounded edit distance.
+ */
+@ExtendWith(MockitoExtension.class)
+class FaqSearchIndexTest {
+
+    @Mock
+    private FaqRepository faqRepository;
+
+    @InjectMocks
+    private FaqSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index.index(faq(1L, "How do I reset my password?", "Use the reset link on the sign in page."));
+        index.index(faq(2L, "Why don't I receive notification emails?", "Check your spam folder and mail filters."));
+        index.index(faq(3L, "Can I export tickets?", "Reports can be exported as PDF with the password of your account."));
+    }
+
+    @Test
+    void misspelledTokensStillFindTheirFaq() {
+        assertEquals(1L, firstId("pasword"));
+        assertEquals(2L, firstId("recieve"));
+        assertEquals(2L, firstId("notifcation emials"));
+    }
+
+    @Test
+    void questionWordsOutweighAnswerWords() {
+        List<SearchHit> hits = index.search(7L, "password", 10);
+
+        assertEquals(List.of(1L, 3L), ids(hits));
+    }
+
+    @Test
+    void exactWordOutranksTypo() {
+        index.index(faq(4L, "Where is the passwort policy?", "Ask your administrator."));
+
+        List<SearchHit> hits = index.search(7L, "password", 10);
+
+        assertEquals(1L, hits.get(0).getId());
+        assertTrue(hits.stream().anyMatch(hit -> hit.getId() == 4L));
+        assertTrue(score(hits, 1L) > score(hits, 4L));
+    }
+
+    @Test
+    void matchingMoreOfTheQueryRanksHigher() {
+        List<SearchHit> hits = index.search(7L, "reset password link", 10);
+
+        assertEquals(1L, hits.get(0).getId());
+    }
+
+    @Test
+    void wordsBeyondTheEditBoundDoNotMatch() {
+        assertTrue(index.search(7L, "prnt", 10).isEmpty());
+        assertTrue(index.search(7L, "xylophone", 10).isEmpty());
+    }
+
+    @Test
+    void unpublishedFaqIsDropped() {
+        Faq faq = faq(1L, "How do I reset my password?", "Use the reset link on the sign in page.");
+        faq.setIsPublished(false);
+
+        index.index(faq);
+
+        assertTrue(ids(index.search(7L, "password", 10)).stream().noneMatch(id -> id == 1L));
+    }
+
+    @Test
+    void editDistanceStopsAtTheBound() {
+        assertEquals(3, FaqSearchIndex.boundedEditDistance("kitten", "sitting", 3));
+        assertEquals(3, FaqSearchIndex.boundedEditDistance("kitten", "sitting", 2));
+        assertEquals(0, FaqSearchIndex.boundedEditDistance("mail", "mail", 1));
+        assertEquals(List.of("$ab", "abc", "bc$"), FaqSearchIndex.trigrams("abc"));
+    }
+
+    private long firstId(String query) {
+        List<SearchHit> hits = index.search(7L, query, 10);
+        assertFalse(hits.isEmpty(), "no hits for " + query);
+        return hits.get(0).getId();
+    }
+
+    private static double score(List<SearchHit> hits, long id) {
+        return hits.stream().filter(hit -> hit.getId() == id).findFirst().orElseThrow().getScore();
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+
+    private static Faq faq(Long id, String question, String answer) {
+        return Faq.builder()
+                .id(id)
+                .product(Product.builder().id(7L).build())
+                .question(question)
+                .answer(answer)
+                .isPublished(true)
+                .build();
+    }
+}
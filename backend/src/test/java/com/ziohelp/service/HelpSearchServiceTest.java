@@ -0,0 +1,184 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.HelpSearchResponse;
+import com.ziohelp.dto.HelpSearchResult;
+import com.ziohelp.entity.Faq;
+import com.ziohelp.entity.KnowledgeBaseArticle;
+import com.ziohelp.entity.Product;
+import com.ziohelp.repository.FaqRepository;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import com.ziohelp.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Federated help search: both sources are queried in parallel, merged on max-normalized
+ * scores, and a slow, failing or unready source is reported instead of holding up the page.
+ */
+@ExtendWith(MockitoExtension.class)
+class HelpSearchServiceTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private FaqRepository faqRepository;
+
+    @Mock
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    @Mock
+    private FaqSearchIndex faqSearchIndex;
+
+    @Mock
+    private KnowledgeBaseSearchIndex articleSearchIndex;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HelpSearchService helpSearchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(helpSearchService, "threads", 2);
+        ReflectionTestUtils.setField(helpSearchService, "queueCapacity", 8);
+        ReflectionTestUtils.setField(helpSearchService, "sourceDeadlineMs", 200L);
+        ReflectionTestUtils.setField(helpSearchService, "maxCandidates", 200);
+        ReflectionTestUtils.setField(helpSearchService, "snippetLength", 200);
+        helpSearchService.start();
+        lenient().when(productRepository.findByDomain("acme")).thenReturn(Optional.of(Product.builder().id(PRODUCT_ID).build()));
+        lenient().when(faqSearchIndex.isReady()).thenReturn(true);
+        lenient().when(articleSearchIndex.isReady()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        helpSearchService.stop();
+    }
+
+    @Test
+    void sourcesAreMergedOnNormalizedScoresAndOnlyThePageIsLoaded() {
+        when(faqSearchIndex.search(PRODUCT_ID, "printer", 200))
+                .thenReturn(List.of(new SearchHit(1L, 10.0), new SearchHit(2L, 5.0)));
+        when(articleSearchIndex.search(PRODUCT_ID, "printer", 200))
+                .thenReturn(List.of(new SearchHit(9L, 2.0), new SearchHit(8L, 1.5)));
+        when(articleRepository.findAllById(List.of(9L))).thenReturn(List.of(article(9L)));
+        when(faqRepository.findAllById(List.of(1L))).thenReturn(List.of(faq(1L)));
+
+        HelpSearchResponse response = helpSearchService.search("acme", "printer", 0, 2);
+
+        // Both tops normalize to 1.0; ties go to articles, then newer ids
+        assertEquals(List.of("article:9", "faq:1"), keys(response.getContent()));
+        assertEquals(4, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        assertEquals(Map.of("faqs", "ok", "articles", "ok"), response.getSources());
+        assertTrue(response.getContent().get(0).getTitle().contains("<mark>"));
+    }
+
+    @Test
+    void slowSourceTimesOutWithoutHoldingUpThePage() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(faqSearchIndex.search(PRODUCT_ID, "printer", 200)).thenReturn(List.of(new SearchHit(1L, 3.0)));
+        when(articleSearchIndex.search(PRODUCT_ID, "printer", 200)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new SearchHit(9L, 2.0));
+        });
+        when(faqRepository.findAllById(List.of(1L))).thenReturn(List.of(faq(1L)));
+
+        long started = System.nanoTime();
+        HelpSearchResponse response = helpSearchService.search("acme", "printer", 0, 10);
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        release.countDown();
+
+        assertTrue(tookMs < 2_000, "took " + tookMs + " ms");
+        assertEquals("timeout", response.getSources().get("articles"));
+        assertEquals(List.of("faq:1"), keys(response.getContent()));
+        verify(articleRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void failingSourceIsReportedAsError() {
+        when(faqSearchIndex.search(PRODUCT_ID, "printer", 200)).thenThrow(new IllegalStateException("boom"));
+        when(articleSearchIndex.search(PRODUCT_ID, "printer", 200)).thenReturn(List.of(new SearchHit(9L, 2.0)));
+        when(articleRepository.findAllById(List.of(9L))).thenReturn(List.of(article(9L)));
+
+        HelpSearchResponse response = helpSearchService.search("acme", "printer", 0, 10);
+
+        assertEquals("error", response.getSources().get("faqs"));
+        assertEquals(List.of("article:9"), keys(response.getContent()));
+        assertEquals(1.0, meterRegistry.get("ziohelp.helpsearch.source")
+                .tag("source", "faqs").tag("outcome", "error").counter().count());
+    }
+
+    @Test
+    void indexStillBuildingIsReportedUnavailable() {
+        when(articleSearchIndex.isReady()).thenReturn(false);
+        when(faqSearchIndex.search(PRODUCT_ID, "printer", 200)).thenReturn(List.of());
+
+        HelpSearchResponse response = helpSearchService.search("acme", "printer", 0, 10);
+
+        assertEquals("unavailable", response.getSources().get("articles"));
+        verify(articleSearchIndex, never()).search(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void unknownDomainReturnsAnEmptyPageWithoutSearching() {
+        when(productRepository.findByDomain("nobody")).thenReturn(Optional.empty());
+
+        HelpSearchResponse response = helpSearchService.search("nobody", "printer", 0, 10);
+
+        assertTrue(response.getContent().isEmpty());
+        assertEquals(0, response.getTotalElements());
+        verifyNoInteractions(faqSearchIndex, articleSearchIndex);
+    }
+
+    @Test
+    void negativePageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> helpSearchService.search("acme", "printer", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> helpSearchService.search("acme", "printer", 0, 0));
+    }
+
+    private static List<String> keys(List<HelpSearchResult> results) {
+        return results.stream().map(result -> result.getType() + ":" + result.getId()).toList();
+    }
+
+    private static Faq faq(Long id) {
+        return Faq.builder().id(id).question("Printer offline?").answer("Restart the printer.").isPublished(true).build();
+    }
+
+    private static KnowledgeBaseArticle article(Long id) {
+        return KnowledgeBaseArticle.builder().id(id).title("Printer setup").content("Install the printer driver.")
+                .isPublished(true).build();
+    }
+}
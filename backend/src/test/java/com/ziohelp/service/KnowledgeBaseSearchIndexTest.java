@@ -0,0 +1,117 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.KnowledgeBaseArticle;
+import com.ziohelp.entity.Product;
+import com.ziohelp.repository.KnowledgeBaseArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * BM25F ranking over title, category and content, per product segment.
+ */
+@ExtendWith(MockitoExtension.class)
+class KnowledgeBaseSearchIndexTest {
+
+    @Mock
+    private KnowledgeBaseArticleRepository articleRepository;
+
+    @InjectMocks
+    private KnowledgeBaseSearchIndex index;
+
+    @Test
+    void titleMatchOutranksContentMatch() {
+        index.index(article(1L, 3L, "Resetting your password", "Account", "Open the printer settings page first."));
+        index.index(article(2L, 3L, "Printer setup", "Hardware", "Connect the device and install the driver."));
+
+        assertEquals(List.of(2L, 1L), ids(index.search(3L, "printer", 10)));
+    }
+
+    @Test
+    void rareTermOutweighsCommonOne() {
+        index.index(article(1L, 3L, "Printer toner", "Hardware", "Replace the toner cartridge."));
+        index.index(article(2L, 3L, "Printer jams", "Hardware", "Clear the paper path."));
+        index.index(article(3L, 3L, "Printer drivers", "Hardware", "Install the latest driver."));
+
+        List<SearchHit> hits = index.search(3L, "printer toner", 10);
+
+        assertEquals(1L, hits.get(0).getId());
+        assertEquals(3, hits.size());
+    }
+
+    @Test
+    void prefixMatchesAtLowerWeightThanExactTerms() {
+        index.index(article(1L, 3L, "Printing guide", "Hardware", "Double sided jobs."));
+        index.index(article(2L, 3L, "Print queue", "Hardware", "Clearing stuck jobs."));
+
+        assertEquals(List.of(2L, 1L), ids(index.search(3L, "print", 10)));
+        assertEquals(2, index.search(3L, "prin", 10).size());
+    }
+
+    @Test
+    void unpublishingDropsTheArticle() {
+        KnowledgeBaseArticle article = article(1L, 3L, "Printer setup", "Hardware", "Install the driver.");
+        index.index(article);
+
+        article.setIsPublished(false);
+        index.index(article);
+
+        assertTrue(index.search(3L, "printer", 10).isEmpty());
+    }
+
+    @Test
+    void editedArticleNoLongerMatchesItsOldText() {
+        index.index(article(1L, 3L, "Printer setup", "Hardware", "Install the driver."));
+
+        index.index(article(1L, 3L, "Scanner setup", "Hardware", "Install the driver."));
+
+        assertTrue(index.search(3L, "printer", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search(3L, "scanner", 10)));
+    }
+
+    @Test
+    void productFilterSearchesOnlyThatProduct() {
+        index.index(article(1L, 3L, "Printer setup", "Hardware", "Install the driver."));
+        index.index(article(2L, 4L, "Printer setup", "Hardware", "Install the driver."));
+
+        assertEquals(List.of(2L), ids(index.search(4L, "printer", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search(null, "printer", 10)));
+    }
+
+    @Test
+    void rebuildLoadsPublishedRowsInChunks() {
+        when(articleRepository.findPublishedSearchRowsAfter(0L, PageRequest.of(0, 500))).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 3L, "Printer setup", "Hardware", "Install the driver."},
+                new Object[]{2L, 3L, "Password reset", "Account", "Use the reset link."}));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(2L), ids(index.search(3L, "password", 10)));
+        assertEquals(2, index.stats().get("documents"));
+    }
+
+    private static KnowledgeBaseArticle article(Long id, Long productId, String title, String category, String content) {
+        return KnowledgeBaseArticle.builder()
+                .id(id)
+                .product(Product.builder().id(productId).build())
+                .title(title)
+                .category(category)
+                .content(content)
+                .isPublished(true)
+                .build();
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
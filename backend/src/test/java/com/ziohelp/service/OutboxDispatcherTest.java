@@ -0,0 +1,120 @@
+package com.ziohelp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ziohelp.entity.OutboxEvent;
+import com.ziohelp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OutboxDispatcher dispatcher;
+
+    @Mock
+    private Connection lockConnection;
+
+    @Mock
+    private PreparedStatement lockStatement;
+
+    @Mock
+    private ResultSet lockResult;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 8);
+    }
+
+    @Test
+    void nodeWithoutTheLockDeliversNothing() throws Exception {
+        lockHeld(false);
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(outboxEventRepository, notificationService, auditLogService);
+        verify(lockConnection, never()).prepareStatement(startsWith("SELECT pg_advisory_unlock"));
+    }
+
+    @Test
+    void lockHolderDeliversAndReleasesTheLock() throws Exception {
+        lockHeld(true);
+        when(outboxEventRepository.findDue(any(), any())).thenReturn(List.of(OutboxEvent.builder()
+                .id(1L)
+                .effect(TicketOutbox.TICKET_CHANGE)
+                .payload("{\"BULK_TICKET_EVENT\":{\"eventType\":\"BULK_UPDATED\",\"ticketIds\":[1,2],\"changes\":{\"priority\":\"HIGH\"}}}")
+                .status(OutboxDispatcher.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build()));
+
+        dispatcher.dispatch();
+
+        verify(notificationService).sendBulkTicketEvent("BULK_UPDATED", List.of(1L, 2L), Map.of("priority", "HIGH"));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE outbox_event SET status = 'DONE'"), anyList());
+        verify(lockConnection).prepareStatement(startsWith("SELECT pg_advisory_unlock"));
+    }
+
+    @Test
+    void disabledDispatcherDoesNotAskForTheLock() {
+        ReflectionTestUtils.setField(dispatcher, "enabled", false);
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(jdbcTemplate, outboxEventRepository);
+    }
+
+    private void lockHeld(boolean acquired) throws Exception {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(lockConnection));
+        when(lockConnection.prepareStatement(anyString())).thenReturn(lockStatement);
+        when(lockStatement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getBoolean(1)).thenReturn(acquired, true);
+    }
+}
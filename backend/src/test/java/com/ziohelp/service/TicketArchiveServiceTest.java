@@ -0,0 +1,165 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.TicketSummary;
+import com.ziohelp.repository.TicketArchiveRepository;
+import com.ziohelp.repository.TicketRepository;
+import com.ziohelp.support.StubJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.ziohelp.support.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Offset paging over ranges that reach the archive: ticket and archive rows are merged newest
+ * first, ranges the archive cannot hold read ticket alone. Trend buckets take one grouped
+ * query per table.
+ */
+@ExtendWith(MockitoExtension.class)
+class TicketArchiveServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketArchiveRepository ticketArchiveRepository;
+
+    @Spy
+    private JdbcTemplate jdbcTemplate = StubJdbc.jdbcTemplate();
+
+    @InjectMocks
+    private TicketArchiveService ticketArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ticketArchiveService, "retentionDays", 365L);
+        ReflectionTestUtils.setField(ticketArchiveService, "maxOffsetRows", 100);
+    }
+
+    @Test
+    void recentRangeReadsTicketAloneInTheRequestedOrder() {
+        LocalDateTime from = NOW.minusDays(7);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("priority").ascending());
+        Page<TicketSummary> live = new PageImpl<>(List.of(summary(5L, 1)));
+        when(ticketRepository.findAllFilteredSummaries(null, from, null, null, pageable)).thenReturn(live);
+
+        assertSame(live, ticketArchiveService.findFilteredPage(null, from, null, null, pageable));
+
+        verify(ticketArchiveRepository, never()).findAllFilteredFirstKeysetPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rangeReachingTheArchiveMergesBothTablesNewestFirst() {
+        when(ticketRepository.findAllFilteredFirstKeysetPage(isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(summary(5L, 1), summary(4L, 2)));
+        when(ticketArchiveRepository.findAllFilteredFirstKeysetPage(isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(summary(2L, 400), summary(1L, 500)));
+        when(ticketRepository.countAllFiltered(null, null, null, null)).thenReturn(2L);
+        when(ticketArchiveRepository.countAllFiltered(null, null, null, null)).thenReturn(2L);
+
+        Page<TicketSummary> second = ticketArchiveService.findFilteredPage(null, null, null, null,
+                PageRequest.of(1, 2, Sort.by("createdAt").descending()));
+
+        assertEquals(List.of(2L, 1L), ids(second));
+        assertEquals(4, second.getTotalElements());
+    }
+
+    @Test
+    void otherOrderOverTheArchiveIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ticketArchiveService.findFilteredPage(null, null, null, null,
+                PageRequest.of(0, 20, Sort.by("priority").ascending())));
+    }
+
+    @Test
+    void pagePastTheOffsetLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ticketArchiveService.findFilteredPage(null, null, null, null,
+                PageRequest.of(5, 20)));
+    }
+
+    @Test
+    void archivedMatchesFollowTheLastRankedHits() {
+        Page<TicketSummary> ranked = new PageImpl<>(List.of(summary(7L, 1), summary(6L, 3)), PageRequest.of(0, 4), 2);
+        when(ticketArchiveRepository.countAllFiltered(null, null, null, "printer")).thenReturn(3L);
+        when(ticketArchiveRepository.findAllFilteredFirstKeysetPage(null, null, null, "printer", PageRequest.of(0, 2)))
+                .thenReturn(List.of(summary(2L, 400), summary(1L, 500)));
+
+        Page<TicketSummary> page = ticketArchiveService.withArchivedMatches(ranked, null, null, null, "printer");
+
+        assertEquals(List.of(7L, 6L, 2L, 1L), ids(page));
+        assertEquals(5, page.getTotalElements());
+    }
+
+    @Test
+    void laterPagesSkipTheArchivedMatchesAlreadyShown() {
+        Page<TicketSummary> ranked = new PageImpl<>(List.of(), PageRequest.of(1, 4), 2);
+        when(ticketArchiveRepository.countAllFiltered(null, null, null, "printer")).thenReturn(3L);
+        when(ticketArchiveRepository.findAllFilteredFirstKeysetPage(null, null, null, "printer", PageRequest.of(0, 6)))
+                .thenReturn(List.of(summary(3L, 380), summary(2L, 400), summary(1L, 500)));
+
+        Page<TicketSummary> page = ticketArchiveService.withArchivedMatches(ranked, null, null, null, "printer");
+
+        assertEquals(List.of(1L), ids(page));
+    }
+
+    @Test
+    void pagesWithinTheRankedHitsDoNotReadArchivedRows() {
+        Page<TicketSummary> ranked = new PageImpl<>(List.of(summary(7L, 1)), PageRequest.of(0, 1), 2);
+        when(ticketArchiveRepository.countAllFiltered(null, null, null, "printer")).thenReturn(3L);
+
+        Page<TicketSummary> page = ticketArchiveService.withArchivedMatches(ranked, null, null, null, "printer");
+
+        assertEquals(List.of(7L), ids(page));
+        assertEquals(5, page.getTotalElements());
+        verify(ticketArchiveRepository, never()).findAllFilteredFirstKeysetPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recentBucketsRunOneGroupedQuery() throws Exception {
+        assertStatementCount(1, () -> ticketArchiveService.countCreatedByBucket("day", ZoneId.of("UTC"),
+                NOW.minusDays(60), NOW));
+    }
+
+    @Test
+    void bucketsReachingTheArchiveAddOneArchiveQuery() throws Exception {
+        assertStatementCount(2, () -> ticketArchiveService.countByStatusUpdatedByBucket("RESOLVED", "week",
+                ZoneId.of("Europe/Berlin"), NOW.minusDays(400), NOW));
+    }
+
+    private static TicketSummary summary(Long id, int daysAgo) {
+        TicketSummary summary = new TicketSummary();
+        summary.setId(id);
+        summary.setTitle("Ticket " + id);
+        summary.setCreatedAt(NOW.minusDays(daysAgo));
+        return summary;
+    }
+
+    private static List<Long> ids(Page<TicketSummary> page) {
+        return page.getContent().stream().map(TicketSummary::getId).toList();
+    }
+}
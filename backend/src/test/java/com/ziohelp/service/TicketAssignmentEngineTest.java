@@ -0,0 +1,134 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.TicketRepository;
+import com.ziohelp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Organization 1 has developers 11 (3 open of 10), 12 (1 of 10) and 13 (3 of 20).
+ */
+@ExtendWith(MockitoExtension.class)
+class TicketAssignmentEngineTest {
+
+    private static final Long ORG = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private TicketAssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "defaultCapacity", 10);
+        ReflectionTestUtils.setField(engine, "weightByCapacity", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void leastLoadedRelativeToCapacityIsChosen() {
+        rebuild(new long[][]{{11, 3}, {12, 1}, {13, 3}});
+
+        assertEquals(Optional.of(12L), engine.claimLeastLoaded(ORG, null, "OPEN"));
+    }
+
+    @Test
+    void concurrentClaimsSpreadOutUntilTheirTransactionsEnd() {
+        rebuild(new long[][]{{11, 3}, {12, 1}, {13, 3}});
+        TransactionSynchronizationManager.initSynchronization();
+
+        List<Long> chosen = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(engine.claimLeastLoaded(ORG, null, "OPEN").orElseThrow());
+        }
+        // 12 goes to 2/10, 13 to 4/20, and the tie goes to whoever was assigned least recently
+        assertEquals(List.of(12L, 13L, 12L), chosen);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(Optional.of(12L), engine.claimLeastLoaded(ORG, null, "OPEN"));
+    }
+
+    @Test
+    void committedAssignmentsCountTowardsTheLoad() {
+        rebuild(new long[][]{{11, 3}, {12, 1}, {13, 3}});
+
+        engine.onTicketChanged(TicketChangedEvent.transitioned(100L, null, state(12L, "OPEN")));
+        engine.onTicketChanged(TicketChangedEvent.transitioned(101L, state(null, "OPEN"), state(12L, "OPEN")));
+
+        assertEquals(Optional.of(13L), engine.claimLeastLoaded(ORG, null, "OPEN"));
+    }
+
+    @Test
+    void resolvedTicketsReleaseTheLoad() {
+        rebuild(new long[][]{{11, 3}, {12, 1}, {13, 3}});
+
+        for (long ticket = 1; ticket <= 3; ticket++) {
+            engine.onTicketChanged(TicketChangedEvent.transitioned(ticket, state(11L, "IN_PROGRESS"), state(11L, "RESOLVED")));
+        }
+
+        assertEquals(Optional.of(11L), engine.claimLeastLoaded(ORG, null, "OPEN"));
+    }
+
+    @Test
+    void equalLoadsAreAssignedRoundRobin() {
+        ReflectionTestUtils.setField(engine, "weightByCapacity", false);
+        rebuild(new long[][]{{11, 1}, {12, 1}, {13, 1}});
+
+        List<Long> chosen = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            chosen.add(engine.claimLeastLoaded(ORG, null, "OPEN").orElseThrow());
+        }
+
+        assertEquals(List.of(11L, 12L, 13L, 11L), chosen);
+    }
+
+    @Test
+    void organizationWithoutDevelopersGetsNoAssignee() {
+        assertEquals(Optional.empty(), engine.claimLeastLoaded(2L, null, "OPEN"));
+    }
+
+    // {developerId, openTickets}; developer 13 has capacity 20, the others the default
+    private void rebuild(long[][] developers) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> counts = new ArrayList<>();
+        for (long[] developer : developers) {
+            rows.add(new Object[]{developer[0], ORG, developer[0] == 13 ? 20 : null});
+            counts.add(new Object[]{developer[0], developer[1]});
+        }
+        when(userRepository.findDeveloperAssignmentRows()).thenReturn(rows);
+        when(ticketRepository.countOpenByAssignee(TicketAssignmentEngine.CLOSED_STATUSES)).thenReturn(counts);
+        engine.rebuild();
+    }
+
+    private static TicketChangedEvent.State state(Long assigneeId, String status) {
+        return new TicketChangedEvent.State(ORG, 20L, status, "HIGH", null, assigneeId);
+    }
+}
@@ -0,0 +1,158 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.TicketArchiveRepository;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketCounterStoreTest {
+
+    // Transactions below 100 and 101..104 except 102 had committed when the snapshot was taken
+    private static final String SNAPSHOT = "100:105:102";
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketArchiveRepository ticketArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TicketCounterStore store;
+
+    private final ExecutorService reconciler = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_current_snapshot"), eq(String.class))).thenReturn(SNAPSHOT);
+        store.registerGauges();
+        store.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdownNow();
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+    }
+
+    @Test
+    void reconcileDoesNotWaitForTransactionsAboutToCommit() throws Exception {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_current_xact_id"), eq(Long.class))).thenReturn(110L);
+        store.onTicketCommitting(created(1L));
+
+        assertEquals(0L, reconciler.submit(store::reconcile).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void changeCommittedAfterTheSnapshotIsCarriedOver() {
+        when(ticketRepository.countGroupedByOrganizationProductStatusPriority()).thenAnswer(invocation -> {
+            commit(created(1L), 105L);
+            return List.of();
+        });
+
+        store.reconcile();
+
+        assertEquals(1L, store.count(10L, 20L, "OPEN", "HIGH"));
+    }
+
+    @Test
+    void changeStillInProgressForTheSnapshotIsCarriedOver() {
+        when(ticketRepository.countGroupedByOrganizationProductStatusPriority()).thenAnswer(invocation -> {
+            commit(created(1L), 102L);
+            return List.of();
+        });
+
+        store.reconcile();
+
+        assertEquals(1L, store.count(null, null, null, null));
+    }
+
+    @Test
+    void changeTheSnapshotSawIsNotCountedTwice() {
+        when(ticketRepository.countGroupedByOrganizationProductStatusPriority()).thenAnswer(invocation -> {
+            commit(created(1L), 99L);
+            return List.<Object[]>of(new Object[]{10L, 20L, "OPEN", "HIGH", 1L});
+        });
+
+        assertEquals(0L, store.reconcile());
+        assertEquals(1L, store.count(10L, 20L, "OPEN", "HIGH"));
+    }
+
+    @Test
+    void changeCountedAfterTheSwapGoesToTheNewCounts() {
+        store.reconcile();
+        commit(created(1L), 120L);
+
+        assertEquals(1L, store.count(10L, null, null, null));
+    }
+
+    @Test
+    void reconcileReportsCountsMissedByEvents() {
+        when(ticketRepository.countGroupedByOrganizationProductStatusPriority())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 20L, "OPEN", "HIGH", 2L}));
+        when(ticketArchiveRepository.countGroupedByOrganizationProductStatusPriority())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 20L, "CLOSED", "LOW", 1L}));
+
+        assertEquals(3L, store.reconcile());
+        assertEquals(2L, store.count(10L, null, "OPEN", null));
+        assertEquals(3L, store.count(10L, 20L, null, null));
+    }
+
+    @Test
+    void statusChangeMovesTicketBetweenCells() {
+        store.onTicketChanged(created(1L));
+        store.onTicketChanged(TicketChangedEvent.transitioned(1L, state("OPEN"), state("RESOLVED")));
+
+        assertEquals(0L, store.count(10L, 20L, "OPEN", null));
+        assertEquals(1L, store.count(10L, 20L, "RESOLVED", null));
+        assertEquals(1L, store.count(null, null, null, "HIGH"));
+    }
+
+    // The listener phases of one committing transaction with the given id
+    private void commit(TicketChangedEvent event, long xid) {
+        TransactionSynchronizationManager.bindResource(store, xid);
+        store.onTicketChanged(event);
+        store.onTicketCompleted(event);
+    }
+
+    private static TicketChangedEvent created(Long ticketId) {
+        return new TicketChangedEvent(ticketId, null, state("OPEN"), null);
+    }
+
+    private static TicketChangedEvent.State state(String status) {
+        return new TicketChangedEvent.State(10L, 20L, status, "HIGH", null, null);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ziohelp.service;
+
+import com.ziohelp.repository.TicketEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketEventLogTest {
+
+    @Mock
+    private TicketEventRepository ticketEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TicketEventLog ticketEventLog;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ticketEventLog, "sequenceBatchSize", 1000);
+        ticketEventLog.registerMeters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(ticketEventLog);
+    }
+
+    @Test
+    void eventsOfATransactionAreInsertedInOneBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        ticketEventLog.append(1L, TicketEventLog.CREATED, "agent@example.com", null, "OPEN", "Printer jams");
+        ticketEventLog.append(1L, TicketEventLog.COMMENTED, "agent@example.com", null, "7", "On it");
+        ticketEventLog.appendAll(List.of(new TicketEventLog.Event(2L, TicketEventLog.UPDATED, "agent@example.com", "LOW", "HIGH", "priority")));
+        verifyNoInteractions(jdbcTemplate);
+
+        commit();
+
+        ArgumentCaptor<List<Object[]>> rows = rowsCaptor();
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getValue().size());
+        assertEquals(3.0, meterRegistry.get("ziohelp.ticket.events.written").counter().count());
+    }
+
+    @Test
+    void rolledBackTransactionWritesNoEvents() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        ticketEventLog.append(1L, TicketEventLog.COMMENTED, "agent@example.com", null, "7", "On it");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertFalse(TransactionSynchronizationManager.hasResource(ticketEventLog));
+    }
+
+    @Test
+    void outsideATransactionTheEventIsWrittenAtOnce() {
+        ticketEventLog.append(1L, TicketEventLog.NOTE, "agent@example.com", null, "Called customer", null);
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void eventsWithoutTicketAreSkipped() {
+        ticketEventLog.append(null, TicketEventLog.NOTE, "agent@example.com", null, null, null);
+        ticketEventLog.appendAll(List.of(new TicketEventLog.Event(null, TicketEventLog.NOTE, null, null, null, null)));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void committedEventsArePositionedAfterTheLastPositionInSeqOrder() {
+        runTransactionsInline();
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(any(String.class), eq(Long.class), anyInt())).thenReturn(List.of(31L, 35L));
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Long.class))).thenReturn(10L);
+
+        assertEquals(2, ticketEventLog.sequenceCommitted());
+
+        ArgumentCaptor<List<Object[]>> updates = rowsCaptor();
+        verify(jdbcTemplate).batchUpdate(anyString(), updates.capture());
+        assertEquals(List.of(11L, 31L), List.of(updates.getValue().get(0)));
+        assertEquals(List.of(12L, 35L), List.of(updates.getValue().get(1)));
+    }
+
+    @Test
+    void nothingIsPositionedWhileAnotherNodeHoldsTheSequencerLock() {
+        runTransactionsInline();
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class))).thenReturn(false);
+
+        assertEquals(0, ticketEventLog.sequenceCommitted());
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<Object[]>> rowsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
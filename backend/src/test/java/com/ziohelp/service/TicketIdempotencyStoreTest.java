@@ -0,0 +1,149 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Ticket;
+import com.ziohelp.exception.IdempotencyKeyMismatchException;
+import com.ziohelp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class TicketIdempotencyStoreTest {
+
+    private static final String SCOPE = "user:customer@example.com";
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TicketIdempotencyStore store;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "ttlSeconds", 86400L);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "waitMs", 5000L);
+        store.registerMeters();
+        lenient().when(ticketRepository.findById(42L)).thenReturn(Optional.of(ticket(42L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsWithSameKeyCreateOneTicket() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Ticket> create = () -> {
+            created.incrementAndGet();
+            firstStarted.countDown();
+            await(release);
+            return ticket(42L);
+        };
+
+        List<Future<Ticket>> results = new ArrayList<>();
+        results.add(callers.submit(() -> store.createOnce(SCOPE, "key-1", "hash", create)));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> store.createOnce(SCOPE, "key-1", "hash", create)));
+        }
+        release.countDown();
+
+        for (Future<Ticket> result : results) {
+            assertEquals(42L, result.get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(1, created.get());
+        assertEquals(3.0, meterRegistry.get("ziohelp.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void sameKeyForDifferentRequestIsRejected() {
+        store.createOnce(SCOPE, "key-1", "hash-a", () -> ticket(42L));
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.createOnce(SCOPE, "key-1", "hash-b", () -> ticket(43L)));
+    }
+
+    @Test
+    void failedFirstRequestReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> store.createOnce(SCOPE, "key-1", "hash", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        Ticket retried = store.createOnce(SCOPE, "key-1", "hash", () -> ticket(42L));
+
+        assertEquals(42L, retried.getId());
+        assertEquals(0.0, meterRegistry.get("ziohelp.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void keysAreSeparatedByScope() {
+        AtomicInteger created = new AtomicInteger();
+        Supplier<Ticket> create = () -> ticket(40L + created.incrementAndGet());
+
+        store.createOnce(SCOPE, "key-1", "hash", create);
+        store.createOnce("user:someone-else@example.com", "key-1", "hash", create);
+
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void requestsWithoutKeyAlwaysCreate() {
+        AtomicInteger created = new AtomicInteger();
+        Supplier<Ticket> create = () -> ticket(40L + created.incrementAndGet());
+
+        store.createOnce(SCOPE, null, "hash", create);
+        store.createOnce(SCOPE, " ", "hash", create);
+
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void overlongKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.createOnce(SCOPE, "k".repeat(256), "hash", () -> ticket(42L)));
+    }
+
+    private static Ticket ticket(Long id) {
+        return Ticket.builder().id(id).title("Printer jams").build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
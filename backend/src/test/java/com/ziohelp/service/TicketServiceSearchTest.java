@@ -0,0 +1,127 @@
+package com.ziohelp.service;
+
+import com.ziohelp.dto.TicketSummary;
+import com.ziohelp.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketServiceSearchTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketSearchIndex ticketSearchIndex;
+
+    @Mock
+    private TicketArchiveService ticketArchiveService;
+
+    @InjectMocks
+    private TicketService ticketService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ticketService, "maxSearchCandidates", 1000);
+        lenient().when(ticketSearchIndex.isReady()).thenReturn(true);
+    }
+
+    @Test
+    void stopWordQueryFallsBackToFilteredListing() {
+        Page<TicketSummary> filtered = new PageImpl<>(List.of(summary(1L)));
+        when(ticketArchiveService.findFilteredPage(isNull(), isNull(), isNull(), eq("how do I"), any()))
+                .thenReturn(filtered);
+
+        Page<TicketSummary> page = ticketService.searchTickets(null, null, null, "how do I", 0, 20);
+
+        assertSame(filtered, page);
+        verify(ticketArchiveService).findFilteredPage(null, null, null, "how do I",
+                PageRequest.of(0, 20, Sort.by("createdAt").descending()));
+        verify(ticketSearchIndex, never()).search(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void singleLetterQueryFallsBackToFilteredListing() {
+        when(ticketArchiveService.findFilteredPage(any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        ticketService.searchTickets("OPEN", null, null, "x", 0, 20);
+
+        verify(ticketArchiveService).findFilteredPage(eq("OPEN"), isNull(), isNull(), eq("x"), any());
+        verify(ticketSearchIndex, never()).search(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void productSearchFallsBackTheSameWay() {
+        ticketService.searchTicketsByProduct(5L, "the", 0, 10);
+
+        verify(ticketRepository).searchSummariesByProduct_IdAndKeyword(eq(5L), eq("the"), any());
+        verify(ticketSearchIndex, never()).search(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void searchableQueryUsesTheIndexInRankOrder() {
+        when(ticketSearchIndex.search(null, "printer jam", 1000)).thenReturn(List.of(3L, 1L, 2L));
+        when(ticketRepository.findSummariesByIdIn(anyList())).thenReturn(List.of(summary(1L), summary(3L)));
+        when(ticketArchiveService.withArchivedMatches(any(), any(), any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Page<TicketSummary> page = ticketService.searchTickets(null, null, null, "printer jam", 0, 2);
+
+        assertEquals(List.of(3L, 1L), page.getContent().stream().map(TicketSummary::getId).toList());
+        assertEquals(3, page.getTotalElements());
+        verify(ticketRepository).findSummariesByIdIn(List.of(3L, 1L));
+        verify(ticketArchiveService, never()).findFilteredPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rankedPageIsHandedOnForArchivedMatches() {
+        when(ticketSearchIndex.search(null, "printer jam", 1000)).thenReturn(List.of(3L));
+        when(ticketRepository.findSummariesByIdIn(anyList())).thenReturn(List.of(summary(3L)));
+        Page<TicketSummary> withArchived = new PageImpl<>(List.of(summary(3L), summary(90L)));
+        when(ticketArchiveService.withArchivedMatches(any(), isNull(), isNull(), isNull(), eq("printer jam"))).thenReturn(withArchived);
+
+        assertSame(withArchived, ticketService.searchTickets(null, null, null, "printer jam", 0, 10));
+    }
+
+    @Test
+    void indexNotReadyFallsBackEvenForSearchableQuery() {
+        when(ticketSearchIndex.isReady()).thenReturn(false);
+
+        ticketService.searchTickets(null, null, null, "printer jam", 0, 20);
+
+        verify(ticketArchiveService).findFilteredPage(isNull(), isNull(), isNull(), eq("printer jam"), any());
+        verify(ticketSearchIndex, never()).search(any(), anyString(), anyInt());
+    }
+
+    private static TicketSummary summary(Long id) {
+        TicketSummary summary = new TicketSummary();
+        summary.setId(id);
+        summary.setTitle("Ticket " + id);
+        summary.setCreatedAt(LocalDateTime.now());
+        return summary;
+    }
+}
@@ -0,0 +1,226 @@
+package com.ziohelp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ziohelp.dto.TicketStateChange;
+import com.ziohelp.entity.OutboxEvent;
+import com.ziohelp.exception.ResourceNotFoundException;
+import com.ziohelp.exception.TicketConflictException;
+import com.ziohelp.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolve as a conditional UPDATE ... RETURNING: the JdbcTemplate is mocked and answers the
+ * update with the row the database would return, or with nothing when the status or version
+ * did not match. Outbox effects are recorded through a real TicketOutbox over a mocked
+ * repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class TicketServiceTransitionTest {
+
+    private static final Long TICKET_ID = 42L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TicketEventLog ticketEventLog;
+
+    @Mock
+    private TicketOutbox ticketOutbox;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TicketService ticketService;
+
+    // Writes the effects handed to ticketOutbox into outboxEventRepository
+    @InjectMocks
+    private TicketOutbox outboxWriter;
+
+    // Current row as seen by the update: status and version
+    private String status;
+    private long version;
+    private boolean exists = true;
+    private String lastUpdateSql;
+    private List<Object> lastUpdateArgs;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        lenient().when(ticketOutbox.effectsOf(any())).thenCallRealMethod();
+        lenient().doAnswer(invocation -> {
+            outboxWriter.record(invocation.getArgument(0));
+            return null;
+        }).when(ticketOutbox).record(any());
+
+        lenient().when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            Object[] all = invocation.getArguments();
+            List<Object> args = Arrays.asList(Arrays.copyOfRange(all, 2, all.length));
+            if (sql.startsWith("UPDATE ticket t")) {
+                lastUpdateSql = sql;
+                lastUpdateArgs = args;
+                return matches(sql, args) ? List.of(mapper.mapRow(returnedRow(), 0)) : List.of();
+            }
+            if (!exists) return List.of();
+            ResultSet current = mock(ResultSet.class);
+            when(current.getString(1)).thenReturn(status);
+            when(current.getObject(2, Long.class)).thenReturn(version);
+            return List.of(mapper.mapRow(current, 0));
+        });
+    }
+
+    @Test
+    void resolveReturnsPreviousStatusAndNewVersion() {
+        status = "IN_PROGRESS";
+        version = 3;
+
+        TicketStateChange change = ticketService.resolveTicket(TICKET_ID, "dev@example.com", 3L);
+
+        assertEquals("IN_PROGRESS", change.getPreviousStatus());
+        assertEquals("RESOLVED", change.getStatus());
+        assertEquals(4L, change.getVersion());
+        assertTrue(lastUpdateSql.contains(" AND t.version = ?"));
+        assertEquals(3L, lastUpdateArgs.get(lastUpdateArgs.size() - 1));
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        TicketChangedEvent changed = (TicketChangedEvent) event.getValue();
+        assertEquals("IN_PROGRESS", changed.before().status());
+        assertEquals("RESOLVED", changed.after().status());
+        verify(ticketEventLog).append(TICKET_ID, TicketEventLog.STATUS_CHANGED, "dev@example.com", "IN_PROGRESS", "RESOLVED", null);
+    }
+
+    @Test
+    void resolveRecordsAllSideEffectsInOneOutboxRow() {
+        status = "OPEN";
+        version = 0;
+
+        ticketService.resolveTicket(TICKET_ID, "dev@example.com", null);
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertEquals(TicketOutbox.TICKET_CHANGE, saved.getValue().getEffect());
+        String payload = saved.getValue().getPayload();
+        assertTrue(payload.indexOf(TicketOutbox.NOTIFICATION) < payload.indexOf(TicketOutbox.TICKET_EVENT));
+        assertTrue(payload.indexOf(TicketOutbox.TICKET_EVENT) < payload.indexOf(TicketOutbox.AUDIT));
+    }
+
+    @Test
+    void withoutVersionOnlyStatusIsChecked() {
+        status = "OPEN";
+        version = 7;
+
+        TicketStateChange change = ticketService.resolveTicket(TICKET_ID, "dev@example.com", null);
+
+        assertEquals(8L, change.getVersion());
+        assertFalse(lastUpdateSql.contains("t.version = ?"));
+        assertFalse(lastUpdateArgs.contains(7L));
+    }
+
+    @Test
+    void staleVersionIsAConflictAndChangesNothing() {
+        status = "OPEN";
+        version = 5;
+
+        TicketConflictException e = assertThrows(TicketConflictException.class,
+                () -> ticketService.resolveTicket(TICKET_ID, "dev@example.com", 4L));
+
+        assertTrue(e.getMessage().contains("modified by someone else"), e.getMessage());
+        verifyNoInteractions(eventPublisher, ticketEventLog);
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    void disallowedTransitionIsAConflict() {
+        status = "CLOSED";
+        version = 2;
+
+        TicketConflictException e = assertThrows(TicketConflictException.class,
+                () -> ticketService.resolveTicket(TICKET_ID, "dev@example.com", 2L));
+
+        assertEquals("Ticket 42 cannot be resolved while CLOSED", e.getMessage());
+        verifyNoInteractions(eventPublisher, ticketEventLog);
+    }
+
+    @Test
+    void missingTicketIsNotFound() {
+        exists = false;
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> ticketService.resolveTicket(TICKET_ID, "dev@example.com", null));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void unknownStatusIsRejectedBeforeAnyUpdate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ticketService.updateTicketStatus(TICKET_ID, "ARCHIVED", null, "dev@example.com"));
+        assertNull(lastUpdateSql);
+    }
+
+    // What the database would do with the UPDATE: args are value, updated_at, id, allowed statuses..., [version]
+    private boolean matches(String sql, List<Object> args) {
+        if (!exists) return false;
+        boolean versioned = sql.contains("t.version = ?");
+        List<Object> allowed = new ArrayList<>(args.subList(3, versioned ? args.size() - 1 : args.size()));
+        if (!allowed.contains(status)) return false;
+        return !versioned || args.get(args.size() - 1).equals(version);
+    }
+
+    // Columns as listed in TicketService's RETURNING clause
+    private ResultSet returnedRow() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(TICKET_ID);
+        when(rs.getString(2)).thenReturn(status);
+        when(rs.getString(4)).thenReturn("RESOLVED");
+        when(rs.getLong(6)).thenReturn(version + 1);
+        when(rs.getTimestamp(7)).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        when(rs.getString(8)).thenReturn("Printer jams");
+        when(rs.getString(9)).thenReturn("HIGH");
+        when(rs.getString(11)).thenReturn("customer@example.com");
+        when(rs.getObject(12, Long.class)).thenReturn(10L);
+        when(rs.getObject(13, Long.class)).thenReturn(20L);
+        return rs;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ziohelp.service;
+
+import com.ziohelp.entity.Product;
+import com.ziohelp.entity.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketSimilarityIndexTest {
+
+    private static final String TITLE = "Printer on the third floor jams on every duplex job";
+    private static final String DESCRIPTION = "The office printer next to the accounting team jams whenever a duplex "
+            + "print job is sent from the finance laptops, and the paper tray reports an error afterwards. "
+            + "Single sided jobs from the same laptops print without problems.";
+    private static final String NEAR_DESCRIPTION = DESCRIPTION + " This blocks the month end close.";
+
+    private TicketSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TicketSimilarityIndex();
+        ReflectionTestUtils.setField(index, "threshold", 0.5);
+        index.index(ticket(1L, 3L, TITLE, DESCRIPTION));
+        index.index(ticket(2L, 3L, "Password reset email never arrives",
+                "Users requesting a password reset do not receive the email, not even in their spam folder."));
+    }
+
+    @Test
+    void identicalTextIsFoundWithFullSimilarity() {
+        List<TicketSimilarityIndex.Match> matches = index.findSimilar(3L, TITLE, DESCRIPTION, null, 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).ticketId());
+        assertEquals(1.0, matches.get(0).similarity());
+    }
+
+    @Test
+    void nearDuplicateIsFound() {
+        List<TicketSimilarityIndex.Match> matches = index.findSimilar(3L, TITLE, NEAR_DESCRIPTION, null, 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).ticketId());
+        assertTrue(matches.get(0).similarity() > 0.7, "similarity " + matches.get(0).similarity());
+    }
+
+    @Test
+    void mostSimilarComesFirst() {
+        index.index(ticket(5L, 3L, TITLE, NEAR_DESCRIPTION));
+
+        List<TicketSimilarityIndex.Match> matches = index.findSimilar(3L, TITLE, DESCRIPTION, null, 5);
+
+        assertEquals(List.of(1L, 5L), matches.stream().map(TicketSimilarityIndex.Match::ticketId).toList());
+    }
+
+    @Test
+    void unrelatedTextIsNotFound() {
+        assertTrue(index.findSimilar(3L, "Invoice totals are rounded incorrectly",
+                "The monthly invoice adds up line items with the wrong rounding for euro amounts.", null, 5).isEmpty());
+    }
+
+    @Test
+    void otherProductsAreNotSearched() {
+        assertTrue(index.findSimilar(4L, TITLE, DESCRIPTION, null, 5).isEmpty());
+    }
+
+    @Test
+    void ticketItselfIsExcluded() {
+        Ticket saved = ticket(1L, 3L, TITLE, DESCRIPTION);
+
+        assertTrue(index.findSimilar(saved, 5).isEmpty());
+    }
+
+    @Test
+    void deletedTicketIsNoLongerFound() {
+        index.onTicketChanged(TicketChangedEvent.deleted(ticket(1L, 3L, TITLE, DESCRIPTION)));
+
+        assertTrue(index.findSimilar(3L, TITLE, DESCRIPTION, null, 5).isEmpty());
+    }
+
+    @Test
+    void editedTicketIsMatchedOnItsNewText() {
+        Ticket edited = ticket(1L, 3L, "Scanner uploads fail", "Scanned documents never show up in the shared folder.");
+        index.onTicketChanged(TicketChangedEvent.updated(TicketChangedEvent.State.of(edited), edited));
+
+        assertTrue(index.findSimilar(3L, TITLE, DESCRIPTION, null, 5).isEmpty());
+        assertEquals(1L, index.findSimilar(3L, edited.getTitle(), edited.getDescription(), null, 5).get(0).ticketId());
+    }
+
+    private static Ticket ticket(Long id, Long productId, String title, String description) {
+        return Ticket.builder()
+                .id(id)
+                .product(Product.builder().id(productId).build())
+                .title(title)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ziohelp.support;
+
+import com.ziohelp.config.SqlStatementRecorder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query-count assertions for controller and service tests, backed by the same recorder
+ * as the per-request SQL budget. The call must run on the test thread (MockMvc does), e.g.
+ *
+ * <pre>
+ * SqlStatementAssertions.assertStatementsAtMost(3, () -> mockMvc.perform(get("/api/tickets/my")));
+ * SqlStatementAssertions.assertNoRepeatedStatements(() -> mockMvc.perform(get("/api/v1/dashboard/ticket-trends")));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private static final int DEFAULT_REPEAT_THRESHOLD = 5;
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+
+    private SqlStatementAssertions() {
+    }
+
+    /** Run the call and return what it executed. */
+    public static SqlStatementRecorder.Scope record(Call call) throws Exception {
+        try (SqlStatementRecorder.Scope scope = SqlStatementRecorder.begin()) {
+            call.run();
+            return scope;
+        }
+    }
+
+    public static SqlStatementRecorder.Scope assertStatementsAtMost(int max, Call call) throws Exception {
+        SqlStatementRecorder.Scope scope = record(call);
+        if (scope.statementCount() > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + scope.statementCount()
+                    + " were executed:\n" + describe(scope.shapes()));
+        }
+        return scope;
+    }
+
+    public static SqlStatementRecorder.Scope assertStatementCount(int expected, Call call) throws Exception {
+        SqlStatementRecorder.Scope scope = record(call);
+        if (scope.statementCount() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + scope.statementCount()
+                    + " were executed:\n" + describe(scope.shapes()));
+        }
+        return scope;
+    }
+
+    /** Fail if any statement shape runs {@value #DEFAULT_REPEAT_THRESHOLD} or more times (a likely N+1 loop). */
+    public static SqlStatementRecorder.Scope assertNoRepeatedStatements(Call call) throws Exception {
+        return assertNoRepeatedStatements(DEFAULT_REPEAT_THRESHOLD, call);
+    }
+
+    public static SqlStatementRecorder.Scope assertNoRepeatedStatements(int threshold, Call call) throws Exception {
+        SqlStatementRecorder.Scope scope = record(call);
+        List<Map.Entry<String, Integer>> repeated = scope.repeatedShapes(threshold);
+        if (!repeated.isEmpty()) {
+            StringBuilder message = new StringBuilder("Statements repeated " + threshold + "+ times (possible N+1):");
+            for (Map.Entry<String, Integer> entry : repeated) {
+                message.append("\n  ").append(entry.getValue()).append("x ").append(entry.getKey());
+            }
+            throw new AssertionError(message.toString());
+        }
+        return scope;
+    }
+
+    private static String describe(Map<String, Integer> shapes) {
+        StringBuilder out = new StringBuilder();
+        shapes.forEach((shape, count) -> out.append("  ").append(count).append("x ").append(shape).append('\n'));
+        return out.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ziohelp.support;
+
+import com.ziohelp.config.StatementCountingDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JdbcTemplate over a mocked driver, wrapped in {@link StatementCountingDataSource} so
+ * {@link SqlStatementAssertions} can count what a service executes without a database.
+ * Queries return no rows, updates report one row and batches one row per entry.
+ */
+public final class StubJdbc {
+
+    private StubJdbc() {
+    }
+
+    public static JdbcTemplate jdbcTemplate() {
+        try {
+            return new JdbcTemplate(new StatementCountingDataSource(dataSource()));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        AtomicInteger batched = new AtomicInteger();
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        // JdbcTemplate.batchUpdate asks the statement for its connection to check batch support
+        when(statement.getConnection()).thenReturn(connection);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(statement.executeUpdate()).thenReturn(1);
+        doAnswer(invocation -> {
+            batched.incrementAndGet();
+            return null;
+        }).when(statement).addBatch();
+        when(statement.executeBatch()).thenAnswer(invocation -> {
+            int[] counts = new int[batched.getAndSet(0)];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        return dataSource;
+    }
+}